@@ -0,0 +1,45 @@
+package com.neurofleetx.benchmark;
+
+import com.neurofleetx.entity.RouteOptimization.Location;
+import com.neurofleetx.routing.RoutingEngine;
+import com.neurofleetx.service.DistanceMatrixService;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Builds services outside the Spring context with the same defaults as application.properties
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() {}
+
+    static DistanceMatrixService distanceMatrixService() {
+        DistanceMatrixService service = new DistanceMatrixService();
+        inject(service, "routingEngine", new RoutingEngine());
+        inject(service, "maxCacheBytes", 134217728L);
+        inject(service, "reuseScanLimit", 16);
+        return service;
+    }
+
+    // Stops scattered over a ~20 km square, fixed per seed so runs are comparable
+    static List<Location> randomStops(int count, long seed) {
+        Random random = new Random(seed);
+        List<Location> stops = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            stops.add(new Location(12.9 + random.nextDouble() * 0.2, 77.5 + random.nextDouble() * 0.2,
+                    "Stop " + (i + 1) + ", Sector " + random.nextInt(100), i + 1));
+        }
+        return stops;
+    }
+
+    static void inject(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot set " + name + " on " + target.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.neurofleetx.benchmark;
+
+import com.neurofleetx.entity.RouteOptimization.Location;
+import com.neurofleetx.optimization.DistanceMatrix;
+import com.neurofleetx.service.DistanceMatrixService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Cold build of a distance matrix (cache cleared every call) against a cache hit
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceMatrixBenchmark {
+
+    @Param({"50", "200", "1000"})
+    private int stops;
+
+    private DistanceMatrixService service;
+    private List<Location> path;
+
+    @Setup
+    public void setUp() {
+        service = BenchmarkSupport.distanceMatrixService();
+        path = BenchmarkSupport.randomStops(stops, 42);
+    }
+
+    @Benchmark
+    public DistanceMatrix build() {
+        service.clear();
+        return service.getMatrix(path);
+    }
+
+    @Benchmark
+    public DistanceMatrix cached() {
+        return service.getMatrix(path);
+    }
+}
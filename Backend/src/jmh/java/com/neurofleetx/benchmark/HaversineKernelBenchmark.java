@@ -0,0 +1,60 @@
+package com.neurofleetx.benchmark;
+
+import com.neurofleetx.optimization.GeoDistance;
+import com.neurofleetx.optimization.GeoPoints;
+import com.neurofleetx.optimization.HaversineKernel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// One-to-many haversine rows: the per-pair GeoDistance call against the scalar and vector kernels
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Benchmark)
+public class HaversineKernelBenchmark {
+
+    @Param({"64", "1000", "10000"})
+    private int points;
+
+    @Param({"scalar", "vector"})
+    private String kernelMode;
+
+    private double[] latitudes;
+    private double[] longitudes;
+    private GeoPoints buffer;
+    private HaversineKernel kernel;
+    private double[] out;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(5);
+        latitudes = new double[points];
+        longitudes = new double[points];
+        for (int i = 0; i < points; i++) {
+            latitudes[i] = 12.7 + random.nextDouble() * 0.6;
+            longitudes[i] = 77.3 + random.nextDouble() * 0.6;
+        }
+        buffer = GeoPoints.of(latitudes, longitudes);
+        kernel = HaversineKernel.select(kernelMode);
+        out = new double[points];
+    }
+
+    @Benchmark
+    public double[] kernelRow() {
+        kernel.distancesKm(12.97, 77.59, buffer, 0, points, out, 0);
+        return out;
+    }
+
+    // Baseline independent of the kernel parameter
+    @Benchmark
+    public double[] pairwiseRow() {
+        for (int i = 0; i < points; i++) {
+            out[i] = GeoDistance.haversineKm(12.97, 77.59, latitudes[i], longitudes[i]);
+        }
+        return out;
+    }
+}
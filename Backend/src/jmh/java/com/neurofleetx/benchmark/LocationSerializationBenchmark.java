@@ -0,0 +1,61 @@
+package com.neurofleetx.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.neurofleetx.config.JacksonConfig;
+import com.neurofleetx.entity.RouteOptimization;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// JSON round trip of a route optimization with its path as Location objects or as a polyline
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LocationSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int stops;
+
+    private ObjectMapper mapper;
+    private ObjectWriter fullWriter;
+    private ObjectWriter polylineWriter;
+    private RouteOptimization route;
+    private String fullJson;
+    private String polylineJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = new JacksonConfig().objectMapper();
+        fullWriter = mapper.writerWithView(RouteOptimization.GeometryView.Full.class);
+        polylineWriter = mapper.writerWithView(RouteOptimization.GeometryView.Polyline.class);
+        route = new RouteOptimization();
+        route.setOptimizedPath(BenchmarkSupport.randomStops(stops, 3));
+        fullJson = fullWriter.writeValueAsString(route);
+        polylineJson = polylineWriter.writeValueAsString(route);
+    }
+
+    @Benchmark
+    public String serializeFull() throws Exception {
+        return fullWriter.writeValueAsString(route);
+    }
+
+    @Benchmark
+    public String serializePolyline() throws Exception {
+        return polylineWriter.writeValueAsString(route);
+    }
+
+    @Benchmark
+    public RouteOptimization deserializeFull() throws Exception {
+        return mapper.readValue(fullJson, RouteOptimization.class);
+    }
+
+    // Includes decoding the polyline back into Location objects
+    @Benchmark
+    public int deserializePolyline() throws Exception {
+        return mapper.readValue(polylineJson, RouteOptimization.class).getOptimizedPath().size();
+    }
+}
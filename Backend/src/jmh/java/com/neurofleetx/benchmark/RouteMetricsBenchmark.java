@@ -0,0 +1,53 @@
+package com.neurofleetx.benchmark;
+
+import com.neurofleetx.entity.RouteOptimization;
+import com.neurofleetx.service.DistanceMatrixService;
+import com.neurofleetx.service.RouteOptimizationService;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.TimeUnit;
+
+// RouteOptimizationService metric calculation (sequence numbers, path distance and duration)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteMetricsBenchmark {
+
+    @Param({"10", "50", "200"})
+    private int stops;
+
+    @Param({"true", "false"})
+    private boolean cachedMatrix;
+
+    private DistanceMatrixService matrices;
+    private RouteOptimization route;
+    private MethodHandle calculateRouteMetrics;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        matrices = BenchmarkSupport.distanceMatrixService();
+        RouteOptimizationService service = new RouteOptimizationService();
+        BenchmarkSupport.inject(service, "distanceMatrixService", matrices);
+        calculateRouteMetrics = MethodHandles.privateLookupIn(RouteOptimizationService.class, MethodHandles.lookup())
+                .findVirtual(RouteOptimizationService.class, "calculateRouteMetrics",
+                        MethodType.methodType(void.class, RouteOptimization.class))
+                .bindTo(service);
+        route = new RouteOptimization();
+        route.setOptimizedPath(BenchmarkSupport.randomStops(stops, 11));
+    }
+
+    @Benchmark
+    public double calculate() throws Throwable {
+        if (!cachedMatrix) {
+            matrices.clear();
+        }
+        calculateRouteMetrics.invokeExact(route);
+        return route.getEstimatedDistance();
+    }
+}
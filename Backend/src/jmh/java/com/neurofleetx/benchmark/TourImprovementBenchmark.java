@@ -0,0 +1,43 @@
+package com.neurofleetx.benchmark;
+
+import com.neurofleetx.optimization.DistanceMatrix;
+import com.neurofleetx.optimization.TourImprover;
+import com.neurofleetx.optimization.TourProblem;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// 2-opt + Or-opt local search from a nearest-neighbor start at several problem sizes
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TourImprovementBenchmark {
+
+    @Param({"50", "200", "500"})
+    private int stops;
+
+    private DistanceMatrix matrix;
+    private TourProblem problem;
+    private int[] start;
+
+    @Setup
+    public void setUp() {
+        matrix = BenchmarkSupport.distanceMatrixService().getMatrix(BenchmarkSupport.randomStops(stops, 7));
+        problem = new TourProblem(matrix);
+        start = TourImprover.nearestNeighbor(matrix);
+    }
+
+    @Benchmark
+    public double improve() {
+        int[] tour = start.clone();
+        return TourImprover.improve(matrix, tour, problem);
+    }
+
+    @Benchmark
+    public int[] nearestNeighbor() {
+        return TourImprover.nearestNeighbor(matrix);
+    }
+}
@@ -1,6 +1,7 @@
 package com.neurofleetx.config;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
@@ -48,6 +49,8 @@ public class JacksonConfig {
             .modules(module)
             .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
             .featuresToDisable(DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE)
+            // Properties without @JsonView stay visible when a response selects a view
+            .featuresToEnable(MapperFeature.DEFAULT_VIEW_INCLUSION)
             .build();
     }
 }
@@ -0,0 +1,40 @@
+package com.neurofleetx.config;
+
+import com.neurofleetx.entity.BookingStatus;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+// Keeps enum-backed fields stored as their lowercase values, so existing documents and string
+// queries keep matching
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(
+                new BookingStatusWriter(),
+                new BookingStatusReader()));
+    }
+
+    @WritingConverter
+    static class BookingStatusWriter implements Converter<BookingStatus, String> {
+        @Override
+        public String convert(BookingStatus status) {
+            return status.getValue();
+        }
+    }
+
+    @ReadingConverter
+    static class BookingStatusReader implements Converter<String, BookingStatus> {
+        @Override
+        public BookingStatus convert(String value) {
+            return BookingStatus.from(value);
+        }
+    }
+}
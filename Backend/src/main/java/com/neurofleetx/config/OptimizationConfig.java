@@ -0,0 +1,34 @@
+package com.neurofleetx.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+@Configuration
+public class OptimizationConfig {
+
+    // Dedicated pool for solver work so optimization never competes with servlet threads or the common pool
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool optimizationPool(@Value("${optimization.pool.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("route-optimizer-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    // Pool for the fleet health engine's batches, kept apart so a large fleet run never delays a solve
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool vehicleHealthPool(@Value("${health.engine.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        return new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("vehicle-health-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+}
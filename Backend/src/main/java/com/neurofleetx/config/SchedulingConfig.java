@@ -0,0 +1,10 @@
+package com.neurofleetx.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled background refreshes
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
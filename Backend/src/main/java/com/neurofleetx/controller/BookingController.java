@@ -1,11 +1,19 @@
 package com.neurofleetx.controller;
 
 import com.neurofleetx.entity.Booking;
+import com.neurofleetx.service.BookingCalendarService;
+import com.neurofleetx.service.BookingExpiryService;
+import com.neurofleetx.service.BookingImportService;
+import com.neurofleetx.service.BookingIntervalIndex;
 import com.neurofleetx.service.BookingService;
+import com.neurofleetx.service.BookingTimelineService;
+import com.neurofleetx.service.BookingTimelineService.Listing;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -21,9 +29,28 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
-    // Get all bookings
+    @Autowired
+    private BookingCalendarService calendarService;
+
+    @Autowired
+    private BookingImportService importService;
+
+    @Autowired
+    private BookingTimelineService timelineService;
+
+    @Autowired
+    private BookingExpiryService expiryService;
+
+    // Get all bookings; limit or cursor switches to keyset pages
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllBookings() {
+    public ResponseEntity<Map<String, Object>> getAllBookings(
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String order) {
+        if (limit != null || cursor != null) {
+            return page(Listing.ALL, null, limit, cursor, fields, order);
+        }
         List<Booking> bookings = bookingService.getAllBookings();
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -31,6 +58,15 @@ public class BookingController {
         return ResponseEntity.ok(response);
     }
 
+    // Get pending booking expiry statistics
+    @GetMapping("/expiry/statistics")
+    public ResponseEntity<Map<String, Object>> getExpiryStatistics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", expiryService.getStatistics());
+        return ResponseEntity.ok(response);
+    }
+
     // Get booking by ID
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getBookingById(@PathVariable("id") String id) {
@@ -46,7 +82,15 @@ public class BookingController {
 
     // Get bookings by user
     @GetMapping("/user/{userId}")
-    public ResponseEntity<Map<String, Object>> getBookingsByUser(@PathVariable("userId") String userId) {
+    public ResponseEntity<Map<String, Object>> getBookingsByUser(
+            @PathVariable("userId") String userId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String order) {
+        if (limit != null || cursor != null) {
+            return page(Listing.USER, userId, limit, cursor, fields, order);
+        }
         List<Booking> bookings = bookingService.getBookingsByUser(userId);
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -56,7 +100,15 @@ public class BookingController {
 
     // Get bookings by vehicle
     @GetMapping("/vehicle/{vehicleId}")
-    public ResponseEntity<Map<String, Object>> getBookingsByVehicle(@PathVariable("vehicleId") String vehicleId) {
+    public ResponseEntity<Map<String, Object>> getBookingsByVehicle(
+            @PathVariable("vehicleId") String vehicleId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String order) {
+        if (limit != null || cursor != null) {
+            return page(Listing.VEHICLE, vehicleId, limit, cursor, fields, order);
+        }
         List<Booking> bookings = bookingService.getBookingsByVehicle(vehicleId);
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -67,11 +119,7 @@ public class BookingController {
     // Get active/upcoming bookings for a vehicle
     @GetMapping("/vehicle/{vehicleId}/active")
     public ResponseEntity<Map<String, Object>> getActiveBookingsByVehicle(@PathVariable("vehicleId") String vehicleId) {
-        List<Booking> allBookings = bookingService.getBookingsByVehicle(vehicleId);
-        List<Booking> activeBookings = allBookings.stream()
-            .filter(b -> b.getStatus().matches("pending|confirmed|active"))
-            .filter(b -> b.getEndDate().isAfter(LocalDateTime.now()))
-            .toList();
+        List<Booking> activeBookings = bookingService.getActiveBookingsByVehicle(vehicleId);
         
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
@@ -81,12 +129,26 @@ public class BookingController {
 
     // Get bookings by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<Map<String, Object>> getBookingsByStatus(@PathVariable String status) {
-        List<Booking> bookings = bookingService.getBookingsByStatus(status);
+    public ResponseEntity<Map<String, Object>> getBookingsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String order) {
+        if (limit != null || cursor != null) {
+            return page(Listing.STATUS, status, limit, cursor, fields, order);
+        }
         Map<String, Object> response = new HashMap<>();
-        response.put("success", true);
-        response.put("data", bookings);
-        return ResponseEntity.ok(response);
+        try {
+            List<Booking> bookings = bookingService.getBookingsByStatus(status);
+            response.put("success", true);
+            response.put("data", bookings);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
     }
 
     // Get upcoming bookings for a user
@@ -99,6 +161,29 @@ public class BookingController {
         return ResponseEntity.ok(response);
     }
 
+    // Availability calendar of the fleet (or the given vehicles) in 15-minute slots
+    @GetMapping("/calendar")
+    public ResponseEntity<Map<String, Object>> getCalendar(
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(required = false) List<String> vehicleIds) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            LocalDateTime startDate = parseDateTime(start);
+            LocalDateTime endDate = parseDateTime(end);
+            if (startDate == null || endDate == null) {
+                throw new IllegalArgumentException("Invalid date format. Please use ISO 8601 format.");
+            }
+            response.put("success", true);
+            response.put("data", calendarService.getCalendar(startDate, endDate, vehicleIds));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     // Check vehicle availability
     @PostMapping("/check-availability")
     public ResponseEntity<Map<String, Object>> checkAvailability(@RequestBody Map<String, Object> availabilityData) {
@@ -144,7 +229,8 @@ public class BookingController {
                 return ResponseEntity.badRequest().body(response);
             }
 
-            boolean isAvailable = bookingService.isVehicleAvailable(vehicleId, startDate, endDate);
+            List<BookingIntervalIndex.Interval> conflicts = bookingService.findConflicts(vehicleId, startDate, endDate);
+            boolean isAvailable = conflicts.isEmpty();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -153,12 +239,6 @@ public class BookingController {
             if (isAvailable) {
                 response.put("message", "✓ Vehicle is available for the selected dates");
             } else {
-                // Get conflicting bookings to show details
-                List<Booking> conflicts = bookingService.getBookingsByVehicle(vehicleId).stream()
-                    .filter(b -> b.getStatus().matches("pending|confirmed|active"))
-                    .filter(b -> b.getStartDate().isBefore(endDate) && b.getEndDate().isAfter(startDate))
-                    .toList();
-                
                 response.put("message", "✗ Vehicle is not available for the selected dates");
                 response.put("conflictCount", conflicts.size());
             }
@@ -191,6 +271,33 @@ public class BookingController {
         }
     }
 
+    // Import many bookings from a CSV (header row first) or NDJSON body, with a result per row
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importBookings(
+            InputStream body,
+            @RequestHeader(value = "Content-Type", required = false) String contentType,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String createdByUsername) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            if (format == null) {
+                format = contentType != null && contentType.contains("json") ? "ndjson" : "csv";
+            }
+            if (!"csv".equals(format) && !"ndjson".equals(format)) {
+                throw new IllegalArgumentException("format must be csv or ndjson");
+            }
+            Map<String, Object> report = importService.importBookings(body, format, createdByUsername);
+            response.put("success", true);
+            response.put("message", report.get("imported") + " of " + report.get("totalRows") + " bookings imported");
+            response.put("data", report);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException | IOException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     // Confirm booking
     @PutMapping("/{id}/confirm")
     public ResponseEntity<Map<String, Object>> confirmBooking(@PathVariable String id) {
@@ -289,7 +396,15 @@ public class BookingController {
 
     // Get bookings by assigned driver
     @GetMapping("/driver/{driverId}")
-    public ResponseEntity<Map<String, Object>> getBookingsByDriver(@PathVariable("driverId") String driverId) {
+    public ResponseEntity<Map<String, Object>> getBookingsByDriver(
+            @PathVariable("driverId") String driverId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String order) {
+        if (limit != null || cursor != null) {
+            return page(Listing.DRIVER, driverId, limit, cursor, fields, order);
+        }
         try {
             System.out.println("Fetching bookings for driver ID: " + driverId);
             List<Booking> bookings = bookingService.getBookingsByDriver(driverId);
@@ -348,6 +463,21 @@ public class BookingController {
         }
     }
 
+    // One keyset page of a listing, with the cursor of the next page (null on the last page)
+    private ResponseEntity<Map<String, Object>> page(Listing listing, String value, Integer limit,
+                                                     String cursor, String fields, String order) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.putAll(timelineService.getPage(listing, value, limit, cursor, fields, order));
+            response.put("success", true);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     // Helper method to parse ISO 8601 datetime strings
     private LocalDateTime parseDateTime(String dateTimeStr) {
         try {
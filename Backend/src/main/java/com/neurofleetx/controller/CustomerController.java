@@ -1,6 +1,7 @@
 package com.neurofleetx.controller;
 
 import com.neurofleetx.entity.Customer;
+import com.neurofleetx.service.CustomerBookingCounterService;
 import com.neurofleetx.service.CustomerService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +19,9 @@ public class CustomerController {
     
     @Autowired
     private CustomerService customerService;
+
+    @Autowired
+    private CustomerBookingCounterService counterService;
     
     // Customer signup
     @PostMapping("/signup")
@@ -213,4 +217,22 @@ public class CustomerController {
             return ResponseEntity.badRequest().body(response);
         }
     }
+
+    // Recompute the booking counters of every customer from the bookings
+    @PostMapping("/booking-counters/reconcile")
+    public ResponseEntity<Map<String, Object>> reconcileBookingCounters() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", counterService.reconcile());
+        return ResponseEntity.ok(response);
+    }
+
+    // Get booking counter maintenance statistics
+    @GetMapping("/booking-counters/statistics")
+    public ResponseEntity<Map<String, Object>> getBookingCounterStatistics() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", counterService.getStatistics());
+        return ResponseEntity.ok(response);
+    }
 }
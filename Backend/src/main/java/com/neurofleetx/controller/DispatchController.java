@@ -0,0 +1,33 @@
+package com.neurofleetx.controller;
+
+import com.neurofleetx.service.DispatchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dispatch")
+@CrossOrigin(origins = "*")
+public class DispatchController {
+
+    @Autowired
+    private DispatchService dispatchService;
+
+    // Assign pending bookings to the nearest available drivers
+    @PostMapping("/run")
+    public ResponseEntity<Map<String, Object>> run(@RequestParam(defaultValue = "false") boolean dryRun) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("data", dispatchService.run(dryRun));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+}
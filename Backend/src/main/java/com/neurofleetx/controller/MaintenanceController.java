@@ -2,6 +2,7 @@ package com.neurofleetx.controller;
 
 import com.neurofleetx.entity.VehicleMaintenance;
 import com.neurofleetx.service.MaintenanceService;
+import com.neurofleetx.service.VehicleHealthService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +19,9 @@ public class MaintenanceController {
     @Autowired
     private MaintenanceService maintenanceService;
 
+    @Autowired
+    private VehicleHealthService vehicleHealthService;
+
     // Get all maintenance records
     @GetMapping
     public ResponseEntity<List<VehicleMaintenance>> getAllMaintenance() {
@@ -93,4 +97,16 @@ public class MaintenanceController {
         List<VehicleMaintenance> mockData = maintenanceService.generateMockMaintenanceData(count);
         return ResponseEntity.ok(mockData);
     }
+
+    // Run the telemetry health engine across the fleet now
+    @PostMapping("/health-engine/run")
+    public ResponseEntity<Map<String, Object>> runHealthEngine() {
+        return ResponseEntity.ok(vehicleHealthService.run());
+    }
+
+    // Get health engine statistics
+    @GetMapping("/health-engine/statistics")
+    public ResponseEntity<Map<String, Object>> getHealthEngineStatistics() {
+        return ResponseEntity.ok(vehicleHealthService.getStatistics());
+    }
 }
@@ -1,13 +1,30 @@
 package com.neurofleetx.controller;
 
+import com.neurofleetx.entity.OptimizationJob;
 import com.neurofleetx.entity.RouteOptimization;
+import com.neurofleetx.optimization.CapacitatedRoutingRequest;
+import com.neurofleetx.optimization.SolveOptions;
+import com.neurofleetx.routing.RoutingEngine;
+import com.neurofleetx.service.DistanceMatrixService;
+import com.neurofleetx.service.OptimizationJobService;
+import com.neurofleetx.service.OptimizationResultCacheService;
 import com.neurofleetx.service.RouteOptimizationService;
+import com.neurofleetx.service.TimeWindowRoutingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
+import java.time.LocalDateTime;
+
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 
 @RestController
@@ -18,68 +35,163 @@ public class RouteOptimizationController {
     @Autowired
     private RouteOptimizationService routeOptimizationService;
 
+    @Autowired
+    private DistanceMatrixService distanceMatrixService;
+
+    @Autowired
+    private OptimizationResultCacheService resultCacheService;
+
+    @Autowired
+    private OptimizationJobService optimizationJobService;
+
+    @Autowired
+    private TimeWindowRoutingService timeWindowRoutingService;
+
+    @Autowired
+    private RoutingEngine routingEngine;
+
     // Get all route optimizations
     @GetMapping
-    public ResponseEntity<List<RouteOptimization>> getAllRouteOptimizations() {
+    public ResponseEntity<MappingJacksonValue> getAllRouteOptimizations(
+            @RequestParam(defaultValue = "full") String geometry) {
         List<RouteOptimization> optimizations = routeOptimizationService.getAllRouteOptimizations();
-        return ResponseEntity.ok(optimizations);
+        return ResponseEntity.ok(withGeometry(optimizations, geometry));
     }
 
     // Get route optimization by ID
     @GetMapping("/{id}")
-    public ResponseEntity<RouteOptimization> getRouteOptimizationById(@PathVariable String id) {
+    public ResponseEntity<MappingJacksonValue> getRouteOptimizationById(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "full") String geometry) {
         Optional<RouteOptimization> optimization = routeOptimizationService.getRouteOptimizationById(id);
-        return optimization.map(ResponseEntity::ok)
+        return optimization.map(o -> ResponseEntity.ok(withGeometry(o, geometry)))
                           .orElse(ResponseEntity.notFound().build());
     }
 
     // Get route optimizations by route ID
     @GetMapping("/route/{routeId}")
-    public ResponseEntity<List<RouteOptimization>> getByRouteId(@PathVariable String routeId) {
+    public ResponseEntity<MappingJacksonValue> getByRouteId(
+            @PathVariable String routeId,
+            @RequestParam(defaultValue = "full") String geometry) {
         List<RouteOptimization> optimizations = routeOptimizationService.getByRouteId(routeId);
-        return ResponseEntity.ok(optimizations);
+        return ResponseEntity.ok(withGeometry(optimizations, geometry));
     }
 
     // Get route optimizations by vehicle ID
     @GetMapping("/vehicle/{vehicleId}")
-    public ResponseEntity<List<RouteOptimization>> getByVehicleId(@PathVariable String vehicleId) {
+    public ResponseEntity<MappingJacksonValue> getByVehicleId(
+            @PathVariable String vehicleId,
+            @RequestParam(defaultValue = "full") String geometry) {
         List<RouteOptimization> optimizations = routeOptimizationService.getByVehicleId(vehicleId);
-        return ResponseEntity.ok(optimizations);
+        return ResponseEntity.ok(withGeometry(optimizations, geometry));
     }
 
     // Get route optimizations by driver ID
     @GetMapping("/driver/{driverId}")
-    public ResponseEntity<List<RouteOptimization>> getByDriverId(@PathVariable String driverId) {
+    public ResponseEntity<MappingJacksonValue> getByDriverId(
+            @PathVariable String driverId,
+            @RequestParam(defaultValue = "full") String geometry) {
         List<RouteOptimization> optimizations = routeOptimizationService.getByDriverId(driverId);
-        return ResponseEntity.ok(optimizations);
+        return ResponseEntity.ok(withGeometry(optimizations, geometry));
     }
 
     // Get route optimizations by status
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<RouteOptimization>> getByStatus(@PathVariable String status) {
+    public ResponseEntity<MappingJacksonValue> getByStatus(
+            @PathVariable String status,
+            @RequestParam(defaultValue = "full") String geometry) {
         List<RouteOptimization> optimizations = routeOptimizationService.getByStatus(status);
-        return ResponseEntity.ok(optimizations);
+        return ResponseEntity.ok(withGeometry(optimizations, geometry));
     }
 
-    // Create optimized route
+    // Submit an optimization job (optional ?priority=&seed=&starts=&timeLimitMillis=); poll or stream the job
     @PostMapping
-    public ResponseEntity<RouteOptimization> createOptimizedRoute(@RequestBody RouteOptimization routeOptimization) {
-        RouteOptimization created = routeOptimizationService.createOptimizedRoute(routeOptimization);
-        return ResponseEntity.ok(created);
+    public ResponseEntity<Object> createOptimizedRoute(
+            @RequestBody RouteOptimization routeOptimization,
+            @RequestParam(defaultValue = "0") int priority,
+            SolveOptions options) {
+        try {
+            OptimizationJob job = optimizationJobService.submit(routeOptimization, options, priority);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/route-optimization/jobs/" + job.getId()))
+                    .body(job);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("success", false, "message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("success", false, "message", e.getMessage()));
+        }
+    }
+
+    // Get optimization job status and best distance so far
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<OptimizationJob> getJob(@PathVariable String jobId) {
+        return optimizationJobService.getJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Get optimization jobs by status
+    @GetMapping("/jobs/status/{status}")
+    public ResponseEntity<List<OptimizationJob>> getJobsByStatus(@PathVariable String status) {
+        return ResponseEntity.ok(optimizationJobService.getJobsByStatus(status));
+    }
+
+    // Stream job progress (best cost so far) as server-sent events
+    @GetMapping(value = "/jobs/{jobId}/events", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> streamJob(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(optimizationJobService.subscribe(jobId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Get optimization queue statistics
+    @GetMapping("/jobs/statistics")
+    public ResponseEntity<Map<String, Object>> getJobStatistics() {
+        return ResponseEntity.ok(optimizationJobService.getQueueStatistics());
     }
 
     // Update route optimization
     @PutMapping("/{id}")
-    public ResponseEntity<RouteOptimization> updateRouteOptimization(
+    public ResponseEntity<MappingJacksonValue> updateRouteOptimization(
             @PathVariable String id,
-            @RequestBody RouteOptimization routeOptimization) {
+            @RequestBody RouteOptimization routeOptimization,
+            @RequestParam(defaultValue = "full") String geometry) {
         RouteOptimization updated = routeOptimizationService.updateRouteOptimization(id, routeOptimization);
         if (updated != null) {
-            return ResponseEntity.ok(updated);
+            return ResponseEntity.ok(withGeometry(updated, geometry));
         }
         return ResponseEntity.notFound().build();
     }
 
+    // Add a stop to an existing optimization (cheapest insertion plus local repair)
+    @PostMapping("/{id}/stops")
+    public ResponseEntity<MappingJacksonValue> addStop(
+            @PathVariable String id,
+            @RequestBody RouteOptimization.Location stop,
+            @RequestParam(defaultValue = "full") String geometry) {
+        try {
+            return ResponseEntity.ok(withGeometry(routeOptimizationService.addStop(id, stop), geometry));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    // Remove a stop by sequence number and repair the path around it
+    @DeleteMapping("/{id}/stops/{sequenceNumber}")
+    public ResponseEntity<MappingJacksonValue> removeStop(
+            @PathVariable String id,
+            @PathVariable int sequenceNumber,
+            @RequestParam(defaultValue = "full") String geometry) {
+        try {
+            return ResponseEntity.ok(withGeometry(routeOptimizationService.removeStop(id, sequenceNumber), geometry));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     // Delete route optimization
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRouteOptimization(@PathVariable String id) {
@@ -94,10 +206,99 @@ public class RouteOptimizationController {
         return ResponseEntity.ok(stats);
     }
 
+    // Run optimization strategies head-to-head on the submitted path
+    @PostMapping("/compare")
+    public ResponseEntity<Map<String, Object>> compareStrategies(
+            @RequestBody RouteOptimization routeOptimization,
+            @RequestParam(required = false) List<String> algorithms,
+            SolveOptions options) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("data", routeOptimizationService.compareStrategies(
+                    routeOptimization.getOptimizedPath(), algorithms, options));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Split orders with demands across vehicles within their capacity; one optimization is saved per vehicle
+    @PostMapping("/capacitated")
+    public ResponseEntity<MappingJacksonValue> solveCapacitated(
+            @RequestBody CapacitatedRoutingRequest request,
+            @RequestParam(defaultValue = "full") String geometry) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("data", routeOptimizationService.solveCapacitated(request));
+            return ResponseEntity.ok(withGeometry(response, geometry));
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(new MappingJacksonValue(response));
+        }
+    }
+
+    // Sequence delivery/collection stops of confirmed bookings per driver within their time windows
+    @PostMapping("/time-windows")
+    public ResponseEntity<Map<String, Object>> planTimeWindowRoutes(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            response.put("success", true);
+            response.put("data", timeWindowRoutingService.planRoutes(from, to));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
+    // Get distance matrix cache statistics
+    @GetMapping("/distance-matrix/statistics")
+    public ResponseEntity<Map<String, Object>> getDistanceMatrixStatistics() {
+        return ResponseEntity.ok(distanceMatrixService.getCacheStatistics());
+    }
+
+    // Get optimization result cache statistics
+    @GetMapping("/result-cache/statistics")
+    public ResponseEntity<Map<String, Object>> getResultCacheStatistics() {
+        return ResponseEntity.ok(resultCacheService.getStatistics());
+    }
+
+    // Drop cached optimization results, e.g. after changing solver settings
+    @DeleteMapping("/result-cache")
+    public ResponseEntity<Void> clearResultCache() {
+        resultCacheService.clear();
+        return ResponseEntity.ok().build();
+    }
+
+    // Get road graph status
+    @GetMapping("/road-graph/statistics")
+    public ResponseEntity<Map<String, Object>> getRoadGraphStatistics() {
+        return ResponseEntity.ok(routingEngine.getStatistics());
+    }
+
     // Generate mock data (for testing)
     @PostMapping("/generate-mock/{count}")
-    public ResponseEntity<List<RouteOptimization>> generateMockData(@PathVariable int count) {
+    public ResponseEntity<MappingJacksonValue> generateMockData(
+            @PathVariable int count,
+            @RequestParam(defaultValue = "full") String geometry) {
         List<RouteOptimization> mockData = routeOptimizationService.generateMockOptimizedRoutes(count);
-        return ResponseEntity.ok(mockData);
+        return ResponseEntity.ok(withGeometry(mockData, geometry));
+    }
+
+    // ?geometry=polyline returns the encoded path and stop addresses instead of Location objects
+    private static MappingJacksonValue withGeometry(Object body, String geometry) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setSerializationView("polyline".equalsIgnoreCase(geometry)
+                ? RouteOptimization.GeometryView.Polyline.class
+                : RouteOptimization.GeometryView.Full.class);
+        return value;
     }
 }
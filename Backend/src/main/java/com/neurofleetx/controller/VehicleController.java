@@ -6,6 +6,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +29,39 @@ public class VehicleController {
         return ResponseEntity.ok(response);
     }
     
+    // Vehicles free for the whole period, optionally ranked by distance from near=lat,lon
+    @GetMapping("/available")
+    public ResponseEntity<Map<String, Object>> getAvailableVehicles(
+            @RequestParam String start,
+            @RequestParam String end,
+            @RequestParam(required = false) String near,
+            @RequestParam(required = false) Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            LocalDateTime startDate = parseDateTime(start);
+            LocalDateTime endDate = parseDateTime(end);
+            Double latitude = null;
+            Double longitude = null;
+            if (near != null && !near.isBlank()) {
+                String[] parts = near.split(",");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("near must be latitude,longitude");
+                }
+                latitude = Double.parseDouble(parts[0].trim());
+                longitude = Double.parseDouble(parts[1].trim());
+            }
+            List<Map<String, Object>> vehicles = vehicleService.findAvailableVehicles(startDate, endDate, latitude, longitude, limit);
+            response.put("success", true);
+            response.put("data", vehicles);
+            response.put("count", vehicles.size());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            response.put("success", false);
+            response.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(response);
+        }
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<Map<String, Object>> getVehicleById(@PathVariable String id) {
         return vehicleService.getVehicleById(id)
@@ -65,4 +100,17 @@ public class VehicleController {
         response.put("message", "Vehicle deleted");
         return ResponseEntity.ok(response);
     }
+
+    // Accepts ISO 8601 with or without a zone, as the booking endpoints do
+    private LocalDateTime parseDateTime(String dateTimeStr) {
+        try {
+            return ZonedDateTime.parse(dateTimeStr).toLocalDateTime();
+        } catch (Exception e) {
+            try {
+                return LocalDateTime.parse(dateTimeStr);
+            } catch (Exception ex) {
+                throw new IllegalArgumentException("Invalid date format. Please use ISO 8601 format.");
+            }
+        }
+    }
 }
@@ -1,10 +1,24 @@
 package com.neurofleetx.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Document(collection = "bookings")
+// vehicle_status_end serves the per-vehicle conflict and active-booking queries; the *_start
+// indexes serve the keyset-paginated listings in BookingTimelineService; status_start and status_end
+// also serve the planning-horizon query of TimeWindowRoutingService
+@CompoundIndexes({
+    @CompoundIndex(name = "vehicle_status_end", def = "{'vehicleId': 1, 'status': 1, 'endDate': 1}"),
+    @CompoundIndex(name = "start", def = "{'startDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "user_start", def = "{'userId': 1, 'startDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "vehicle_start", def = "{'vehicleId': 1, 'startDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "driver_start", def = "{'assignedDriverId': 1, 'startDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "status_start", def = "{'status': 1, 'startDate': -1, '_id': -1}"),
+    @CompoundIndex(name = "status_end", def = "{'status': 1, 'endDate': 1}")
+})
 public class Booking {
 
     @Id
@@ -26,6 +40,12 @@ public class Booking {
     private String dropoffLocation;
     private String contactNumber;
 
+    // Pickup/dropoff coordinates, used for time-window routing
+    private Double pickupLatitude;
+    private Double pickupLongitude;
+    private Double dropoffLatitude;
+    private Double dropoffLongitude;
+
     // Driver and Route Assignment
     private String assignedDriverId;
     private String assignedDriverName;
@@ -33,7 +53,7 @@ public class Booking {
     private LocalDateTime assignedAt;
 
     // Status and timestamps
-    private String status; // "pending", "confirmed", "active", "completed", "cancelled"
+    private BookingStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime confirmedAt;
     private LocalDateTime cancelledAt;
@@ -45,7 +65,7 @@ public class Booking {
 
     public Booking() {
         this.createdAt = LocalDateTime.now();
-        this.status = "pending";
+        this.status = BookingStatus.PENDING;
     }
 
     public Booking(String userId, String userName, String vehicleId, String vehicleName,
@@ -58,7 +78,7 @@ public class Booking {
         this.endDate = endDate;
         this.purpose = purpose;
         this.createdAt = LocalDateTime.now();
-        this.status = "pending";
+        this.status = BookingStatus.PENDING;
     }
 
     // Getters and Setters
@@ -150,6 +170,38 @@ public class Booking {
         this.dropoffLocation = dropoffLocation;
     }
 
+    public Double getPickupLatitude() {
+        return pickupLatitude;
+    }
+
+    public void setPickupLatitude(Double pickupLatitude) {
+        this.pickupLatitude = pickupLatitude;
+    }
+
+    public Double getPickupLongitude() {
+        return pickupLongitude;
+    }
+
+    public void setPickupLongitude(Double pickupLongitude) {
+        this.pickupLongitude = pickupLongitude;
+    }
+
+    public Double getDropoffLatitude() {
+        return dropoffLatitude;
+    }
+
+    public void setDropoffLatitude(Double dropoffLatitude) {
+        this.dropoffLatitude = dropoffLatitude;
+    }
+
+    public Double getDropoffLongitude() {
+        return dropoffLongitude;
+    }
+
+    public void setDropoffLongitude(Double dropoffLongitude) {
+        this.dropoffLongitude = dropoffLongitude;
+    }
+
     public String getContactNumber() {
         return contactNumber;
     }
@@ -158,11 +210,11 @@ public class Booking {
         this.contactNumber = contactNumber;
     }
 
-    public String getStatus() {
+    public BookingStatus getStatus() {
         return status;
     }
 
-    public void setStatus(String status) {
+    public void setStatus(BookingStatus status) {
         this.status = status;
     }
 
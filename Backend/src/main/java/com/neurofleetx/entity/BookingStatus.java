@@ -0,0 +1,54 @@
+package com.neurofleetx.entity;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+// Lifecycle of a booking. Stored and serialized as the lowercase value, as before the enum existed.
+public enum BookingStatus {
+    PENDING("pending"),
+    CONFIRMED("confirmed"),
+    ACTIVE("active"),
+    COMPLETED("completed"),
+    CANCELLED("cancelled");
+
+    // Statuses that hold the vehicle for the booked period
+    public static final Set<BookingStatus> BLOCKING = EnumSet.of(PENDING, CONFIRMED, ACTIVE);
+
+    private final String value;
+
+    BookingStatus(String value) {
+        this.value = value;
+    }
+
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    public boolean isBlocking() {
+        return BLOCKING.contains(this);
+    }
+
+    @JsonCreator
+    public static BookingStatus from(String value) {
+        if (value == null) {
+            return null;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        for (BookingStatus status : values()) {
+            if (status.value.equals(normalized)) {
+                return status;
+            }
+        }
+        throw new IllegalArgumentException("Unknown booking status: " + value);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
@@ -0,0 +1,72 @@
+package com.neurofleetx.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+@Document(collection = "optimization_jobs")
+public class OptimizationJob {
+    @Id
+    private String id;
+    private String routeOptimizationId;
+    @Indexed
+    private String status; // "pending", "active", "completed", "failed"
+    private int priority; // higher runs first
+    private Long seed;
+    private Integer starts;
+    private Long timeLimitMillis;
+    private Double bestDistance; // best path distance found so far, in kilometers
+    private String error;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private String ownerId; // node running the job
+    private LocalDateTime heartbeatAt; // last lease renewal by the owner
+
+    // Constructors
+    public OptimizationJob() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getRouteOptimizationId() { return routeOptimizationId; }
+    public void setRouteOptimizationId(String routeOptimizationId) { this.routeOptimizationId = routeOptimizationId; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public int getPriority() { return priority; }
+    public void setPriority(int priority) { this.priority = priority; }
+
+    public Long getSeed() { return seed; }
+    public void setSeed(Long seed) { this.seed = seed; }
+
+    public Integer getStarts() { return starts; }
+    public void setStarts(Integer starts) { this.starts = starts; }
+
+    public Long getTimeLimitMillis() { return timeLimitMillis; }
+    public void setTimeLimitMillis(Long timeLimitMillis) { this.timeLimitMillis = timeLimitMillis; }
+
+    public Double getBestDistance() { return bestDistance; }
+    public void setBestDistance(Double bestDistance) { this.bestDistance = bestDistance; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public void setSubmittedAt(LocalDateTime submittedAt) { this.submittedAt = submittedAt; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getCompletedAt() { return completedAt; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+
+    public String getOwnerId() { return ownerId; }
+    public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
+
+    public LocalDateTime getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(LocalDateTime heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+}
@@ -0,0 +1,45 @@
+package com.neurofleetx.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Solver output shared between nodes, keyed by the SHA-256 of the canonical solver input.
+// Expired by a TTL index on createdAt.
+@Document(collection = "optimization_results")
+public class OptimizationResult {
+    @Id
+    private String id;
+    private String algorithm;
+    private List<Integer> tour; // visiting order over the canonically ordered stops
+    private double distance;
+    private LocalDateTime createdAt;
+
+    // Constructors
+    public OptimizationResult() {}
+
+    public OptimizationResult(String id, String algorithm, List<Integer> tour, double distance) {
+        this.id = id;
+        this.algorithm = algorithm;
+        this.tour = tour;
+        this.distance = distance;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getAlgorithm() { return algorithm; }
+    public void setAlgorithm(String algorithm) { this.algorithm = algorithm; }
+
+    public List<Integer> getTour() { return tour; }
+    public void setTour(List<Integer> tour) { this.tour = tour; }
+
+    public double getDistance() { return distance; }
+    public void setDistance(double distance) { this.distance = distance; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
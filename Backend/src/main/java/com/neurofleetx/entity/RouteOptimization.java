@@ -1,8 +1,14 @@
 package com.neurofleetx.entity;
 
+import com.fasterxml.jackson.annotation.JsonView;
+import com.neurofleetx.optimization.PolylineCodec;
+import org.springframework.data.annotation.AccessType;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "route_optimizations")
@@ -12,16 +18,34 @@ public class RouteOptimization {
     private String routeId;
     private String vehicleId;
     private String driverId;
+
+    // Geometry is stored as an encoded polyline with the stop addresses alongside; the list of
+    // Location objects is only built when something asks for it
+    @Transient
     private List<Location> optimizedPath;
+    private String encodedPath;
+    private List<String> stopAddresses;
+
+    // Documents written before the polyline encoding still carry the path as objects
+    @Field("optimizedPath")
+    private List<Location> legacyPath;
+
     private double estimatedDistance;
     private double estimatedDuration;
     private double fuelEfficiency;
     private int loadCapacity;
     private int currentLoad;
     private double costSavings;
+    private double baselineDistance; // distance costSavings is measured against, in kilometers
     private String optimizationAlgorithm;
     private LocalDateTime calculatedAt;
-    private String status; // "pending", "active", "completed"
+    private String status; // "pending", "active", "completed", "failed"
+
+    // Response shapes selected with ?geometry=full|polyline
+    public interface GeometryView {
+        interface Full {}
+        interface Polyline {}
+    }
 
     public static class Location {
         private double latitude;
@@ -69,8 +93,80 @@ public class RouteOptimization {
     public String getDriverId() { return driverId; }
     public void setDriverId(String driverId) { this.driverId = driverId; }
 
-    public List<Location> getOptimizedPath() { return optimizedPath; }
-    public void setOptimizedPath(List<Location> optimizedPath) { this.optimizedPath = optimizedPath; }
+    @JsonView(GeometryView.Full.class)
+    public List<Location> getOptimizedPath() {
+        adoptLegacyPath();
+        if (optimizedPath == null) {
+            optimizedPath = decodePath();
+        }
+        return optimizedPath;
+    }
+    public void setOptimizedPath(List<Location> optimizedPath) {
+        this.optimizedPath = optimizedPath;
+        this.encodedPath = null;
+        this.stopAddresses = null;
+        this.legacyPath = null;
+    }
+
+    // Read through the getter on save, so in-place edits of the decoded path are persisted
+    @AccessType(AccessType.Type.PROPERTY)
+    @JsonView(GeometryView.Polyline.class)
+    public String getEncodedPath() {
+        adoptLegacyPath();
+        if (optimizedPath != null) {
+            double[] latitudes = new double[optimizedPath.size()];
+            double[] longitudes = new double[optimizedPath.size()];
+            for (int i = 0; i < latitudes.length; i++) {
+                latitudes[i] = optimizedPath.get(i).getLatitude();
+                longitudes[i] = optimizedPath.get(i).getLongitude();
+            }
+            encodedPath = PolylineCodec.encode(latitudes, longitudes);
+        }
+        return encodedPath;
+    }
+    public void setEncodedPath(String encodedPath) {
+        this.encodedPath = encodedPath;
+        this.optimizedPath = null;
+    }
+
+    @AccessType(AccessType.Type.PROPERTY)
+    @JsonView(GeometryView.Polyline.class)
+    public List<String> getStopAddresses() {
+        adoptLegacyPath();
+        if (optimizedPath != null) {
+            stopAddresses = new ArrayList<>(optimizedPath.size());
+            for (Location location : optimizedPath) {
+                stopAddresses.add(location.getAddress());
+            }
+        }
+        return stopAddresses;
+    }
+    public void setStopAddresses(List<String> stopAddresses) {
+        this.stopAddresses = stopAddresses;
+        this.optimizedPath = null;
+    }
+
+    // A legacy path is re-encoded the next time the document is saved
+    private void adoptLegacyPath() {
+        if (legacyPath != null && encodedPath == null && optimizedPath == null) {
+            optimizedPath = legacyPath;
+        }
+        legacyPath = null;
+    }
+
+    // Stops are numbered in path order
+    private List<Location> decodePath() {
+        if (encodedPath == null) {
+            return null;
+        }
+        double[][] points = PolylineCodec.decode(encodedPath);
+        List<Location> path = new ArrayList<>(points[0].length);
+        for (int i = 0; i < points[0].length; i++) {
+            String address = stopAddresses != null && i < stopAddresses.size() ? stopAddresses.get(i) : null;
+            path.add(new Location(points[0][i], points[1][i], address, i + 1));
+        }
+        return path;
+    }
 
     public double getEstimatedDistance() { return estimatedDistance; }
     public void setEstimatedDistance(double estimatedDistance) { this.estimatedDistance = estimatedDistance; }
@@ -90,6 +186,9 @@ public class RouteOptimization {
     public double getCostSavings() { return costSavings; }
     public void setCostSavings(double costSavings) { this.costSavings = costSavings; }
 
+    public double getBaselineDistance() { return baselineDistance; }
+    public void setBaselineDistance(double baselineDistance) { this.baselineDistance = baselineDistance; }
+
     public String getOptimizationAlgorithm() { return optimizationAlgorithm; }
     public void setOptimizationAlgorithm(String optimizationAlgorithm) { 
         this.optimizationAlgorithm = optimizationAlgorithm; 
@@ -1,11 +1,14 @@
 package com.neurofleetx.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// vehicle_recorded serves the health engine's read of each vehicle's samples since its checkpoint
 @Document(collection = "telemetry")
+@CompoundIndex(name = "vehicle_recorded", def = "{'vehicleId': 1, 'recordedAt': 1}")
 public class Telemetry {
     
     @Id
@@ -23,6 +23,8 @@ public class VehicleMaintenance {
     private List<ComponentHealth> componentHealth;
     private String riskLevel; // "Low", "Medium", "High", "Critical"
     private double estimatedMaintenanceCost;
+    private TelemetryCheckpoint telemetryCheckpoint; // last telemetry sample folded into the health model
+    private LocalDateTime healthEvaluatedAt;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
@@ -72,6 +74,8 @@ public class VehicleMaintenance {
         private String status; // "Good", "Fair", "Poor", "Critical"
         private int remainingLifespan; // in days
         private String recommendation;
+        private double healthLevel; // unrounded health kept by the health engine
+        private double wearRatePerDay; // smoothed health lost per day
 
         // Constructors
         public ComponentHealth() {}
@@ -100,6 +104,42 @@ public class VehicleMaintenance {
 
         public String getRecommendation() { return recommendation; }
         public void setRecommendation(String recommendation) { this.recommendation = recommendation; }
+
+        public double getHealthLevel() { return healthLevel; }
+        public void setHealthLevel(double healthLevel) { this.healthLevel = healthLevel; }
+
+        public double getWearRatePerDay() { return wearRatePerDay; }
+        public void setWearRatePerDay(double wearRatePerDay) { this.wearRatePerDay = wearRatePerDay; }
+    }
+
+    public static class TelemetryCheckpoint {
+        private LocalDateTime recordedAt;
+        private double latitude;
+        private double longitude;
+        private Double speed;
+
+        // Constructors
+        public TelemetryCheckpoint() {}
+
+        public TelemetryCheckpoint(LocalDateTime recordedAt, double latitude, double longitude, Double speed) {
+            this.recordedAt = recordedAt;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.speed = speed;
+        }
+
+        // Getters and Setters
+        public LocalDateTime getRecordedAt() { return recordedAt; }
+        public void setRecordedAt(LocalDateTime recordedAt) { this.recordedAt = recordedAt; }
+
+        public double getLatitude() { return latitude; }
+        public void setLatitude(double latitude) { this.latitude = latitude; }
+
+        public double getLongitude() { return longitude; }
+        public void setLongitude(double longitude) { this.longitude = longitude; }
+
+        public Double getSpeed() { return speed; }
+        public void setSpeed(Double speed) { this.speed = speed; }
     }
 
     // Constructors
@@ -165,6 +205,14 @@ public class VehicleMaintenance {
         this.estimatedMaintenanceCost = estimatedMaintenanceCost; 
     }
 
+    public TelemetryCheckpoint getTelemetryCheckpoint() { return telemetryCheckpoint; }
+    public void setTelemetryCheckpoint(TelemetryCheckpoint telemetryCheckpoint) { 
+        this.telemetryCheckpoint = telemetryCheckpoint; 
+    }
+
+    public LocalDateTime getHealthEvaluatedAt() { return healthEvaluatedAt; }
+    public void setHealthEvaluatedAt(LocalDateTime healthEvaluatedAt) { this.healthEvaluatedAt = healthEvaluatedAt; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -0,0 +1,32 @@
+package com.neurofleetx.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.time.LocalDateTime;
+
+// Per-vehicle guard for booking writes: every write that books the vehicle must advance the
+// version it read, so two nodes cannot both commit overlapping bookings
+@Document(collection = "vehicle_reservations")
+public class VehicleReservation {
+    @Id
+    private String id; // the vehicle id
+    private long version;
+    private String lastBookingId;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public VehicleReservation() {}
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public String getLastBookingId() { return lastBookingId; }
+    public void setLastBookingId(String lastBookingId) { this.lastBookingId = lastBookingId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,122 @@
+package com.neurofleetx.health;
+
+// Turns driving features into health lost per component. Each component has a nominal life in
+// kilometres and in calendar days; idle hours, high-speed distance and harsh events are charged as
+// extra equivalent kilometres according to how much they load that component. Health is 0-100 and
+// falls by the fraction of both lives consumed, so a parked vehicle still ages.
+public final class ComponentWearModel {
+
+    // Lifespans are never projected further out than this
+    public static final int MAX_LIFESPAN_DAYS = 3650;
+    // Time constant of the wear-rate smoothing: older behaviour fades out over about two weeks
+    public static final double RATE_WINDOW_DAYS = 14;
+
+    public enum Component {
+        //          name            life km  days  km/idle h  high-speed  km/harsh accel  km/harsh brake
+        ENGINE("Engine",             300000, 5475,  25,        0.5,         5,             0),
+        TRANSMISSION("Transmission", 250000, 4380,   5,        0.3,        15,             5),
+        BRAKES("Brakes",              60000, 1825,   0,        0.0,         0,            40),
+        TIRES("Tires",                60000, 2190,   0,        0.5,        10,            10),
+        BATTERY("Battery",           400000, 1460,  15,        0.0,         0,             0),
+        SUSPENSION("Suspension",     150000, 3650,   0,        0.3,         5,             5);
+
+        private final String displayName;
+        private final double lifeKm;
+        private final double lifeDays;
+        private final double idleKmPerHour;
+        private final double highSpeedFactor;
+        private final double harshAccelerationKm;
+        private final double harshBrakingKm;
+
+        Component(String displayName, double lifeKm, double lifeDays, double idleKmPerHour,
+                  double highSpeedFactor, double harshAccelerationKm, double harshBrakingKm) {
+            this.displayName = displayName;
+            this.lifeKm = lifeKm;
+            this.lifeDays = lifeDays;
+            this.idleKmPerHour = idleKmPerHour;
+            this.highSpeedFactor = highSpeedFactor;
+            this.harshAccelerationKm = harshAccelerationKm;
+            this.harshBrakingKm = harshBrakingKm;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        // Health lost to the given driving and elapsed days
+        public double wear(TelemetryFeatures features, double days) {
+            double equivalentKm = features.getDistanceKm()
+                    + highSpeedFactor * features.getHighSpeedKm()
+                    + idleKmPerHour * features.getIdleHours()
+                    + harshAccelerationKm * features.getHarshAccelerations()
+                    + harshBrakingKm * features.getHarshBrakings();
+            return 100 * (equivalentKm / lifeKm + days / lifeDays);
+        }
+
+        // Health lost per day by calendar ageing alone
+        public double calendarRate() {
+            return 100 / lifeDays;
+        }
+
+        public static Component fromName(String name) {
+            for (Component component : values()) {
+                if (component.displayName.equalsIgnoreCase(name)) {
+                    return component;
+                }
+            }
+            return null;
+        }
+    }
+
+    private ComponentWearModel() {}
+
+    // Time-weighted moving average of the daily wear rate, so the result does not depend on how
+    // often the engine runs; starts from calendar ageing when there is no history
+    public static double smoothRate(Component component, double previous, double wear, double days) {
+        double base = previous > 0 ? previous : component.calendarRate();
+        if (days <= 0) {
+            return base;
+        }
+        double alpha = 1 - Math.exp(-days / RATE_WINDOW_DAYS);
+        return base + alpha * (wear / days - base);
+    }
+
+    public static int remainingLifespan(Component component, double health, double ratePerDay) {
+        double rate = Math.max(ratePerDay, component.calendarRate());
+        return (int) Math.min(MAX_LIFESPAN_DAYS, Math.floor(health / rate));
+    }
+
+    // Vehicle score weighs the weakest component, as one failing part takes the vehicle off the road
+    public static int healthScore(double average, double minimum) {
+        return (int) Math.round(0.6 * average + 0.4 * minimum);
+    }
+
+    // Same bands as the maintenance records have always used
+    public static String componentStatus(int health) {
+        if (health >= 80) return "Good";
+        if (health >= 60) return "Fair";
+        if (health >= 40) return "Poor";
+        return "Critical";
+    }
+
+    public static String healthStatus(int score) {
+        if (score >= 80) return "Excellent";
+        if (score >= 60) return "Good";
+        if (score >= 40) return "Fair";
+        if (score >= 20) return "Poor";
+        return "Critical";
+    }
+
+    public static String riskLevel(int score) {
+        if (score >= 70) return "Low";
+        if (score >= 50) return "Medium";
+        if (score >= 30) return "High";
+        return "Critical";
+    }
+
+    public static String recommendation(int health, int remainingLifespan) {
+        if (health < 40) return "Replace or service immediately";
+        if (health < 60 || remainingLifespan < 30) return "Schedule maintenance soon";
+        return "Normal operation";
+    }
+}
@@ -0,0 +1,91 @@
+package com.neurofleetx.health;
+
+import com.neurofleetx.optimization.GeoDistance;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Driving features of one vehicle accumulated over consecutive telemetry samples: distance, time
+// spent idling and driving, distance above highway speed and harsh acceleration/braking events.
+// Telemetry carries only position and speed, so everything is derived from sample-to-sample deltas.
+public class TelemetryFeatures {
+
+    // Below this the vehicle is treated as standing with the engine running
+    public static final double IDLE_SPEED_KMH = 2.0;
+    public static final double HIGH_SPEED_KMH = 100.0;
+    // Longitudinal acceleration in m/s^2 counted as a harsh event
+    public static final double HARSH_ACCELERATION = 3.0;
+    public static final double HARSH_BRAKING = -3.5;
+    // Over longer intervals a speed change says little about how hard the vehicle accelerated
+    public static final double HARSH_WINDOW_SECONDS = 30;
+
+    // One telemetry sample; speed is NaN when not reported
+    public record Sample(LocalDateTime recordedAt, double latitude, double longitude, double speedKmh) {}
+
+    private final double maxGapSeconds;
+    private Sample last;
+    private int samples;
+    private double distanceKm;
+    private double highSpeedKm;
+    private double idleHours;
+    private double drivingHours;
+    private int harshAccelerations;
+    private int harshBrakings;
+
+    // previous is the last sample already accounted for, so the first new one extends it; over gaps
+    // longer than maxGapSeconds the vehicle is assumed switched off and only the distance is counted
+    public TelemetryFeatures(Sample previous, double maxGapSeconds) {
+        this.last = previous;
+        this.maxGapSeconds = maxGapSeconds;
+    }
+
+    // Samples must arrive in recordedAt order; repeated or older ones are ignored
+    public void add(Sample sample) {
+        if (last != null && !sample.recordedAt().isAfter(last.recordedAt())) {
+            return;
+        }
+        samples++;
+        Sample previous = last;
+        last = sample;
+        if (previous == null) {
+            return;
+        }
+
+        double seconds = Duration.between(previous.recordedAt(), sample.recordedAt()).toMillis() / 1000.0;
+        double km = GeoDistance.haversineKm(previous.latitude(), previous.longitude(),
+                sample.latitude(), sample.longitude());
+        distanceKm += km;
+        if (seconds > maxGapSeconds) {
+            return;
+        }
+
+        double derived = km / (seconds / 3600.0);
+        double from = Double.isNaN(previous.speedKmh()) ? derived : previous.speedKmh();
+        double to = Double.isNaN(sample.speedKmh()) ? derived : sample.speedKmh();
+        if (from < IDLE_SPEED_KMH && to < IDLE_SPEED_KMH) {
+            idleHours += seconds / 3600.0;
+        } else {
+            drivingHours += seconds / 3600.0;
+        }
+        if ((from + to) / 2 > HIGH_SPEED_KMH) {
+            highSpeedKm += km;
+        }
+        if (seconds <= HARSH_WINDOW_SECONDS) {
+            double acceleration = (to - from) / 3.6 / seconds;
+            if (acceleration >= HARSH_ACCELERATION) {
+                harshAccelerations++;
+            } else if (acceleration <= HARSH_BRAKING) {
+                harshBrakings++;
+            }
+        }
+    }
+
+    public Sample getLast() { return last; }
+    public int getSamples() { return samples; }
+    public double getDistanceKm() { return distanceKm; }
+    public double getHighSpeedKm() { return highSpeedKm; }
+    public double getIdleHours() { return idleHours; }
+    public double getDrivingHours() { return drivingHours; }
+    public int getHarshAccelerations() { return harshAccelerations; }
+    public int getHarshBrakings() { return harshBrakings; }
+}
@@ -0,0 +1,167 @@
+package com.neurofleetx.optimization;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// MAX-MIN Ant System over a flat pheromone matrix. Ants of one iteration build their paths in parallel
+// using candidate lists of nearest neighbours; the iteration best is 2-opt polished before depositing.
+@Component
+public class AntColonyStrategy implements RouteOptimizationStrategy {
+
+    public static final String NAME = "Ant Colony";
+
+    // Heuristic, pheromone and choice matrices are dense n*n doubles: about 96 MB together at this cap
+    public static final int MAX_STOPS = 2000;
+
+    private static final double ALPHA = 1.0;
+    private static final double BETA = 3.0;
+    private static final double EVAPORATION = 0.1;
+    private static final int CANDIDATES = 15;
+    private static final long WORK_BUDGET = 30_000_000L;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public TourSolution optimize(TourProblem problem) {
+        DistanceMatrix matrix = problem.getMatrix();
+        int n = matrix.size();
+        if (n > MAX_STOPS) {
+            throw new IllegalArgumentException(NAME + " supports at most " + MAX_STOPS + " stops");
+        }
+        if (n < 4) {
+            return new TourSolution(matrix, problem.identityTour(), NAME);
+        }
+
+        int ants = Math.min(32, n);
+        int candidates = Math.min(CANDIDATES, n - 1);
+        // Each iteration pays for path construction plus the dense pheromone and local-search passes
+        long workPerIteration = (long) ants * n * candidates + 4L * n * n;
+        long iterations = Math.min(500, Math.max(10, WORK_BUDGET / workPerIteration));
+
+        double[] heuristic = new double[n * n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                heuristic[i * n + j] = i == j ? 0.0 : Math.pow(1.0 / Math.max(matrix.distance(i, j), 1e-6), BETA);
+            }
+        }
+        int[][] neighbors = nearestNeighbors(matrix, candidates);
+
+        int[] bestTour = TourImprover.nearestNeighbor(matrix);
+        double bestCost = matrix.pathDistance(bestTour);
+        problem.reportProgress(bestCost);
+        double tauMax = 1.0 / (EVAPORATION * bestCost);
+        double tauMin = tauMax / (2.0 * n);
+        double[] pheromone = new double[n * n];
+        Arrays.fill(pheromone, tauMax);
+        double[] choice = new double[n * n];
+
+        for (int iteration = 0; iteration < iterations && !problem.isExpired(); iteration++) {
+            for (int k = 0; k < choice.length; k++) {
+                choice[k] = pheromone[k] * heuristic[k]; // ALPHA is 1
+            }
+            int it = iteration;
+            int[][] tours = IntStream.range(0, ants).parallel()
+                    .mapToObj(ant -> construct(n, neighbors, choice, new SplittableRandom(problem.subSeed(it, ant))))
+                    .toArray(int[][]::new);
+
+            int[] iterationBest = null;
+            double iterationCost = Double.MAX_VALUE;
+            for (int[] tour : tours) {
+                double cost = matrix.pathDistance(tour);
+                if (cost < iterationCost) {
+                    iterationCost = cost;
+                    iterationBest = tour;
+                }
+            }
+            iterationCost -= TourImprover.improve(matrix, iterationBest, problem);
+            if (iterationCost < bestCost - 1e-9) {
+                bestCost = iterationCost;
+                bestTour = iterationBest.clone();
+                tauMax = 1.0 / (EVAPORATION * bestCost);
+                tauMin = tauMax / (2.0 * n);
+                problem.reportProgress(bestCost);
+            }
+
+            for (int k = 0; k < pheromone.length; k++) {
+                pheromone[k] *= (1.0 - EVAPORATION);
+            }
+            double deposit = 1.0 / iterationCost;
+            for (int k = 1; k < n; k++) {
+                int a = iterationBest[k - 1];
+                int b = iterationBest[k];
+                pheromone[a * n + b] += deposit;
+                pheromone[b * n + a] += deposit;
+            }
+            for (int k = 0; k < pheromone.length; k++) {
+                pheromone[k] = Math.min(tauMax, Math.max(tauMin, pheromone[k]));
+            }
+        }
+        return new TourSolution(matrix, bestTour, NAME);
+    }
+
+    // Roulette-wheel construction over the candidate list, falling back to the best remaining stop
+    private static int[] construct(int n, int[][] neighbors, double[] choice, SplittableRandom random) {
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        double[] weights = new double[neighbors[0].length];
+        for (int step = 1; step < n; step++) {
+            int current = tour[step - 1];
+            int[] candidates = neighbors[current];
+            double total = 0.0;
+            for (int c = 0; c < candidates.length; c++) {
+                weights[c] = visited[candidates[c]] ? 0.0 : choice[current * n + candidates[c]];
+                total += weights[c];
+            }
+
+            int next = -1;
+            if (total > 0.0) {
+                double target = random.nextDouble() * total;
+                for (int c = 0; c < candidates.length; c++) {
+                    target -= weights[c];
+                    if (weights[c] > 0.0 && target <= 0.0) {
+                        next = candidates[c];
+                        break;
+                    }
+                }
+                if (next < 0) {
+                    for (int c = candidates.length - 1; c >= 0 && next < 0; c--) {
+                        if (weights[c] > 0.0) {
+                            next = candidates[c];
+                        }
+                    }
+                }
+            } else {
+                double best = -1.0;
+                for (int j = 1; j < n; j++) {
+                    if (!visited[j] && choice[current * n + j] > best) {
+                        best = choice[current * n + j];
+                        next = j;
+                    }
+                }
+            }
+            tour[step] = next;
+            visited[next] = true;
+        }
+        return tour;
+    }
+
+    private static int[][] nearestNeighbors(DistanceMatrix matrix, int count) {
+        int n = matrix.size();
+        int[][] neighbors = new int[n][];
+        IntStream.range(0, n).parallel().forEach(i -> neighbors[i] = IntStream.range(1, n)
+                .filter(j -> j != i)
+                .boxed()
+                .sorted((a, b) -> Double.compare(matrix.distance(i, a), matrix.distance(i, b)))
+                .limit(count)
+                .mapToInt(Integer::intValue)
+                .toArray());
+        return neighbors;
+    }
+}
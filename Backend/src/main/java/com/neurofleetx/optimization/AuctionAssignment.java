@@ -0,0 +1,337 @@
+package com.neurofleetx.optimization;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.IntStream;
+
+// Min-cost assignment of bookings to drivers with the epsilon-scaled auction algorithm over a
+// sparse graph: each booking only bids for its k nearest drivers within a radius, plus a private
+// "unassigned" option that costs a fixed penalty. Each driver gets an idle option that can take
+// any booking's unassigned slot at no cost, which makes the problem square and always feasible.
+// Costs are integer meters scaled by (persons + 1), so the final phase at epsilon 1 is exactly optimal.
+public class AuctionAssignment {
+
+    public static final String ALGORITHM = "Sparse Auction";
+
+    // Epsilon is divided by this factor between phases
+    private static final long SCALING_FACTOR = 5;
+
+    private final int bookings;
+    private final int drivers;
+    private final double[] driverLatitudes;
+    private final double[] driverLongitudes;
+    private final double[] bookingLatitudes;
+    private final double[] bookingLongitudes;
+    private final int neighbors;
+    private final double maxDistanceKm;
+    private final long penalty;
+
+    // Candidate drivers and their distance in meters, per booking
+    private int[][] candidates;
+    private int[][] costs;
+
+    // Persons are the bookings followed by one idle person per driver; objects are the drivers
+    // followed by one unassigned slot per booking
+    private long scale;
+    private long[] price;
+    private int[] owner;
+    private int[] assigned;
+    private TreeSet<Long> slotsByPrice;
+    private long bids;
+
+    public static class Result {
+        private final int[] driverOf;
+        private final double[] distanceKm;
+        private final int candidateEdges;
+        private final int phases;
+        private final long bids;
+
+        Result(int[] driverOf, double[] distanceKm, int candidateEdges, int phases, long bids) {
+            this.driverOf = driverOf;
+            this.distanceKm = distanceKm;
+            this.candidateEdges = candidateEdges;
+            this.phases = phases;
+            this.bids = bids;
+        }
+
+        // Driver index per booking, -1 when the booking stays unassigned
+        public int[] getDriverOf() { return driverOf; }
+
+        public double[] getDistanceKm() { return distanceKm; }
+
+        public int getCandidateEdges() { return candidateEdges; }
+
+        public int getPhases() { return phases; }
+
+        public long getBids() { return bids; }
+    }
+
+    // A booking is only matched to a driver within maxDistanceKm; leaving it unassigned costs
+    // penaltyKm, so the solver never uses a match that is longer than the penalty
+    public AuctionAssignment(double[] driverLatitudes, double[] driverLongitudes,
+                             double[] bookingLatitudes, double[] bookingLongitudes,
+                             int neighbors, double maxDistanceKm, double penaltyKm) {
+        if (neighbors < 1) {
+            throw new IllegalArgumentException("At least one candidate driver per booking is required");
+        }
+        this.drivers = driverLatitudes.length;
+        this.bookings = bookingLatitudes.length;
+        this.driverLatitudes = driverLatitudes;
+        this.driverLongitudes = driverLongitudes;
+        this.bookingLatitudes = bookingLatitudes;
+        this.bookingLongitudes = bookingLongitudes;
+        this.neighbors = neighbors;
+        this.maxDistanceKm = maxDistanceKm;
+        this.penalty = Math.max(1, Math.round(penaltyKm * 1000));
+    }
+
+    public Result solve() {
+        int[] driverOf = new int[bookings];
+        double[] distanceKm = new double[bookings];
+        Arrays.fill(driverOf, -1);
+        if (bookings == 0 || drivers == 0) {
+            return new Result(driverOf, distanceKm, 0, 0, 0);
+        }
+        findCandidates();
+        int edges = 0;
+        for (int[] list : candidates) {
+            edges += list.length;
+        }
+
+        int persons = bookings + drivers;
+        scale = persons + 1;
+        price = new long[persons];
+        owner = new int[persons];
+        assigned = new int[persons];
+        slotsByPrice = new TreeSet<>();
+        for (int i = 0; i < bookings; i++) {
+            slotsByPrice.add(slotKey(drivers + i));
+        }
+
+        int phases = 0;
+        long epsilon = Math.max(1, penalty * scale / 2);
+        while (true) {
+            phases++;
+            auction(epsilon);
+            if (epsilon == 1) {
+                break;
+            }
+            epsilon = Math.max(1, epsilon / SCALING_FACTOR);
+        }
+
+        for (int i = 0; i < bookings; i++) {
+            int object = assigned[i];
+            if (object < drivers) {
+                driverOf[i] = object;
+                distanceKm[i] = costs[i][indexOf(candidates[i], object)] / 1000.0;
+            }
+        }
+        return new Result(driverOf, distanceKm, edges, phases, bids);
+    }
+
+    // One forward auction phase: every person starts unassigned and keeps the prices of the last phase
+    private void auction(long epsilon) {
+        Arrays.fill(owner, -1);
+        Arrays.fill(assigned, -1);
+        ArrayDeque<Integer> unassigned = new ArrayDeque<>(assigned.length);
+        for (int p = 0; p < assigned.length; p++) {
+            unassigned.add(p);
+        }
+        long[] bid = new long[3];
+        while (!unassigned.isEmpty()) {
+            int person = unassigned.poll();
+            // bid = {best object, best value, second best value}
+            if (person < bookings) {
+                bestForBooking(person, bid);
+            } else {
+                bestForIdleDriver(person - bookings, bid);
+            }
+            int object = (int) bid[0];
+            long second = bid[2] == Long.MIN_VALUE ? bid[1] - penalty * scale : bid[2];
+            setPrice(object, price[object] + bid[1] - second + epsilon);
+            bids++;
+
+            int previous = owner[object];
+            owner[object] = person;
+            assigned[person] = object;
+            if (previous >= 0) {
+                assigned[previous] = -1;
+                unassigned.add(previous);
+            }
+        }
+    }
+
+    private void bestForBooking(int booking, long[] bid) {
+        bid[0] = drivers + booking;
+        bid[1] = -penalty * scale - price[drivers + booking];
+        bid[2] = Long.MIN_VALUE;
+        for (int e = 0; e < candidates[booking].length; e++) {
+            int driver = candidates[booking][e];
+            offer(bid, driver, -costs[booking][e] * scale - price[driver]);
+        }
+    }
+
+    // An idle driver either keeps its own driver or takes the cheapest unassigned slot
+    private void bestForIdleDriver(int driver, long[] bid) {
+        bid[0] = driver;
+        bid[1] = -price[driver];
+        bid[2] = Long.MIN_VALUE;
+        int seen = 0;
+        for (long key : slotsByPrice) {
+            int slot = (int) (key % bookings) + drivers;
+            offer(bid, slot, -price[slot]);
+            if (++seen == 2) {
+                break;
+            }
+        }
+    }
+
+    private static void offer(long[] bid, int object, long value) {
+        if (value > bid[1]) {
+            bid[2] = bid[1];
+            bid[0] = object;
+            bid[1] = value;
+        } else if (value > bid[2]) {
+            bid[2] = value;
+        }
+    }
+
+    private void setPrice(int object, long value) {
+        if (object >= drivers) {
+            slotsByPrice.remove(slotKey(object));
+            price[object] = value;
+            slotsByPrice.add(slotKey(object));
+        } else {
+            price[object] = value;
+        }
+    }
+
+    // Orders unassigned slots by price, ties broken by booking index
+    private long slotKey(int slot) {
+        return price[slot] * bookings + (slot - drivers);
+    }
+
+    private static int indexOf(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // k nearest drivers within the radius per booking, using a uniform grid over the driver positions
+    private void findCandidates() {
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (int d = 0; d < drivers; d++) {
+            minLat = Math.min(minLat, driverLatitudes[d]);
+            maxLat = Math.max(maxLat, driverLatitudes[d]);
+            minLon = Math.min(minLon, driverLongitudes[d]);
+            maxLon = Math.max(maxLon, driverLongitudes[d]);
+        }
+        int side = Math.max(1, (int) Math.sqrt(drivers / 4.0));
+        double latStep = Math.max(maxLat - minLat, 1e-9) / side;
+        double lonStep = Math.max(maxLon - minLon, 1e-9) / side;
+
+        // Counting sort of drivers into grid cells
+        int[] cellOf = new int[drivers];
+        int[] cellStart = new int[side * side + 1];
+        for (int d = 0; d < drivers; d++) {
+            int row = clamp((int) ((driverLatitudes[d] - minLat) / latStep), side);
+            int col = clamp((int) ((driverLongitudes[d] - minLon) / lonStep), side);
+            cellOf[d] = row * side + col;
+            cellStart[cellOf[d] + 1]++;
+        }
+        for (int c = 0; c < side * side; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] cellItems = new int[drivers];
+        int[] fill = Arrays.copyOf(cellStart, side * side);
+        for (int d = 0; d < drivers; d++) {
+            cellItems[fill[cellOf[d]]++] = d;
+        }
+        // Driver coordinates in cell order, so every cell is one contiguous kernel range
+        double[] cellLatitudes = new double[drivers];
+        double[] cellLongitudes = new double[drivers];
+        int largestCell = 0;
+        for (int p = 0; p < drivers; p++) {
+            cellLatitudes[p] = driverLatitudes[cellItems[p]];
+            cellLongitudes[p] = driverLongitudes[cellItems[p]];
+        }
+        for (int c = 0; c < side * side; c++) {
+            largestCell = Math.max(largestCell, cellStart[c + 1] - cellStart[c]);
+        }
+        GeoPoints points = GeoPoints.of(cellLatitudes, cellLongitudes);
+        HaversineKernel kernel = GeoDistance.kernel();
+        int bufferSize = largestCell;
+
+        // Rings further out than the radius cannot contain a candidate
+        double cellKm = Math.min(latStep, lonStep * Math.cos(Math.toRadians(Math.max(Math.abs(minLat), Math.abs(maxLat)))))
+                * Math.toRadians(GeoDistance.EARTH_RADIUS_KM);
+        int maxRing = (int) Math.min(side, Math.ceil(maxDistanceKm / Math.max(cellKm, 1e-9)) + 1);
+
+        final double originLat = minLat, originLon = minLon;
+        candidates = new int[bookings][];
+        costs = new int[bookings][];
+        IntStream.range(0, bookings).parallel().forEach(i -> {
+            double lat = bookingLatitudes[i];
+            double lon = bookingLongitudes[i];
+            // Bookings outside the driver bounding box start from the nearest edge cell
+            int row = clamp((int) Math.floor((lat - originLat) / latStep), side);
+            int col = clamp((int) Math.floor((lon - originLon) / lonStep), side);
+            double[] cellDistances = new double[bufferSize];
+            List<Integer> found = new ArrayList<>();
+            List<Double> distances = new ArrayList<>();
+            // Keep widening the ring until enough candidates are found, then take one more ring
+            // so that drivers just across a cell boundary are not missed
+            int extra = -1;
+            for (int ring = 0; ring <= maxRing && extra != 0; ring++) {
+                for (int r = row - ring; r <= row + ring; r++) {
+                    for (int c = col - ring; c <= col + ring; c++) {
+                        if (r < 0 || c < 0 || r >= side || c >= side
+                                || (Math.abs(r - row) != ring && Math.abs(c - col) != ring)) {
+                            continue;
+                        }
+                        int cell = r * side + c;
+                        kernel.distancesKm(lat, lon, points, cellStart[cell], cellStart[cell + 1], cellDistances, 0);
+                        for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                            double km = cellDistances[p - cellStart[cell]];
+                            if (km <= maxDistanceKm) {
+                                found.add(cellItems[p]);
+                                distances.add(km);
+                            }
+                        }
+                    }
+                }
+                if (extra > 0) {
+                    extra--;
+                } else if (extra < 0 && found.size() >= neighbors) {
+                    extra = 1;
+                }
+            }
+            long[] sorted = new long[found.size()];
+            for (int p = 0; p < sorted.length; p++) {
+                sorted[p] = ((long) Float.floatToIntBits(distances.get(p).floatValue()) << 32) | p;
+            }
+            Arrays.sort(sorted);
+            int count = Math.min(neighbors, sorted.length);
+            int[] nearest = new int[count];
+            int[] meters = new int[count];
+            for (int p = 0; p < count; p++) {
+                int index = (int) sorted[p];
+                nearest[p] = found.get(index);
+                meters[p] = (int) Math.round(distances.get(index) * 1000);
+            }
+            candidates[i] = nearest;
+            costs[i] = meters;
+        });
+    }
+
+    private static int clamp(int cell, int side) {
+        return Math.max(0, Math.min(side - 1, cell));
+    }
+}
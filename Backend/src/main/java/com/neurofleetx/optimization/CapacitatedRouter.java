@@ -0,0 +1,521 @@
+package com.neurofleetx.optimization;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+// Capacitated vehicle routing: Clarke-Wright savings followed by relocate and 2-opt local search.
+// Node 0 is the depot and nodes 1..n are orders; every route starts and ends at the depot.
+// Distances are computed on demand from coordinates and savings are restricted to each order's
+// nearest neighbors, so memory stays linear in the number of orders.
+public class CapacitatedRouter {
+
+    public static final String ALGORITHM = "Clarke-Wright Savings";
+
+    // Savings and relocate moves only consider this many nearest orders per order
+    private static final int NEIGHBORS = 40;
+
+    private static final int MAX_PASSES = 50;
+
+    private static final double EPSILON = 1e-9;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] demands;
+    private final int size;
+    private int[][] neighbors;
+
+    public static class VehicleRoute {
+        private final int vehicle;
+        private final int[] orders;
+        private final int load;
+        private final double distance;
+
+        VehicleRoute(int vehicle, int[] orders, int load, double distance) {
+            this.vehicle = vehicle;
+            this.orders = orders;
+            this.load = load;
+            this.distance = distance;
+        }
+
+        // Index into the capacities the router was given
+        public int getVehicle() { return vehicle; }
+
+        // Zero-based order indices in visiting order, depot legs excluded
+        public int[] getOrders() { return orders; }
+
+        public int getLoad() { return load; }
+
+        public double getDistance() { return distance; }
+    }
+
+    public static class Result {
+        private final List<VehicleRoute> routes;
+        private final int[] unassigned;
+
+        Result(List<VehicleRoute> routes, int[] unassigned) {
+            this.routes = routes;
+            this.unassigned = unassigned;
+        }
+
+        public List<VehicleRoute> getRoutes() { return routes; }
+
+        public int[] getUnassigned() { return unassigned; }
+
+        public double getTotalDistance() {
+            return routes.stream().mapToDouble(VehicleRoute::getDistance).sum();
+        }
+    }
+
+    public CapacitatedRouter(double depotLatitude, double depotLongitude,
+                             double[] orderLatitudes, double[] orderLongitudes, int[] orderDemands) {
+        this.size = orderLatitudes.length + 1;
+        this.latitudes = new double[size];
+        this.longitudes = new double[size];
+        this.demands = new int[size];
+        latitudes[0] = depotLatitude;
+        longitudes[0] = depotLongitude;
+        System.arraycopy(orderLatitudes, 0, latitudes, 1, size - 1);
+        System.arraycopy(orderLongitudes, 0, longitudes, 1, size - 1);
+        System.arraycopy(orderDemands, 0, demands, 1, size - 1);
+    }
+
+    // Splits the orders into routes that fit the given remaining vehicle capacities
+    public Result solve(int[] capacities) {
+        int maxCapacity = Arrays.stream(capacities).max().orElse(0);
+        neighbors = nearestNeighbors(Math.min(NEIGHBORS, size - 2));
+
+        List<List<Integer>> routes = savings(maxCapacity);
+
+        // Largest routes pick first and take the tightest vehicle that still fits them
+        routes.sort((a, b) -> Integer.compare(load(b), load(a)));
+        TreeMap<Integer, Deque<Integer>> available = new TreeMap<>();
+        for (int v = 0; v < capacities.length; v++) {
+            available.computeIfAbsent(capacities[v], c -> new ArrayDeque<>()).add(v);
+        }
+        List<List<Integer>> assigned = new ArrayList<>();
+        List<Integer> vehicles = new ArrayList<>();
+        List<Integer> pending = new ArrayList<>();
+        for (List<Integer> route : routes) {
+            while (!route.isEmpty()) {
+                Map.Entry<Integer, Deque<Integer>> fit = available.ceilingEntry(load(route));
+                List<Integer> part = route;
+                if (fit == null) {
+                    // Merges were bounded by the largest vehicle; cut an oversized route down to
+                    // the largest vehicle still free and leave the rest for the next one
+                    fit = available.lastEntry();
+                    if (fit == null) {
+                        pending.addAll(route);
+                        break;
+                    }
+                    int cut = 0;
+                    int load = 0;
+                    while (cut < route.size() && load + demands[route.get(cut)] <= fit.getKey()) {
+                        load += demands[route.get(cut++)];
+                    }
+                    if (cut == 0) {
+                        pending.add(route.remove(0));
+                        continue;
+                    }
+                    part = new ArrayList<>(route.subList(0, cut));
+                    route = new ArrayList<>(route.subList(cut, route.size()));
+                } else {
+                    route = new ArrayList<>();
+                }
+                vehicles.add(fit.getValue().poll());
+                if (fit.getValue().isEmpty()) {
+                    available.remove(fit.getKey());
+                }
+                assigned.add(part);
+            }
+        }
+
+        int[] limits = vehicles.stream().mapToInt(v -> capacities[v]).toArray();
+        List<Integer> unassigned = new LocalSearch(assigned, limits).run(pending);
+
+        List<VehicleRoute> result = new ArrayList<>();
+        for (int r = 0; r < assigned.size(); r++) {
+            List<Integer> route = assigned.get(r);
+            if (route.isEmpty()) {
+                continue;
+            }
+            int[] orders = route.stream().mapToInt(node -> node - 1).toArray();
+            result.add(new VehicleRoute(vehicles.get(r), orders, load(route), routeDistance(route)));
+        }
+        int[] dropped = unassigned.stream().mapToInt(node -> node - 1).sorted().toArray();
+        return new Result(result, dropped);
+    }
+
+    double distance(int a, int b) {
+        return GeoDistance.haversineKm(latitudes[a], longitudes[a], latitudes[b], longitudes[b]);
+    }
+
+    private int load(List<Integer> route) {
+        int load = 0;
+        for (int node : route) {
+            load += demands[node];
+        }
+        return load;
+    }
+
+    private double routeDistance(List<Integer> route) {
+        double total = 0;
+        int previous = 0;
+        for (int node : route) {
+            total += distance(previous, node);
+            previous = node;
+        }
+        return total + distance(previous, 0);
+    }
+
+    // Clarke-Wright parallel savings: merge route ends in order of decreasing saving
+    private List<List<Integer>> savings(int maxCapacity) {
+        int pairs = 0;
+        for (int i = 1; i < size; i++) {
+            pairs += neighbors[i].length;
+        }
+        int[] from = new int[pairs];
+        int[] to = new int[pairs];
+        long[] order = new long[pairs];
+        int count = 0;
+        for (int i = 1; i < size; i++) {
+            // Neighbor lists are not symmetric, so a pair may appear twice; the second copy is a no-op
+            for (int j : neighbors[i]) {
+                double saving = distance(0, i) + distance(0, j) - distance(i, j);
+                if (saving <= 0) {
+                    continue;
+                }
+                from[count] = i;
+                to[count] = j;
+                // Positive float bits sort like the values themselves, the low word carries the pair
+                order[count] = ((long) Float.floatToIntBits((float) saving) << 32) | count;
+                count++;
+            }
+        }
+        Arrays.sort(order, 0, count);
+
+        int[] parent = new int[size];
+        int[] routeLoad = new int[size];
+        int[] first = new int[size];
+        int[] second = new int[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+            routeLoad[i] = demands[i];
+            first[i] = -1;
+            second[i] = -1;
+        }
+        for (int k = count - 1; k >= 0; k--) {
+            int pair = (int) order[k];
+            int i = from[pair];
+            int j = to[pair];
+            if (second[i] >= 0 || second[j] >= 0) {
+                continue; // interior node, no longer a route end
+            }
+            int ri = find(parent, i);
+            int rj = find(parent, j);
+            if (ri == rj || routeLoad[ri] + routeLoad[rj] > maxCapacity) {
+                continue;
+            }
+            link(first, second, i, j);
+            link(first, second, j, i);
+            parent[rj] = ri;
+            routeLoad[ri] += routeLoad[rj];
+        }
+
+        // Walk every chain from one of its ends
+        List<List<Integer>> routes = new ArrayList<>();
+        boolean[] visited = new boolean[size];
+        for (int start = 1; start < size; start++) {
+            if (visited[start] || second[start] >= 0) {
+                continue;
+            }
+            List<Integer> route = new ArrayList<>();
+            int previous = -1;
+            int current = start;
+            while (current >= 0) {
+                visited[current] = true;
+                route.add(current);
+                int next = first[current] != previous ? first[current] : second[current];
+                previous = current;
+                current = next;
+            }
+            routes.add(route);
+        }
+        return routes;
+    }
+
+    private static void link(int[] first, int[] second, int node, int other) {
+        if (first[node] < 0) {
+            first[node] = other;
+        } else {
+            second[node] = other;
+        }
+    }
+
+    private static int find(int[] parent, int node) {
+        while (parent[node] != node) {
+            parent[node] = parent[parent[node]];
+            node = parent[node];
+        }
+        return node;
+    }
+
+    // Approximate k nearest orders per order using a uniform grid over the order coordinates
+    private int[][] nearestNeighbors(int k) {
+        int[][] result = new int[size][];
+        result[0] = new int[0];
+        if (k <= 0) {
+            Arrays.fill(result, 1, size, new int[0]);
+            return result;
+        }
+        double minLat = Double.MAX_VALUE, maxLat = -Double.MAX_VALUE;
+        double minLon = Double.MAX_VALUE, maxLon = -Double.MAX_VALUE;
+        for (int i = 1; i < size; i++) {
+            minLat = Math.min(minLat, latitudes[i]);
+            maxLat = Math.max(maxLat, latitudes[i]);
+            minLon = Math.min(minLon, longitudes[i]);
+            maxLon = Math.max(maxLon, longitudes[i]);
+        }
+        int side = Math.max(1, (int) Math.sqrt((size - 1) / 4.0));
+        double latStep = Math.max(maxLat - minLat, 1e-9) / side;
+        double lonStep = Math.max(maxLon - minLon, 1e-9) / side;
+
+        // Counting sort of orders into grid cells
+        int[] cellOf = new int[size];
+        int[] cellStart = new int[side * side + 1];
+        for (int i = 1; i < size; i++) {
+            int row = Math.min(side - 1, (int) ((latitudes[i] - minLat) / latStep));
+            int col = Math.min(side - 1, (int) ((longitudes[i] - minLon) / lonStep));
+            cellOf[i] = row * side + col;
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < side * side; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        int[] cellItems = new int[size - 1];
+        int[] fill = Arrays.copyOf(cellStart, side * side);
+        for (int i = 1; i < size; i++) {
+            cellItems[fill[cellOf[i]]++] = i;
+        }
+
+        IntStream.range(1, size).parallel().forEach(i -> {
+            int row = cellOf[i] / side;
+            int col = cellOf[i] % side;
+            List<Integer> candidates = new ArrayList<>();
+            // Keep widening the ring until enough candidates are found, then take one more ring
+            // so that points just across a cell boundary are not missed
+            int extra = -1;
+            for (int ring = 0; ring < side && extra != 0; ring++) {
+                for (int r = row - ring; r <= row + ring; r++) {
+                    for (int c = col - ring; c <= col + ring; c++) {
+                        if (r < 0 || c < 0 || r >= side || c >= side
+                                || (Math.abs(r - row) != ring && Math.abs(c - col) != ring)) {
+                            continue;
+                        }
+                        int cell = r * side + c;
+                        for (int p = cellStart[cell]; p < cellStart[cell + 1]; p++) {
+                            if (cellItems[p] != i) {
+                                candidates.add(cellItems[p]);
+                            }
+                        }
+                    }
+                }
+                if (extra > 0) {
+                    extra--;
+                } else if (extra < 0 && candidates.size() >= k) {
+                    extra = 1;
+                }
+            }
+            double[] distances = new double[candidates.size()];
+            long[] sorted = new long[candidates.size()];
+            for (int p = 0; p < distances.length; p++) {
+                distances[p] = distance(i, candidates.get(p));
+                sorted[p] = ((long) Float.floatToIntBits((float) distances[p]) << 32) | p;
+            }
+            Arrays.sort(sorted);
+            int[] nearest = new int[Math.min(k, sorted.length)];
+            for (int p = 0; p < nearest.length; p++) {
+                nearest[p] = candidates.get((int) sorted[p]);
+            }
+            result[i] = nearest;
+        });
+        return result;
+    }
+
+    // Relocate and 2-opt moves over the assigned routes, restricted to neighbor lists
+    private class LocalSearch {
+        private final List<List<Integer>> routes;
+        private final int[] limits;
+        private final int[] loads;
+        private final int[] routeOf;
+        private final int[] positionOf;
+        private final boolean[] dirty;
+
+        LocalSearch(List<List<Integer>> routes, int[] limits) {
+            this.routes = routes;
+            this.limits = limits;
+            this.loads = new int[routes.size()];
+            this.routeOf = new int[size];
+            this.positionOf = new int[size];
+            this.dirty = new boolean[routes.size()];
+            Arrays.fill(routeOf, -1);
+            for (int r = 0; r < routes.size(); r++) {
+                loads[r] = load(routes.get(r));
+                index(r);
+            }
+        }
+
+        // Returns the orders that could not be placed on any vehicle
+        List<Integer> run(List<Integer> pending) {
+            List<Integer> unplaced = new ArrayList<>();
+            for (int node : pending) {
+                if (!insert(node)) {
+                    unplaced.add(node);
+                }
+            }
+            for (int r = 0; r < routes.size(); r++) {
+                twoOpt(r);
+            }
+            for (int pass = 0; pass < MAX_PASSES; pass++) {
+                boolean improved = false;
+                for (int node = 1; node < size; node++) {
+                    if (routeOf[node] >= 0 && relocate(node)) {
+                        improved = true;
+                    }
+                }
+                // Only routes touched by a relocate can have new 2-opt moves
+                for (int r = 0; r < routes.size(); r++) {
+                    if (dirty[r]) {
+                        dirty[r] = false;
+                        twoOpt(r);
+                    }
+                }
+                if (!improved) {
+                    break;
+                }
+            }
+            return unplaced;
+        }
+
+        private void index(int r) {
+            List<Integer> route = routes.get(r);
+            for (int p = 0; p < route.size(); p++) {
+                routeOf[route.get(p)] = r;
+                positionOf[route.get(p)] = p;
+            }
+        }
+
+        private int at(int r, int position) {
+            List<Integer> route = routes.get(r);
+            return position < 0 || position >= route.size() ? 0 : route.get(position);
+        }
+
+        // Cheapest insertion next to a neighboring order on a route with spare capacity
+        private boolean insert(int node) {
+            int bestRoute = -1;
+            int bestPosition = -1;
+            double bestCost = Double.MAX_VALUE;
+            for (int neighbor : neighbors[node]) {
+                int r = routeOf[neighbor];
+                if (r < 0 || loads[r] + demands[node] > limits[r]) {
+                    continue;
+                }
+                for (int position = positionOf[neighbor]; position <= positionOf[neighbor] + 1; position++) {
+                    double cost = insertionCost(node, r, position);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        bestRoute = r;
+                        bestPosition = position;
+                    }
+                }
+            }
+            if (bestRoute < 0) {
+                return false;
+            }
+            routes.get(bestRoute).add(bestPosition, node);
+            loads[bestRoute] += demands[node];
+            index(bestRoute);
+            return true;
+        }
+
+        private double insertionCost(int node, int r, int position) {
+            int before = at(r, position - 1);
+            int after = at(r, position);
+            return distance(before, node) + distance(node, after) - distance(before, after);
+        }
+
+        // Moves an order to another route when that shortens the total distance
+        private boolean relocate(int node) {
+            int source = routeOf[node];
+            int position = positionOf[node];
+            int before = at(source, position - 1);
+            int after = at(source, position + 1);
+            double removalGain = distance(before, node) + distance(node, after) - distance(before, after);
+
+            int bestRoute = -1;
+            int bestPosition = -1;
+            double bestDelta = -EPSILON;
+            for (int neighbor : neighbors[node]) {
+                int r = routeOf[neighbor];
+                if (r < 0 || r == source || loads[r] + demands[node] > limits[r]) {
+                    continue;
+                }
+                for (int p = positionOf[neighbor]; p <= positionOf[neighbor] + 1; p++) {
+                    double delta = insertionCost(node, r, p) - removalGain;
+                    if (delta < bestDelta) {
+                        bestDelta = delta;
+                        bestRoute = r;
+                        bestPosition = p;
+                    }
+                }
+            }
+            if (bestRoute < 0) {
+                return false;
+            }
+            routes.get(source).remove(position);
+            loads[source] -= demands[node];
+            routes.get(bestRoute).add(bestPosition, node);
+            loads[bestRoute] += demands[node];
+            index(source);
+            index(bestRoute);
+            dirty[source] = true;
+            dirty[bestRoute] = true;
+            return true;
+        }
+
+        // 2-opt within one route, both depot legs fixed
+        private boolean twoOpt(int r) {
+            List<Integer> route = routes.get(r);
+            boolean changed = false;
+            boolean improved = true;
+            while (improved) {
+                improved = false;
+                for (int i = 0; i < route.size() - 1; i++) {
+                    int a = at(r, i - 1);
+                    int b = route.get(i);
+                    for (int j = i + 1; j < route.size(); j++) {
+                        int c = route.get(j);
+                        int d = at(r, j + 1);
+                        double delta = distance(a, c) + distance(b, d) - distance(a, b) - distance(c, d);
+                        if (delta < -EPSILON) {
+                            Collections.reverse(route.subList(i, j + 1));
+                            b = route.get(i);
+                            improved = true;
+                            changed = true;
+                        }
+                    }
+                }
+            }
+            if (changed) {
+                index(r);
+            }
+            return changed;
+        }
+    }
+}
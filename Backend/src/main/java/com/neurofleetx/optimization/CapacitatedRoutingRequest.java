@@ -0,0 +1,65 @@
+package com.neurofleetx.optimization;
+
+import com.neurofleetx.entity.RouteOptimization.Location;
+import java.util.List;
+
+// Request body for capacitated multi-vehicle routing
+public class CapacitatedRoutingRequest {
+
+    private Location depot;
+    private List<Order> orders;
+    private List<Vehicle> vehicles;
+
+    public static class Order {
+        private double latitude;
+        private double longitude;
+        private String address;
+        private int demand;
+
+        public Order() {}
+
+        public double getLatitude() { return latitude; }
+        public void setLatitude(double latitude) { this.latitude = latitude; }
+
+        public double getLongitude() { return longitude; }
+        public void setLongitude(double longitude) { this.longitude = longitude; }
+
+        public String getAddress() { return address; }
+        public void setAddress(String address) { this.address = address; }
+
+        public int getDemand() { return demand; }
+        public void setDemand(int demand) { this.demand = demand; }
+    }
+
+    public static class Vehicle {
+        private String vehicleId;
+        private String driverId;
+        private int loadCapacity;
+        private int currentLoad;
+
+        public Vehicle() {}
+
+        public String getVehicleId() { return vehicleId; }
+        public void setVehicleId(String vehicleId) { this.vehicleId = vehicleId; }
+
+        public String getDriverId() { return driverId; }
+        public void setDriverId(String driverId) { this.driverId = driverId; }
+
+        public int getLoadCapacity() { return loadCapacity; }
+        public void setLoadCapacity(int loadCapacity) { this.loadCapacity = loadCapacity; }
+
+        public int getCurrentLoad() { return currentLoad; }
+        public void setCurrentLoad(int currentLoad) { this.currentLoad = currentLoad; }
+    }
+
+    public CapacitatedRoutingRequest() {}
+
+    public Location getDepot() { return depot; }
+    public void setDepot(Location depot) { this.depot = depot; }
+
+    public List<Order> getOrders() { return orders; }
+    public void setOrders(List<Order> orders) { this.orders = orders; }
+
+    public List<Vehicle> getVehicles() { return vehicles; }
+    public void setVehicles(List<Vehicle> vehicles) { this.vehicles = vehicles; }
+}
@@ -0,0 +1,47 @@
+package com.neurofleetx.optimization;
+
+// Caller-ordered view over a shared DistanceTable; index i refers to the i-th requested location
+public final class DistanceMatrix {
+
+    private final DistanceTable table;
+    private final int[] index;
+
+    public DistanceMatrix(DistanceTable table, int[] index) {
+        this.table = table;
+        this.index = index;
+    }
+
+    public int size() {
+        return index.length;
+    }
+
+    public double distance(int from, int to) {
+        return table.distance(index[from], index[to]);
+    }
+
+    public double duration(int from, int to) {
+        return table.duration(index[from], index[to]);
+    }
+
+    // Total distance of an open tour visiting the given indices in order
+    public double pathDistance(int[] tour) {
+        double total = 0.0;
+        for (int k = 1; k < tour.length; k++) {
+            total += distance(tour[k - 1], tour[k]);
+        }
+        return total;
+    }
+
+    // Total duration of an open tour visiting the given indices in order
+    public double pathDuration(int[] tour) {
+        double total = 0.0;
+        for (int k = 1; k < tour.length; k++) {
+            total += duration(tour[k - 1], tour[k]);
+        }
+        return total;
+    }
+
+    public DistanceTable getTable() {
+        return table;
+    }
+}
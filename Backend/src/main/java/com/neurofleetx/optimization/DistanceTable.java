@@ -0,0 +1,70 @@
+package com.neurofleetx.optimization;
+
+import java.util.Arrays;
+
+// Symmetric distance/duration table over a canonical (sorted) location set.
+// Only the strict lower triangle is stored, row-major in flat double arrays:
+// cell (i, j) with i < j lives at j * (j - 1) / 2 + i.
+public final class DistanceTable {
+
+    private final long[] pointKeys;
+    private final double[] distances; // kilometers
+    private final double[] durations; // minutes
+
+    public DistanceTable(long[] pointKeys, double[] distances, double[] durations) {
+        this.pointKeys = pointKeys;
+        this.distances = distances;
+        this.durations = durations;
+    }
+
+    public static int cellCount(int size) {
+        return size * (size - 1) / 2;
+    }
+
+    public static int cell(int i, int j) {
+        if (i > j) {
+            int tmp = i;
+            i = j;
+            j = tmp;
+        }
+        return j * (j - 1) / 2 + i;
+    }
+
+    public int size() {
+        return pointKeys.length;
+    }
+
+    public long pointKey(int index) {
+        return pointKeys[index];
+    }
+
+    public long[] pointKeys() {
+        return pointKeys;
+    }
+
+    // Canonical index of a point, or a negative value when the point is not part of this table
+    public int indexOf(long pointKey) {
+        return Arrays.binarySearch(pointKeys, pointKey);
+    }
+
+    public double distance(int i, int j) {
+        return i == j ? 0.0 : distances[cell(i, j)];
+    }
+
+    public double duration(int i, int j) {
+        return i == j ? 0.0 : durations[cell(i, j)];
+    }
+
+    public double distanceCell(int cell) {
+        return distances[cell];
+    }
+
+    public double durationCell(int cell) {
+        return durations[cell];
+    }
+
+    // Approximate retained heap size in bytes (array payloads plus headers)
+    public long memoryBytes() {
+        return 3L * 16 + 8L * pointKeys.length + 8L * distances.length + 8L * durations.length;
+    }
+}
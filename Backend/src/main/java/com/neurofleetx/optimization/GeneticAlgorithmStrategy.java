@@ -0,0 +1,137 @@
+package com.neurofleetx.optimization;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+// Genetic algorithm with order crossover (OX1), tournament selection and inversion mutation.
+// Offspring are bred in parallel; each child draws from its own seeded stream so runs are reproducible.
+@Component
+public class GeneticAlgorithmStrategy implements RouteOptimizationStrategy {
+
+    public static final String NAME = "Genetic Algorithm";
+
+    private static final int ELITES = 2;
+    private static final int TOURNAMENT_SIZE = 3;
+    private static final double MUTATION_RATE = 0.25;
+    private static final long WORK_BUDGET = 50_000_000L;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public TourSolution optimize(TourProblem problem) {
+        DistanceMatrix matrix = problem.getMatrix();
+        int n = matrix.size();
+        if (n < 4) {
+            return new TourSolution(matrix, problem.identityTour(), NAME);
+        }
+
+        int populationSize = Math.min(160, Math.max(40, n * 2));
+        long generations = Math.min(1000, Math.max(100, WORK_BUDGET / ((long) populationSize * n)));
+
+        Individual[] population = IntStream.range(0, populationSize).parallel()
+                .mapToObj(i -> i == 0
+                        ? new Individual(TourImprover.nearestNeighbor(matrix), matrix)
+                        : new Individual(randomTour(n, new SplittableRandom(problem.subSeed(0, i))), matrix))
+                .sorted(Comparator.comparingDouble(ind -> ind.cost))
+                .toArray(Individual[]::new);
+        double reported = population[0].cost;
+        problem.reportProgress(reported);
+
+        for (int generation = 1; generation <= generations && !problem.isExpired(); generation++) {
+            Individual[] parents = population;
+            int g = generation;
+            Individual[] next = new Individual[populationSize];
+            System.arraycopy(parents, 0, next, 0, ELITES);
+            IntStream.range(ELITES, populationSize).parallel().forEach(i -> {
+                SplittableRandom random = new SplittableRandom(problem.subSeed(g, i));
+                int[] child = orderCrossover(tournament(parents, random).tour, tournament(parents, random).tour, random);
+                if (random.nextDouble() < MUTATION_RATE) {
+                    int a = 1 + random.nextInt(n - 1);
+                    int b = 1 + random.nextInt(n - 1);
+                    TourImprover.reverse(child, Math.min(a, b), Math.max(a, b));
+                }
+                next[i] = new Individual(child, matrix);
+            });
+            Arrays.sort(next, Comparator.comparingDouble(ind -> ind.cost));
+            population = next;
+            if (population[0].cost < reported) {
+                reported = population[0].cost;
+                problem.reportProgress(reported);
+            }
+        }
+
+        int[] best = population[0].tour.clone();
+        TourImprover.improve(matrix, best, problem);
+        TourSolution solution = new TourSolution(matrix, best, NAME);
+        problem.reportProgress(solution.getDistance());
+        return solution;
+    }
+
+    // Order crossover: copy a slice of the first parent, fill the rest in the second parent's order
+    static int[] orderCrossover(int[] first, int[] second, SplittableRandom random) {
+        int n = first.length;
+        int a = 1 + random.nextInt(n - 1);
+        int b = 1 + random.nextInt(n - 1);
+        int from = Math.min(a, b);
+        int to = Math.max(a, b);
+
+        int[] child = new int[n];
+        boolean[] taken = new boolean[n];
+        for (int i = from; i <= to; i++) {
+            child[i] = first[i];
+            taken[first[i]] = true;
+        }
+        int position = to + 1 == n ? 1 : to + 1;
+        for (int k = 0; k < n - 1; k++) {
+            int gene = second[1 + (to + k) % (n - 1)];
+            if (!taken[gene]) {
+                child[position] = gene;
+                taken[gene] = true;
+                position = position + 1 == n ? 1 : position + 1;
+            }
+        }
+        return child;
+    }
+
+    private static Individual tournament(Individual[] population, SplittableRandom random) {
+        Individual best = population[random.nextInt(population.length)];
+        for (int k = 1; k < TOURNAMENT_SIZE; k++) {
+            Individual candidate = population[random.nextInt(population.length)];
+            if (candidate.cost < best.cost) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private static int[] randomTour(int n, SplittableRandom random) {
+        int[] tour = new int[n];
+        for (int i = 0; i < n; i++) {
+            tour[i] = i;
+        }
+        for (int i = n - 1; i > 1; i--) {
+            int j = 1 + random.nextInt(i);
+            int tmp = tour[i];
+            tour[i] = tour[j];
+            tour[j] = tmp;
+        }
+        return tour;
+    }
+
+    private static final class Individual {
+        final int[] tour;
+        final double cost;
+
+        Individual(int[] tour, DistanceMatrix matrix) {
+            this.tour = tour;
+            this.cost = matrix.pathDistance(tour);
+        }
+    }
+}
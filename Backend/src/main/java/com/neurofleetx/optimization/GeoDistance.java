@@ -0,0 +1,48 @@
+package com.neurofleetx.optimization;
+
+// Great-circle helpers shared by the routing and optimization code
+public final class GeoDistance {
+
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    // Average urban travel time, kept in line with the original route metric estimate
+    public static final double MINUTES_PER_KM = 2.5;
+
+    // Coordinates are keyed at 1e-5 degrees (~1 m), enough to treat two stops as the same point
+    private static final double KEY_SCALE = 1e5;
+
+    // Bulk kernel chosen at startup; -Dgeo.haversine.kernel=scalar|vector overrides the detection
+    private static final HaversineKernel KERNEL = HaversineKernel.select(System.getProperty("geo.haversine.kernel", "auto"));
+
+    private GeoDistance() {}
+
+    public static HaversineKernel kernel() {
+        return KERNEL;
+    }
+
+    // Haversine distance in kilometers
+    public static double haversineKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double sinLat = Math.sin(dLat / 2);
+        double sinLon = Math.sin(dLon / 2);
+        double a = sinLat * sinLat
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinLon * sinLon;
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+
+    // Packs a coordinate into a sortable long so location sets can be compared without boxing
+    public static long pointKey(double latitude, double longitude) {
+        long lat = Math.round((latitude + 90.0) * KEY_SCALE);
+        long lon = Math.round((longitude + 180.0) * KEY_SCALE);
+        return (lat << 32) | lon;
+    }
+
+    public static double keyLatitude(long key) {
+        return (key >>> 32) / KEY_SCALE - 90.0;
+    }
+
+    public static double keyLongitude(long key) {
+        return (key & 0xFFFFFFFFL) / KEY_SCALE - 180.0;
+    }
+}
@@ -0,0 +1,47 @@
+package com.neurofleetx.optimization;
+
+// Structure-of-arrays coordinate buffer for bulk distance kernels: latitudes and longitudes in
+// radians plus the cosine of each latitude, so a haversine row needs no per-pair conversion
+public final class GeoPoints {
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] cosLatitudes;
+
+    private GeoPoints(int size) {
+        this.latitudes = new double[size];
+        this.longitudes = new double[size];
+        this.cosLatitudes = new double[size];
+    }
+
+    // Coordinates in degrees
+    public static GeoPoints of(double[] latitudes, double[] longitudes) {
+        GeoPoints points = new GeoPoints(latitudes.length);
+        for (int i = 0; i < latitudes.length; i++) {
+            points.set(i, latitudes[i], longitudes[i]);
+        }
+        return points;
+    }
+
+    public int size() {
+        return latitudes.length;
+    }
+
+    double[] latitudes() {
+        return latitudes;
+    }
+
+    double[] longitudes() {
+        return longitudes;
+    }
+
+    double[] cosLatitudes() {
+        return cosLatitudes;
+    }
+
+    private void set(int index, double latitude, double longitude) {
+        latitudes[index] = Math.toRadians(latitude);
+        longitudes[index] = Math.toRadians(longitude);
+        cosLatitudes[index] = Math.cos(latitudes[index]);
+    }
+}
@@ -0,0 +1,36 @@
+package com.neurofleetx.optimization;
+
+// Haversine distances from one point to a range of points, the inner loop of distance matrix
+// construction and nearest-driver scans. GeoDistance.kernel() picks the implementation once per JVM.
+public interface HaversineKernel {
+
+    String name();
+
+    // Writes the distance in km from (latitude, longitude), in degrees, to points[from, to) into out starting at offset
+    void distancesKm(double latitude, double longitude, GeoPoints points, int from, int to, double[] out, int offset);
+
+    // "scalar", "vector", or "auto" for the vector kernel when the platform supports it
+    static HaversineKernel select(String mode) {
+        if ("scalar".equals(mode)) {
+            return new ScalarHaversineKernel();
+        }
+        boolean vectorModule = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+        if (vectorModule) {
+            try {
+                // Loaded reflectively so this class links without the incubator module
+                HaversineKernel vector = (HaversineKernel) Class.forName("com.neurofleetx.optimization.VectorHaversineKernel")
+                        .getDeclaredConstructor().newInstance();
+                if ("vector".equals(mode) || ((VectorHaversineKernel) vector).isAccelerated()) {
+                    return vector;
+                }
+            } catch (ReflectiveOperationException | LinkageError e) {
+                if ("vector".equals(mode)) {
+                    throw new IllegalStateException("Vector haversine kernel is unavailable", e);
+                }
+            }
+        } else if ("vector".equals(mode)) {
+            throw new IllegalStateException("Vector haversine kernel needs --add-modules jdk.incubator.vector");
+        }
+        return new ScalarHaversineKernel();
+    }
+}
@@ -0,0 +1,219 @@
+package com.neurofleetx.optimization;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+// Parallel multi-start iterated local search. K diversified searches run on the optimization pool in
+// epochs of RESTART_AFTER rounds; between epochs the best tour becomes the shared incumbent, and a
+// search that went stale while too far behind it restarts from it. Searches only see the incumbent
+// of the previous epoch, so for a given seed and start count the result is independent of thread
+// scheduling and core count.
+@Component
+public class MultiStartStrategy implements RouteOptimizationStrategy {
+
+    public static final String NAME = "Multi-Start Local Search";
+
+    // Searches when the request does not set a start count; fixed so results do not vary by host
+    public static final int DEFAULT_STARTS = 8;
+
+    private static final double RESTART_GAP = 0.03;
+    private static final int RESTART_AFTER = 20;
+    private static final int REPAIR_RADIUS = 3;
+    private static final long WORK_BUDGET = 30_000_000L;
+
+    @Autowired
+    private ForkJoinPool optimizationPool;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public TourSolution optimize(TourProblem problem) {
+        DistanceMatrix matrix = problem.getMatrix();
+        int n = matrix.size();
+        if (n < 4) {
+            return new TourSolution(matrix, problem.identityTour(), NAME);
+        }
+
+        int starts = problem.getStarts() > 0 ? problem.getStarts() : DEFAULT_STARTS;
+        // A round is one kick plus repairs around its three cut points, about 150 * n distance lookups
+        long rounds = Math.min(1000, Math.max(50, WORK_BUDGET / (150L * n)));
+
+        Search[] searches = new Search[starts];
+        for (int k = 0; k < starts; k++) {
+            searches[k] = new Search(problem, k);
+        }
+        runAll(searches, Search::start);
+        Search incumbent = best(searches);
+        double reported = incumbent.cost;
+        problem.reportProgress(reported);
+
+        Incumbent shared = new Incumbent(incumbent.current.clone(), incumbent.cost);
+        for (long done = 0; done < rounds && !problem.isExpired(); done += RESTART_AFTER) {
+            Incumbent epochIncumbent = shared;
+            int epochRounds = (int) Math.min(RESTART_AFTER, rounds - done);
+            runAll(searches, search -> search.run(epochRounds, epochIncumbent));
+            incumbent = best(searches);
+            if (incumbent.cost < shared.cost) {
+                shared = new Incumbent(incumbent.current.clone(), incumbent.cost);
+            }
+            if (shared.cost < reported) {
+                reported = shared.cost;
+                problem.reportProgress(reported);
+            }
+        }
+
+        // Local repairs only look near the kicks, so finish with a full pass
+        runAll(searches, Search::finish);
+        incumbent = best(searches);
+        int[] tour = incumbent.cost < shared.cost ? incumbent.current : shared.tour;
+        TourSolution solution = new TourSolution(matrix, tour, NAME);
+        if (solution.getDistance() < reported) {
+            problem.reportProgress(solution.getDistance());
+        }
+        return solution;
+    }
+
+    private void runAll(Search[] searches, Consumer<Search> step) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(searches.length);
+        for (Search search : searches) {
+            tasks.add(optimizationPool.submit(() -> step.accept(search)));
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    // Lowest cost, ties going to the lower start index
+    private static Search best(Search[] searches) {
+        Search best = searches[0];
+        for (Search search : searches) {
+            if (search.cost < best.cost) {
+                best = search;
+            }
+        }
+        return best;
+    }
+
+    private static final class Search {
+        private final TourProblem problem;
+        private final DistanceMatrix matrix;
+        private final int index;
+        private final SplittableRandom random;
+        private int[] current;
+        private double cost;
+        private int stale;
+
+        Search(TourProblem problem, int index) {
+            this.problem = problem;
+            this.matrix = problem.getMatrix();
+            this.index = index;
+            this.random = new SplittableRandom(problem.subSeed(-1, index));
+        }
+
+        // Diversify: the first search starts greedy, the others from randomized greedy paths
+        void start() {
+            current = index == 0 ? TourImprover.nearestNeighbor(matrix) : randomizedNearestNeighbor(matrix, random);
+            TourImprover.improve(matrix, current, problem);
+            cost = matrix.pathDistance(current);
+        }
+
+        void run(int rounds, Incumbent incumbent) {
+            for (int round = 0; round < rounds && !problem.isExpired(); round++) {
+                int[] candidate = current.clone();
+                for (int cut : doubleBridge(candidate, random)) {
+                    TourImprover.repair(matrix, candidate, cut, REPAIR_RADIUS, problem);
+                }
+                double candidateCost = matrix.pathDistance(candidate);
+                if (candidateCost < cost - 1e-9) {
+                    current = candidate;
+                    cost = candidateCost;
+                    stale = 0;
+                } else if (++stale >= RESTART_AFTER) {
+                    if (cost > incumbent.cost * (1 + RESTART_GAP)) {
+                        current = incumbent.tour.clone();
+                        cost = incumbent.cost;
+                    }
+                    stale = 0;
+                }
+            }
+        }
+
+        void finish() {
+            TourImprover.improve(matrix, current, problem);
+            cost = matrix.pathDistance(current);
+        }
+    }
+
+    // Greedy construction that picks randomly among the three nearest unvisited stops
+    private static int[] randomizedNearestNeighbor(DistanceMatrix matrix, SplittableRandom random) {
+        int n = matrix.size();
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        int[] nearest = new int[3];
+        for (int k = 1; k < n; k++) {
+            int current = tour[k - 1];
+            int found = 0;
+            for (int j = 1; j < n; j++) {
+                if (visited[j]) {
+                    continue;
+                }
+                int position = found < nearest.length ? found++ : nearest.length;
+                while (position > 0 && matrix.distance(current, j) < matrix.distance(current, nearest[position - 1])) {
+                    if (position < nearest.length) {
+                        nearest[position] = nearest[position - 1];
+                    }
+                    position--;
+                }
+                if (position < nearest.length) {
+                    nearest[position] = j;
+                }
+            }
+            int next = nearest[random.nextInt(found)];
+            tour[k] = next;
+            visited[next] = true;
+        }
+        return tour;
+    }
+
+    // Open-path double bridge: A B C D becomes A C B D, a move 2-opt cannot undo in one step.
+    // Returns the positions of the new segment boundaries.
+    private static int[] doubleBridge(int[] tour, SplittableRandom random) {
+        int n = tour.length;
+        if (n < 5) {
+            return new int[0];
+        }
+        int a = 1 + random.nextInt(n - 3);
+        int b = a + 1 + random.nextInt(n - a - 2);
+        int c = b + 1 + random.nextInt(n - b - 1);
+        int[] copy = tour.clone();
+        int position = a;
+        for (int i = b; i < c; i++) {
+            tour[position++] = copy[i];
+        }
+        for (int i = a; i < b; i++) {
+            tour[position++] = copy[i];
+        }
+        return new int[] {a, a + c - b, c};
+    }
+
+    private static final class Incumbent {
+        final int[] tour;
+        final double cost;
+
+        Incumbent(int[] tour, double cost) {
+            this.tour = tour;
+            this.cost = cost;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.neurofleetx.optimization;
+
+import org.springframework.stereotype.Component;
+
+// Greedy construction polished with 2-opt/Or-opt; the fast baseline for comparisons
+@Component
+public class NearestNeighborStrategy implements RouteOptimizationStrategy {
+
+    public static final String NAME = "Nearest Neighbor";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public TourSolution optimize(TourProblem problem) {
+        DistanceMatrix matrix = problem.getMatrix();
+        int[] tour = TourImprover.nearestNeighbor(matrix);
+        TourImprover.improve(matrix, tour, problem);
+        TourSolution solution = new TourSolution(matrix, tour, NAME);
+        problem.reportProgress(solution.getDistance());
+        return solution;
+    }
+}
@@ -0,0 +1,73 @@
+package com.neurofleetx.optimization;
+
+import java.util.Arrays;
+
+// Encoded polyline format (the Google Maps algorithm): each coordinate is stored as the zig-zag
+// varint of its delta from the previous point, at 1e-5 degree precision, in printable ASCII.
+public final class PolylineCodec {
+
+    private static final double SCALE = 1e5;
+
+    private PolylineCodec() {}
+
+    public static String encode(double[] latitudes, double[] longitudes) {
+        StringBuilder out = new StringBuilder(latitudes.length * 8);
+        long previousLat = 0;
+        long previousLon = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            long lat = Math.round(latitudes[i] * SCALE);
+            long lon = Math.round(longitudes[i] * SCALE);
+            writeValue(out, lat - previousLat);
+            writeValue(out, lon - previousLon);
+            previousLat = lat;
+            previousLon = lon;
+        }
+        return out.toString();
+    }
+
+    // Returns {latitudes, longitudes}
+    public static double[][] decode(String encoded) {
+        double[] latitudes = new double[Math.max(1, encoded.length() / 4)];
+        double[] longitudes = new double[latitudes.length];
+        int count = 0;
+        int[] position = {0};
+        long lat = 0;
+        long lon = 0;
+        while (position[0] < encoded.length()) {
+            lat += readValue(encoded, position);
+            lon += readValue(encoded, position);
+            if (count == latitudes.length) {
+                latitudes = Arrays.copyOf(latitudes, count * 2);
+                longitudes = Arrays.copyOf(longitudes, count * 2);
+            }
+            latitudes[count] = lat / SCALE;
+            longitudes[count] = lon / SCALE;
+            count++;
+        }
+        return new double[][] {Arrays.copyOf(latitudes, count), Arrays.copyOf(longitudes, count)};
+    }
+
+    private static void writeValue(StringBuilder out, long value) {
+        long bits = value < 0 ? ~(value << 1) : value << 1;
+        while (bits >= 0x20) {
+            out.append((char) ((0x20 | (bits & 0x1f)) + 63));
+            bits >>= 5;
+        }
+        out.append((char) (bits + 63));
+    }
+
+    private static long readValue(String encoded, int[] position) {
+        long result = 0;
+        int shift = 0;
+        int chunk;
+        do {
+            if (position[0] >= encoded.length()) {
+                throw new IllegalArgumentException("Truncated polyline");
+            }
+            chunk = encoded.charAt(position[0]++) - 63;
+            result |= (long) (chunk & 0x1f) << shift;
+            shift += 5;
+        } while (chunk >= 0x20);
+        return (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+    }
+}
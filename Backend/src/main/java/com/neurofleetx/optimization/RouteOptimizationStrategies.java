@@ -0,0 +1,49 @@
+package com.neurofleetx.optimization;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Resolves optimizationAlgorithm values to registered strategies
+@Component
+public class RouteOptimizationStrategies {
+
+    private final Map<String, RouteOptimizationStrategy> strategies = new LinkedHashMap<>();
+
+    @Value("${optimization.default-algorithm:" + GeneticAlgorithmStrategy.NAME + "}")
+    private String defaultAlgorithm;
+
+    public RouteOptimizationStrategies(List<RouteOptimizationStrategy> strategies) {
+        for (RouteOptimizationStrategy strategy : strategies) {
+            this.strategies.put(normalize(strategy.getName()), strategy);
+        }
+    }
+
+    public List<String> getNames() {
+        return strategies.values().stream().map(RouteOptimizationStrategy::getName).toList();
+    }
+
+    public boolean contains(String name) {
+        return name != null && strategies.containsKey(normalize(name));
+    }
+
+    // Unknown or missing names (including legacy labels such as "Dijkstra") fall back to the default
+    public RouteOptimizationStrategy resolve(String name) {
+        RouteOptimizationStrategy strategy = name == null ? null : strategies.get(normalize(name));
+        if (strategy == null) {
+            strategy = strategies.get(normalize(defaultAlgorithm));
+        }
+        if (strategy == null) {
+            throw new IllegalStateException("No route optimization strategy registered for " + defaultAlgorithm);
+        }
+        return strategy;
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+    }
+}
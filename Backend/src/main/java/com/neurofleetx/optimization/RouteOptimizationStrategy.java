@@ -0,0 +1,12 @@
+package com.neurofleetx.optimization;
+
+// Extension point for route optimization algorithms; implementations are discovered as Spring beans
+// and selected through RouteOptimization.optimizationAlgorithm
+public interface RouteOptimizationStrategy {
+
+    // Name stored in RouteOptimization.optimizationAlgorithm
+    String getName();
+
+    // Returns a visiting order that starts at index 0 and contains every stop exactly once
+    TourSolution optimize(TourProblem problem);
+}
@@ -0,0 +1,30 @@
+package com.neurofleetx.optimization;
+
+final class ScalarHaversineKernel implements HaversineKernel {
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public void distancesKm(double latitude, double longitude, GeoPoints points, int from, int to, double[] out, int offset) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        double[] latitudes = points.latitudes();
+        double[] longitudes = points.longitudes();
+        double[] cosLatitudes = points.cosLatitudes();
+        for (int i = from; i < to; i++) {
+            out[offset + i - from] = haversineKm(lat, lon, cosLat, latitudes[i], longitudes[i], cosLatitudes[i]);
+        }
+    }
+
+    // Same formula as GeoDistance.haversineKm with radians and cosines precomputed
+    static double haversineKm(double lat1, double lon1, double cosLat1, double lat2, double lon2, double cosLat2) {
+        double sinLat = Math.sin((lat2 - lat1) / 2);
+        double sinLon = Math.sin((lon2 - lon1) / 2);
+        double a = sinLat * sinLat + cosLat1 * cosLat2 * sinLon * sinLon;
+        return 2 * GeoDistance.EARTH_RADIUS_KM * Math.asin(Math.sqrt(Math.min(1.0, a)));
+    }
+}
@@ -0,0 +1,32 @@
+package com.neurofleetx.optimization;
+
+// Per-request solver settings, bound from query parameters
+public class SolveOptions {
+
+    private Long seed;
+    private Integer starts;
+    private Long timeLimitMillis;
+
+    public SolveOptions() {}
+
+    public Long getSeed() { return seed; }
+    public void setSeed(Long seed) { this.seed = seed; }
+
+    public Integer getStarts() { return starts; }
+    public void setStarts(Integer starts) { this.starts = starts; }
+
+    public Long getTimeLimitMillis() { return timeLimitMillis; }
+    public void setTimeLimitMillis(Long timeLimitMillis) { this.timeLimitMillis = timeLimitMillis; }
+
+    // Builds the problem, starting the wall-clock deadline now
+    public TourProblem toProblem(DistanceMatrix matrix) {
+        TourProblem problem = seed == null ? new TourProblem(matrix) : new TourProblem(matrix, seed);
+        if (starts != null && starts > 0) {
+            problem.setStarts(starts);
+        }
+        if (timeLimitMillis != null && timeLimitMillis > 0) {
+            problem.setDeadlineNanos(System.nanoTime() + timeLimitMillis * 1_000_000);
+        }
+        return problem;
+    }
+}
@@ -0,0 +1,291 @@
+package com.neurofleetx.optimization;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Vehicle routing with time windows. Every driver leaves its own start position at time 0 and
+// does not return; stops carry an [earliest, latest] window for the start of service and a
+// service time, all in minutes from the start of the planning horizon. Each route keeps the
+// service start times (forward) and the latest feasible start times (backward) of its stops,
+// which makes the feasibility check of any insertion O(1).
+public class TimeWindowRouter {
+
+    public static final String ALGORITHM = "Time Window Insertion";
+
+    private static final int MAX_PASSES = 50;
+
+    private static final double EPSILON = 1e-9;
+
+    private final int stops;
+    private final int drivers;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] earliest;
+    private final double[] latest;
+    private final double[] service;
+
+    private final List<Route> routes = new ArrayList<>();
+    private final int[] routeOf;
+
+    public static class DriverRoute {
+        private final int driver;
+        private final int[] stops;
+        private final double[] arrival;
+        private final double[] serviceStart;
+        private final double[] slack;
+        private final double distance;
+
+        DriverRoute(int driver, int[] stops, double[] arrival, double[] serviceStart, double[] slack, double distance) {
+            this.driver = driver;
+            this.stops = stops;
+            this.arrival = arrival;
+            this.serviceStart = serviceStart;
+            this.slack = slack;
+            this.distance = distance;
+        }
+
+        public int getDriver() { return driver; }
+
+        public int[] getStops() { return stops; }
+
+        public double[] getArrival() { return arrival; }
+
+        public double[] getServiceStart() { return serviceStart; }
+
+        // Minutes each service start can be pushed back without breaking a later window
+        public double[] getSlack() { return slack; }
+
+        public double getDistance() { return distance; }
+    }
+
+    public static class Result {
+        private final List<DriverRoute> routes;
+        private final int[] unassigned;
+
+        Result(List<DriverRoute> routes, int[] unassigned) {
+            this.routes = routes;
+            this.unassigned = unassigned;
+        }
+
+        public List<DriverRoute> getRoutes() { return routes; }
+
+        public int[] getUnassigned() { return unassigned; }
+    }
+
+    public TimeWindowRouter(double[] driverLatitudes, double[] driverLongitudes,
+                            double[] stopLatitudes, double[] stopLongitudes,
+                            double[] earliest, double[] latest, double[] service) {
+        this.stops = stopLatitudes.length;
+        this.drivers = driverLatitudes.length;
+        this.latitudes = new double[stops + drivers];
+        this.longitudes = new double[stops + drivers];
+        System.arraycopy(stopLatitudes, 0, latitudes, 0, stops);
+        System.arraycopy(stopLongitudes, 0, longitudes, 0, stops);
+        System.arraycopy(driverLatitudes, 0, latitudes, stops, drivers);
+        System.arraycopy(driverLongitudes, 0, longitudes, stops, drivers);
+        this.earliest = earliest;
+        this.latest = latest;
+        this.service = service;
+        this.routeOf = new int[stops];
+    }
+
+    public Result solve() {
+        routes.clear();
+        for (int d = 0; d < drivers; d++) {
+            routes.add(new Route(stops + d));
+        }
+        Arrays.fill(routeOf, -1);
+
+        // Tightest deadlines first, each at its cheapest feasible position
+        Integer[] order = new Integer[stops];
+        for (int i = 0; i < stops; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(latest[a], latest[b]));
+        for (int stop : order) {
+            insert(stop);
+        }
+
+        for (int pass = 0; pass < MAX_PASSES; pass++) {
+            boolean improved = false;
+            for (int stop = 0; stop < stops; stop++) {
+                if (routeOf[stop] >= 0) {
+                    improved |= relocate(stop);
+                } else {
+                    improved |= insert(stop);
+                }
+            }
+            if (!improved) {
+                break;
+            }
+        }
+
+        List<DriverRoute> result = new ArrayList<>();
+        List<Integer> unassigned = new ArrayList<>();
+        for (int d = 0; d < drivers; d++) {
+            Route route = routes.get(d);
+            if (route.size() == 0) {
+                continue;
+            }
+            int size = route.size();
+            int[] sequence = new int[size];
+            double[] arrival = new double[size];
+            double[] slack = new double[size];
+            double distance = 0;
+            for (int p = 0; p < size; p++) {
+                sequence[p] = route.stops.get(p);
+                arrival[p] = route.departure(p - 1) + travel(route.node(p - 1), sequence[p]);
+                slack[p] = route.latestStart[p] - route.begin[p];
+                distance += distance(route.node(p - 1), sequence[p]);
+            }
+            result.add(new DriverRoute(d, sequence, arrival, Arrays.copyOf(route.begin, size), slack, distance));
+        }
+        for (int stop = 0; stop < stops; stop++) {
+            if (routeOf[stop] < 0) {
+                unassigned.add(stop);
+            }
+        }
+        return new Result(result, unassigned.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    private double distance(int a, int b) {
+        return GeoDistance.haversineKm(latitudes[a], longitudes[a], latitudes[b], longitudes[b]);
+    }
+
+    private double travel(int a, int b) {
+        return distance(a, b) * GeoDistance.MINUTES_PER_KM;
+    }
+
+    // Extra distance of visiting stop between positions p-1 and p, or NaN when a window would break
+    private double insertionCost(Route route, int stop, int p) {
+        int before = route.node(p - 1);
+        double begin = Math.max(earliest[stop], route.departure(p - 1) + travel(before, stop));
+        if (begin > latest[stop]) {
+            return Double.NaN;
+        }
+        if (p == route.size()) {
+            return distance(before, stop);
+        }
+        int after = route.stops.get(p);
+        if (begin + service[stop] + travel(stop, after) > route.latestStart[p]) {
+            return Double.NaN;
+        }
+        return distance(before, stop) + distance(stop, after) - distance(before, after);
+    }
+
+    private boolean insert(int stop) {
+        int bestRoute = -1;
+        int bestPosition = -1;
+        double bestCost = Double.MAX_VALUE;
+        for (int r = 0; r < routes.size(); r++) {
+            Route route = routes.get(r);
+            for (int p = 0; p <= route.size(); p++) {
+                double cost = insertionCost(route, stop, p);
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    bestRoute = r;
+                    bestPosition = p;
+                }
+            }
+        }
+        if (bestRoute < 0) {
+            return false;
+        }
+        routes.get(bestRoute).add(bestPosition, stop);
+        routeOf[stop] = bestRoute;
+        return true;
+    }
+
+    // Moves a stop to another driver when that shortens the total distance; removing a stop never
+    // delays the rest of its route, so only the insertion side needs checking
+    private boolean relocate(int stop) {
+        int source = routeOf[stop];
+        Route from = routes.get(source);
+        int position = from.stops.indexOf(stop);
+        int before = from.node(position - 1);
+        double removalGain = distance(before, stop);
+        if (position + 1 < from.size()) {
+            int after = from.stops.get(position + 1);
+            removalGain += distance(stop, after) - distance(before, after);
+        }
+
+        int bestRoute = -1;
+        int bestPosition = -1;
+        double bestDelta = -EPSILON;
+        for (int r = 0; r < routes.size(); r++) {
+            if (r == source) {
+                continue;
+            }
+            Route route = routes.get(r);
+            for (int p = 0; p <= route.size(); p++) {
+                double delta = insertionCost(route, stop, p) - removalGain;
+                if (delta < bestDelta) {
+                    bestDelta = delta;
+                    bestRoute = r;
+                    bestPosition = p;
+                }
+            }
+        }
+        if (bestRoute < 0) {
+            return false;
+        }
+        from.remove(position);
+        routes.get(bestRoute).add(bestPosition, stop);
+        routeOf[stop] = bestRoute;
+        return true;
+    }
+
+    private class Route {
+        private final int start;
+        private final List<Integer> stops = new ArrayList<>();
+        private double[] begin = new double[0];
+        private double[] latestStart = new double[0];
+
+        Route(int start) {
+            this.start = start;
+        }
+
+        int size() {
+            return stops.size();
+        }
+
+        // Position -1 is the driver's start position
+        int node(int p) {
+            return p < 0 ? start : stops.get(p);
+        }
+
+        double departure(int p) {
+            return p < 0 ? 0.0 : begin[p] + service[stops.get(p)];
+        }
+
+        void add(int p, int stop) {
+            stops.add(p, stop);
+            refresh();
+        }
+
+        void remove(int p) {
+            stops.remove(p);
+            refresh();
+        }
+
+        // Recomputes service starts forward and latest feasible starts backward
+        private void refresh() {
+            int size = stops.size();
+            begin = new double[size];
+            latestStart = new double[size];
+            for (int p = 0; p < size; p++) {
+                int stop = stops.get(p);
+                begin[p] = Math.max(earliest[stop], departure(p - 1) + travel(node(p - 1), stop));
+            }
+            for (int p = size - 1; p >= 0; p--) {
+                int stop = stops.get(p);
+                latestStart[p] = latest[stop];
+                if (p + 1 < size) {
+                    int next = stops.get(p + 1);
+                    latestStart[p] = Math.min(latestStart[p], latestStart[p + 1] - service[stop] - travel(stop, next));
+                }
+            }
+        }
+    }
+}
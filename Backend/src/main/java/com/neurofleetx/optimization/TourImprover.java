@@ -0,0 +1,187 @@
+package com.neurofleetx.optimization;
+
+// Construction and local search helpers for open paths with a fixed start
+public final class TourImprover {
+
+    private static final double EPSILON = 1e-9;
+    private static final int MAX_SEGMENT = 3;
+
+    private TourImprover() {}
+
+    // Greedy nearest-neighbour path from index 0
+    public static int[] nearestNeighbor(DistanceMatrix matrix) {
+        int n = matrix.size();
+        int[] tour = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int k = 1; k < n; k++) {
+            int current = tour[k - 1];
+            int next = -1;
+            double best = Double.MAX_VALUE;
+            for (int j = 1; j < n; j++) {
+                if (!visited[j] && matrix.distance(current, j) < best) {
+                    best = matrix.distance(current, j);
+                    next = j;
+                }
+            }
+            tour[k] = next;
+            visited[next] = true;
+        }
+        return tour;
+    }
+
+    // 2-opt followed by Or-opt until neither finds an improving move; returns the distance saved
+    public static double improve(DistanceMatrix matrix, int[] tour, TourProblem problem) {
+        double saved = 0.0;
+        boolean improved = true;
+        while (improved && !problem.isExpired()) {
+            double twoOpt = twoOpt(matrix, tour, 0, tour.length, problem);
+            double orOpt = orOpt(matrix, tour, 0, tour.length, problem);
+            saved += twoOpt + orOpt;
+            improved = twoOpt > 0 || orOpt > 0;
+        }
+        return saved;
+    }
+
+    // Bounded repair: 2-opt and Or-opt moves that lie entirely within radius positions of center, so
+    // positions outside that window keep their stops and each pass costs O(radius^2)
+    public static double repair(DistanceMatrix matrix, int[] tour, int center, int radius, TourProblem problem) {
+        int from = Math.max(1, center - radius);
+        int to = Math.min(tour.length, center + radius + 1);
+        double saved = 0.0;
+        boolean improved = true;
+        while (improved && (problem == null || !problem.isExpired())) {
+            double twoOpt = twoOpt(matrix, tour, from, to, to, problem);
+            double orOpt = orOpt(matrix, tour, from, to, to, from - 1, to, problem);
+            saved += twoOpt + orOpt;
+            improved = twoOpt > 0 || orOpt > 0;
+        }
+        return saved;
+    }
+
+    // 2-opt restricted to segments that start in [from, to); position 0 never moves
+    public static double twoOpt(DistanceMatrix matrix, int[] tour, int from, int to, TourProblem problem) {
+        return twoOpt(matrix, tour, from, to, tour.length, problem);
+    }
+
+    // As above, with segments also ending before position end
+    private static double twoOpt(DistanceMatrix matrix, int[] tour, int from, int to, int end, TourProblem problem) {
+        int n = tour.length;
+        double saved = 0.0;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = Math.max(1, from); i < Math.min(to, n - 1); i++) {
+                if (problem != null && problem.isExpired()) {
+                    return saved;
+                }
+                int a = tour[i - 1];
+                int b = tour[i];
+                double ab = matrix.distance(a, b);
+                for (int j = i + 1; j < end; j++) {
+                    int c = tour[j];
+                    double delta = matrix.distance(a, c) - ab;
+                    if (j + 1 < n) {
+                        int d = tour[j + 1];
+                        delta += matrix.distance(b, d) - matrix.distance(c, d);
+                    }
+                    if (delta < -EPSILON) {
+                        reverse(tour, i, j);
+                        saved -= delta;
+                        improved = true;
+                        b = tour[i];
+                        ab = matrix.distance(a, b);
+                    }
+                }
+            }
+        }
+        return saved;
+    }
+
+    // Or-opt: relocate segments of up to three stops starting in [from, to)
+    public static double orOpt(DistanceMatrix matrix, int[] tour, int from, int to, TourProblem problem) {
+        return orOpt(matrix, tour, from, to, tour.length, 0, tour.length, problem);
+    }
+
+    // As above, with segments ending before position end and reinserted after a position in [low, high)
+    private static double orOpt(DistanceMatrix matrix, int[] tour, int from, int to, int end, int low, int high,
+                                TourProblem problem) {
+        double saved = 0.0;
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int length = 1; length <= MAX_SEGMENT; length++) {
+                for (int i = Math.max(1, from); i < Math.min(to, end - length + 1); i++) {
+                    if (problem != null && problem.isExpired()) {
+                        return saved;
+                    }
+                    double gain = bestRelocation(matrix, tour, i, length, low, high);
+                    if (gain > EPSILON) {
+                        saved += gain;
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return saved;
+    }
+
+    // Moves tour[i .. i+length) to its best position after some p in [low, high) if that shortens the
+    // path; returns the gain
+    private static double bestRelocation(DistanceMatrix matrix, int[] tour, int i, int length, int low, int high) {
+        int n = tour.length;
+        int prev = tour[i - 1];
+        int first = tour[i];
+        int last = tour[i + length - 1];
+        int next = i + length < n ? tour[i + length] : -1;
+
+        double removeGain = matrix.distance(prev, first);
+        if (next >= 0) {
+            removeGain += matrix.distance(last, next) - matrix.distance(prev, next);
+        }
+
+        double bestDelta = -EPSILON;
+        int bestPosition = -1;
+        for (int p = low; p < high; p++) {
+            if (p >= i - 1 && p < i + length) {
+                continue;
+            }
+            int q = p + 1 < n ? tour[p + 1] : -1;
+            double addCost = matrix.distance(tour[p], first);
+            if (q >= 0) {
+                addCost += matrix.distance(last, q) - matrix.distance(tour[p], q);
+            }
+            double delta = addCost - removeGain;
+            if (delta < bestDelta) {
+                bestDelta = delta;
+                bestPosition = p;
+            }
+        }
+        if (bestPosition < 0) {
+            return 0.0;
+        }
+        moveSegment(tour, i, length, bestPosition);
+        return -bestDelta;
+    }
+
+    // Moves tour[i .. i+length) so it follows the element currently at position p
+    public static void moveSegment(int[] tour, int i, int length, int p) {
+        int[] segment = new int[length];
+        System.arraycopy(tour, i, segment, 0, length);
+        if (p < i) {
+            System.arraycopy(tour, p + 1, tour, p + 1 + length, i - p - 1);
+            System.arraycopy(segment, 0, tour, p + 1, length);
+        } else {
+            System.arraycopy(tour, i + length, tour, i, p - i - length + 1);
+            System.arraycopy(segment, 0, tour, p - length + 1, length);
+        }
+    }
+
+    public static void reverse(int[] tour, int i, int j) {
+        while (i < j) {
+            int tmp = tour[i];
+            tour[i++] = tour[j];
+            tour[j--] = tmp;
+        }
+    }
+}
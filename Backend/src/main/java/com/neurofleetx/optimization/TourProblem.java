@@ -0,0 +1,66 @@
+package com.neurofleetx.optimization;
+
+import java.util.function.DoubleConsumer;
+
+// Open-path routing problem: index 0 is the fixed start, every other stop is visited once
+public class TourProblem {
+
+    public static final long DEFAULT_SEED = 0x9E3779B97F4A7C15L;
+
+    private final DistanceMatrix matrix;
+    private final long seed;
+    private long deadlineNanos; // 0 when the solver may use its full iteration budget
+    private int starts; // 0 lets multi-start solvers use their default (MultiStartStrategy.DEFAULT_STARTS)
+    private DoubleConsumer progressListener;
+
+    public TourProblem(DistanceMatrix matrix) {
+        this(matrix, DEFAULT_SEED);
+    }
+
+    public TourProblem(DistanceMatrix matrix, long seed) {
+        this.matrix = matrix;
+        this.seed = seed;
+    }
+
+    public DistanceMatrix getMatrix() { return matrix; }
+
+    public int size() { return matrix.size(); }
+
+    public long getSeed() { return seed; }
+
+    public long getDeadlineNanos() { return deadlineNanos; }
+    public void setDeadlineNanos(long deadlineNanos) { this.deadlineNanos = deadlineNanos; }
+
+    public int getStarts() { return starts; }
+    public void setStarts(int starts) { this.starts = starts; }
+
+    public void setProgressListener(DoubleConsumer progressListener) { this.progressListener = progressListener; }
+
+    // Strategies call this whenever their best path distance improves; may be called from any thread
+    public void reportProgress(double bestDistance) {
+        if (progressListener != null) {
+            progressListener.accept(bestDistance);
+        }
+    }
+
+    public boolean isExpired() {
+        return deadlineNanos != 0 && System.nanoTime() - deadlineNanos >= 0;
+    }
+
+    // Derives an independent stream seed so parallel work stays reproducible regardless of scheduling
+    public long subSeed(long a, long b) {
+        long z = seed + 0x9E3779B97F4A7C15L * (a + 1) + 0xBF58476D1CE4E5B9L * (b + 1);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // The tour in which the stops were submitted
+    public int[] identityTour() {
+        int[] tour = new int[size()];
+        for (int i = 0; i < tour.length; i++) {
+            tour[i] = i;
+        }
+        return tour;
+    }
+}
@@ -0,0 +1,28 @@
+package com.neurofleetx.optimization;
+
+public class TourSolution {
+
+    private final int[] tour;
+    private final double distance;
+    private final double duration;
+    private final String algorithm;
+    private long elapsedMillis;
+
+    public TourSolution(DistanceMatrix matrix, int[] tour, String algorithm) {
+        this.tour = tour;
+        this.distance = matrix.pathDistance(tour);
+        this.duration = matrix.pathDuration(tour);
+        this.algorithm = algorithm;
+    }
+
+    public int[] getTour() { return tour; }
+
+    public double getDistance() { return distance; }
+
+    public double getDuration() { return duration; }
+
+    public String getAlgorithm() { return algorithm; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+}
@@ -0,0 +1,51 @@
+package com.neurofleetx.optimization;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// SIMD haversine over the preferred vector width of the CPU; the tail that does not fill a
+// whole vector goes through the scalar formula. Only referenced reflectively, see HaversineKernel.select.
+final class VectorHaversineKernel implements HaversineKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // A single lane means no SIMD support, where the scalar loop is faster
+    boolean isAccelerated() {
+        return SPECIES.length() > 1;
+    }
+
+    @Override
+    public String name() {
+        return "vector-" + SPECIES.vectorBitSize();
+    }
+
+    @Override
+    public void distancesKm(double latitude, double longitude, GeoPoints points, int from, int to, double[] out, int offset) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        double[] latitudes = points.latitudes();
+        double[] longitudes = points.longitudes();
+        double[] cosLatitudes = points.cosLatitudes();
+
+        int i = from;
+        int upper = from + SPECIES.loopBound(to - from);
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector sinLat = DoubleVector.fromArray(SPECIES, latitudes, i)
+                    .sub(lat).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector sinLon = DoubleVector.fromArray(SPECIES, longitudes, i)
+                    .sub(lon).mul(0.5).lanewise(VectorOperators.SIN);
+            DoubleVector a = DoubleVector.fromArray(SPECIES, cosLatitudes, i).mul(cosLat)
+                    .mul(sinLon).mul(sinLon)
+                    .add(sinLat.mul(sinLat));
+            a.min(1.0).sqrt().lanewise(VectorOperators.ASIN)
+                    .mul(2 * GeoDistance.EARTH_RADIUS_KM)
+                    .intoArray(out, offset + i - from);
+        }
+        for (; i < to; i++) {
+            out[offset + i - from] = ScalarHaversineKernel.haversineKm(lat, lon, cosLat,
+                    latitudes[i], longitudes[i], cosLatitudes[i]);
+        }
+    }
+}
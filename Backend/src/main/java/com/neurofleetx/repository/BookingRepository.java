@@ -1,11 +1,13 @@
 package com.neurofleetx.repository;
 
 import com.neurofleetx.entity.Booking;
+import com.neurofleetx.entity.BookingStatus;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,11 +17,17 @@ public interface BookingRepository extends MongoRepository<Booking, String> {
     
     List<Booking> findByVehicleId(String vehicleId);
     
-    List<Booking> findByStatus(String status);
+    List<Booking> findByStatus(BookingStatus status);
     
-    List<Booking> findByUserIdAndStatus(String userId, String status);
+    List<Booking> findByStatusIn(Collection<BookingStatus> statuses);
     
-    List<Booking> findByVehicleIdAndStatus(String vehicleId, String status);
+    List<Booking> findByUserIdAndStatus(String userId, BookingStatus status);
+    
+    List<Booking> findByVehicleIdAndStatus(String vehicleId, BookingStatus status);
+    
+    // Bookings of a vehicle in the given statuses that end after the time, served by the
+    // (vehicleId, status, endDate) index
+    List<Booking> findByVehicleIdAndStatusInAndEndDateAfterOrderByStartDateAsc(String vehicleId, Collection<BookingStatus> statuses, LocalDateTime time);
     
     List<Booking> findByAssignedDriverId(String driverId);
     
@@ -30,6 +38,23 @@ public interface BookingRepository extends MongoRepository<Booking, String> {
            "'startDate': { $lt: ?2 }, 'endDate': { $gt: ?1 } }")
     List<Booking> findConflictingBookings(String vehicleId, LocalDateTime startDate, LocalDateTime endDate);
     
+    // Blocking bookings of any vehicle that overlap the period
+    @Query("{ 'status': { $in: ['pending', 'confirmed', 'active'] }, " +
+           "'startDate': { $lt: ?1 }, 'endDate': { $gt: ?0 } }")
+    List<Booking> findOverlappingBookings(LocalDateTime startDate, LocalDateTime endDate);
+    
+    // Blocking bookings of the given vehicles that overlap the period
+    @Query("{ 'vehicleId': { $in: ?0 }, 'status': { $in: ['pending', 'confirmed', 'active'] }, " +
+           "'startDate': { $lt: ?2 }, 'endDate': { $gt: ?1 } }")
+    List<Booking> findOverlappingBookingsForVehicles(Collection<String> vehicleIds, LocalDateTime startDate, LocalDateTime endDate);
+    
+    // Confirmed bookings starting or ending within the given ranges, served by the status_start and
+    // status_end indexes
+    @Query("{ 'status': 'confirmed', $or: [ { 'startDate': { $gte: ?0, $lte: ?1 } }, " +
+           "{ 'endDate': { $gte: ?2, $lte: ?3 } } ] }")
+    List<Booking> findConfirmedStartingOrEndingWithin(LocalDateTime startFrom, LocalDateTime startTo,
+                                                      LocalDateTime endFrom, LocalDateTime endTo);
+    
     // Find upcoming bookings
     @Query("{ 'userId': ?0, 'startDate': { $gte: ?1 }, 'status': { $in: ['pending', 'confirmed'] } }")
     List<Booking> findUpcomingBookings(String userId, LocalDateTime now);
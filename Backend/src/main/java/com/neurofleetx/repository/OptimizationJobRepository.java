@@ -0,0 +1,14 @@
+package com.neurofleetx.repository;
+
+import com.neurofleetx.entity.OptimizationJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OptimizationJobRepository extends MongoRepository<OptimizationJob, String> {
+    List<OptimizationJob> findByStatus(String status);
+    List<OptimizationJob> findByStatusIn(Collection<String> statuses);
+    List<OptimizationJob> findByRouteOptimizationId(String routeOptimizationId);
+}
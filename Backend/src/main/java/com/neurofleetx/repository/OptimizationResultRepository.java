@@ -0,0 +1,9 @@
+package com.neurofleetx.repository;
+
+import com.neurofleetx.entity.OptimizationResult;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OptimizationResultRepository extends MongoRepository<OptimizationResult, String> {
+}
@@ -0,0 +1,121 @@
+package com.neurofleetx.routing;
+
+import java.util.Arrays;
+
+// Reusable search state over a contraction hierarchy. Not thread-safe: each thread keeps its own.
+final class ChSearch {
+
+    private final ContractedGraph graph;
+    private final Side forwardSide;
+    private final Side backwardSide;
+
+    // Nodes settled by the last exhaustive upward search, with their travel time and length
+    int settledCount;
+    int[] settledNodes = new int[256];
+    int[] settledWeights = new int[256];
+    int[] settledLengths = new int[256];
+
+    private static final class Side {
+        private final int[] weight;
+        private final int[] length;
+        private final int[] stamp;
+        private int version;
+        private final MinHeap heap;
+
+        Side(int n) {
+            weight = new int[n];
+            length = new int[n];
+            stamp = new int[n];
+            heap = new MinHeap(n);
+        }
+
+        void reset(int source) {
+            version++;
+            heap.clear();
+            stamp[source] = version;
+            weight[source] = 0;
+            length[source] = 0;
+            heap.push(source, 0);
+        }
+
+        boolean reached(int node) {
+            return stamp[node] == version;
+        }
+
+        // Relaxes the upward edges of a settled node
+        void relax(ContractedGraph.Upward up, int node) {
+            int base = weight[node];
+            int baseLength = length[node];
+            for (int e = up.firstOut(node), end = up.firstOut(node + 1); e < end; e++) {
+                int next = up.head(e);
+                int candidate = base + up.weight(e);
+                if (stamp[next] != version || candidate < weight[next]) {
+                    stamp[next] = version;
+                    weight[next] = candidate;
+                    length[next] = baseLength + up.length(e);
+                    heap.push(next, candidate);
+                }
+            }
+        }
+    }
+
+    ChSearch(ContractedGraph graph) {
+        this.graph = graph;
+        this.forwardSide = new Side(graph.nodeCount());
+        this.backwardSide = new Side(graph.nodeCount());
+    }
+
+    // Shortest travel time from source to target as {milliseconds, meters}, or null if unreachable
+    int[] query(int source, int target) {
+        if (source == target) {
+            return new int[] {0, 0};
+        }
+        forwardSide.reset(source);
+        backwardSide.reset(target);
+        int best = Integer.MAX_VALUE;
+        int bestLength = 0;
+        boolean forwardTurn = true;
+        while (true) {
+            boolean forwardOpen = !forwardSide.heap.isEmpty() && forwardSide.heap.peekKey() < best;
+            boolean backwardOpen = !backwardSide.heap.isEmpty() && backwardSide.heap.peekKey() < best;
+            if (!forwardOpen && !backwardOpen) {
+                break;
+            }
+            boolean forward = forwardOpen && (forwardTurn || !backwardOpen);
+            forwardTurn = !forwardTurn;
+            Side side = forward ? forwardSide : backwardSide;
+            Side other = forward ? backwardSide : forwardSide;
+            int node = side.heap.pop();
+            if (other.reached(node)) {
+                int total = side.weight[node] + other.weight[node];
+                if (total < best) {
+                    best = total;
+                    bestLength = side.length[node] + other.length[node];
+                }
+            }
+            side.relax(forward ? graph.forward() : graph.backward(), node);
+        }
+        return best == Integer.MAX_VALUE ? null : new int[] {best, bestLength};
+    }
+
+    // Exhaustive upward search from source; results are left in the settled arrays
+    void searchUp(int source, boolean forward) {
+        Side side = forward ? forwardSide : backwardSide;
+        ContractedGraph.Upward up = forward ? graph.forward() : graph.backward();
+        side.reset(source);
+        settledCount = 0;
+        while (!side.heap.isEmpty()) {
+            int node = side.heap.pop();
+            if (settledCount == settledNodes.length) {
+                settledNodes = Arrays.copyOf(settledNodes, settledCount * 2);
+                settledWeights = Arrays.copyOf(settledWeights, settledCount * 2);
+                settledLengths = Arrays.copyOf(settledLengths, settledCount * 2);
+            }
+            settledNodes[settledCount] = node;
+            settledWeights[settledCount] = side.weight[node];
+            settledLengths[settledCount] = side.length[node];
+            settledCount++;
+            side.relax(up, node);
+        }
+    }
+}
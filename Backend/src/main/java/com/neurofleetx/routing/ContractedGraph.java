@@ -0,0 +1,169 @@
+package com.neurofleetx.routing;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Contraction hierarchy as two upward CSR graphs. The forward graph holds edges v -> w with
+// rank(w) > rank(v) stored at v; the backward graph holds edges w -> v with rank(w) > rank(v)
+// stored at v, so both searches of a query only ever move up the hierarchy.
+//
+// The arrays live in a flat file that is memory-mapped read-only, so opening a preprocessed
+// graph costs one mmap call and pages are loaded on demand.
+public final class ContractedGraph {
+
+    private static final int MAGIC = 0x4E464348; // "NFCH"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5 * Integer.BYTES;
+
+    private final int nodeCount;
+    private final FloatBuffer latitudes;
+    private final FloatBuffer longitudes;
+    private final Upward forward;
+    private final Upward backward;
+
+    // One direction of the hierarchy
+    public static final class Upward {
+        private final IntBuffer firstOut;
+        private final IntBuffer head;
+        private final IntBuffer weight;
+        private final IntBuffer length;
+
+        Upward(IntBuffer firstOut, IntBuffer head, IntBuffer weight, IntBuffer length) {
+            this.firstOut = firstOut;
+            this.head = head;
+            this.weight = weight;
+            this.length = length;
+        }
+
+        int firstOut(int node) { return firstOut.get(node); }
+
+        int head(int edge) { return head.get(edge); }
+
+        int weight(int edge) { return weight.get(edge); }
+
+        int length(int edge) { return length.get(edge); }
+
+        int edgeCount() { return head.limit(); }
+    }
+
+    private ContractedGraph(int nodeCount, FloatBuffer latitudes, FloatBuffer longitudes,
+                            Upward forward, Upward backward) {
+        this.nodeCount = nodeCount;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.forward = forward;
+        this.backward = backward;
+    }
+
+    public int nodeCount() { return nodeCount; }
+
+    public int edgeCount() { return forward.edgeCount() + backward.edgeCount(); }
+
+    public double latitude(int node) { return latitudes.get(node); }
+
+    public double longitude(int node) { return longitudes.get(node); }
+
+    Upward forward() { return forward; }
+
+    Upward backward() { return backward; }
+
+    // Writes the hierarchy atomically: a temporary file is renamed over the target when complete
+    static void write(Path path, float[] latitudes, float[] longitudes,
+                      int[][] forward, int[][] backward) throws IOException {
+        int n = latitudes.length;
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(forward[1].length).putInt(backward[1].length);
+            writeFully(channel, header.flip());
+            writeFloats(channel, latitudes);
+            writeFloats(channel, longitudes);
+            for (int[] array : forward) {
+                writeInts(channel, array);
+            }
+            for (int[] array : backward) {
+                writeInts(channel, array);
+            }
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static ContractedGraph open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Contracted graph larger than 2 GB is not supported: " + path);
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            if (mapped.getInt(0) != MAGIC || mapped.getInt(4) != VERSION) {
+                throw new IOException("Not a contracted graph file: " + path);
+            }
+            int n = mapped.getInt(8);
+            int forwardEdges = mapped.getInt(12);
+            int backwardEdges = mapped.getInt(16);
+            long expected = HEADER_BYTES + 4L * (2L * n + 2L * (n + 1) + 3L * forwardEdges + 3L * backwardEdges);
+            if (channel.size() != expected) {
+                throw new IOException("Truncated contracted graph file: " + path);
+            }
+
+            int[] offset = {HEADER_BYTES};
+            FloatBuffer latitudes = slice(mapped, offset, n).asFloatBuffer();
+            FloatBuffer longitudes = slice(mapped, offset, n).asFloatBuffer();
+            Upward forward = new Upward(ints(mapped, offset, n + 1), ints(mapped, offset, forwardEdges),
+                    ints(mapped, offset, forwardEdges), ints(mapped, offset, forwardEdges));
+            Upward backward = new Upward(ints(mapped, offset, n + 1), ints(mapped, offset, backwardEdges),
+                    ints(mapped, offset, backwardEdges), ints(mapped, offset, backwardEdges));
+            return new ContractedGraph(n, latitudes, longitudes, forward, backward);
+        }
+    }
+
+    private static ByteBuffer slice(MappedByteBuffer mapped, int[] offset, int count) {
+        ByteBuffer slice = mapped.slice(offset[0], count * 4).order(ByteOrder.LITTLE_ENDIAN);
+        offset[0] += count * 4;
+        return slice;
+    }
+
+    private static IntBuffer ints(MappedByteBuffer mapped, int[] offset, int count) {
+        return slice(mapped, offset, count).asIntBuffer();
+    }
+
+    private static void writeInts(FileChannel channel, int[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        for (int value : values) {
+            if (!buffer.hasRemaining()) {
+                writeFully(channel, buffer.flip());
+                buffer.clear();
+            }
+            buffer.putInt(value);
+        }
+        writeFully(channel, buffer.flip());
+    }
+
+    private static void writeFloats(FileChannel channel, float[] values) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        for (float value : values) {
+            if (!buffer.hasRemaining()) {
+                writeFully(channel, buffer.flip());
+                buffer.clear();
+            }
+            buffer.putFloat(value);
+        }
+        writeFully(channel, buffer.flip());
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
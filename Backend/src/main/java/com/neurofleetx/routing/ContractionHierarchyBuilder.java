@@ -0,0 +1,327 @@
+package com.neurofleetx.routing;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+// Preprocesses a road graph into a contraction hierarchy. Nodes are contracted in order of
+// edge difference plus contracted-neighbor count, using lazy priority updates; a shortcut
+// u -> w is added around a contracted node v unless a bounded witness search finds a path
+// u -> w avoiding v that is no longer. Missing a witness only costs an extra shortcut, so the
+// search limit trades preprocessing time against hierarchy size, never correctness.
+public final class ContractionHierarchyBuilder {
+
+    // Settled-node budget of a witness search when contracting, and when only estimating priority
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int PRIORITY_SETTLE_LIMIT = 50;
+
+    private final int n;
+    private final DynamicGraph graph;
+    private final int[] contractedNeighbors;
+    private final int[] level;
+
+    // Upward edges emitted as nodes are contracted, per direction
+    private final EdgeList forward = new EdgeList();
+    private final EdgeList backward = new EdgeList();
+
+    // Witness search state, reset lazily by version stamps
+    private final int[] witnessDistance;
+    private final int[] witnessVersion;
+    private int version;
+    private final MinHeap witnessHeap;
+    private final int[] targetVersion;
+
+    private ContractionHierarchyBuilder(RoadGraph road) {
+        this.n = road.nodeCount();
+        this.graph = new DynamicGraph(road);
+        this.contractedNeighbors = new int[n];
+        this.level = new int[n];
+        this.witnessDistance = new int[n];
+        this.witnessVersion = new int[n];
+        this.witnessHeap = new MinHeap(n);
+        this.targetVersion = new int[n];
+    }
+
+    // Contracts the graph and writes the hierarchy to the given file
+    public static void build(RoadGraph road, Path output) throws IOException {
+        ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder(road);
+        builder.contractAll();
+        ContractedGraph.write(output, road.latitudes(), road.longitudes(),
+                builder.forward.toCsr(builder.n), builder.backward.toCsr(builder.n));
+    }
+
+    private void contractAll() {
+        MinHeap queue = new MinHeap(n);
+        for (int v = 0; v < n; v++) {
+            queue.push(v, priority(v));
+        }
+        while (!queue.isEmpty()) {
+            int v = queue.pop();
+            // Lazy update: re-evaluate and defer if the node is no longer the cheapest
+            int current = priority(v);
+            if (!queue.isEmpty() && current > queue.peekKey()) {
+                queue.push(v, current);
+                continue;
+            }
+            contract(v, false);
+
+            int[] neighbors = graph.neighbors(v);
+            graph.detach(v);
+            for (int w : neighbors) {
+                contractedNeighbors[w]++;
+                level[w] = Math.max(level[w], level[v] + 1);
+                queue.push(w, priority(w));
+            }
+        }
+    }
+
+    private int priority(int v) {
+        int shortcuts = contract(v, true);
+        int removed = graph.outSize[v] + graph.inSize[v];
+        return 2 * (shortcuts - removed) + contractedNeighbors[v] + level[v];
+    }
+
+    // Adds (or, when simulating, counts) the shortcuts needed to contract v
+    private int contract(int v, boolean simulate) {
+        int shortcuts = 0;
+        if (!simulate) {
+            for (int i = 0; i < graph.outSize[v]; i++) {
+                forward.add(v, graph.outTo[v][i], graph.outWeight[v][i], graph.outLength[v][i]);
+            }
+            for (int i = 0; i < graph.inSize[v]; i++) {
+                backward.add(v, graph.inFrom[v][i], graph.inWeight[v][i], graph.inLength[v][i]);
+            }
+        }
+        int maxOut = 0;
+        for (int i = 0; i < graph.outSize[v]; i++) {
+            maxOut = Math.max(maxOut, graph.outWeight[v][i]);
+        }
+        for (int i = 0; i < graph.inSize[v]; i++) {
+            int u = graph.inFrom[v][i];
+            int toV = graph.inWeight[v][i];
+            witnessSearch(u, v, toV + maxOut, simulate ? PRIORITY_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+            for (int j = 0; j < graph.outSize[v]; j++) {
+                int w = graph.outTo[v][j];
+                if (w == u) {
+                    continue;
+                }
+                int via = toV + graph.outWeight[v][j];
+                if (distanceTo(w) <= via) {
+                    continue;
+                }
+                shortcuts++;
+                if (!simulate) {
+                    graph.addEdge(u, w, via, graph.inLength[v][i] + graph.outLength[v][j]);
+                }
+            }
+        }
+        return shortcuts;
+    }
+
+    // Bounded Dijkstra from source over the remaining graph, skipping the node being contracted;
+    // stops early once every out-neighbor of the skipped node is settled
+    private void witnessSearch(int source, int skipped, int limit, int settleLimit) {
+        version++;
+        int targets = 0;
+        for (int i = 0; i < graph.outSize[skipped]; i++) {
+            int w = graph.outTo[skipped][i];
+            if (w != source && targetVersion[w] != version) {
+                targetVersion[w] = version;
+                targets++;
+            }
+        }
+        witnessHeap.clear();
+        witnessVersion[source] = version;
+        witnessDistance[source] = 0;
+        witnessHeap.push(source, 0);
+        int settled = 0;
+        while (!witnessHeap.isEmpty() && settled < settleLimit && targets > 0) {
+            int distance = witnessHeap.peekKey();
+            if (distance > limit) {
+                break;
+            }
+            int x = witnessHeap.pop();
+            settled++;
+            if (targetVersion[x] == version) {
+                targets--;
+            }
+            for (int i = 0; i < graph.outSize[x]; i++) {
+                int y = graph.outTo[x][i];
+                if (y == skipped) {
+                    continue;
+                }
+                int candidate = distance + graph.outWeight[x][i];
+                if (witnessVersion[y] != version || candidate < witnessDistance[y]) {
+                    witnessVersion[y] = version;
+                    witnessDistance[y] = candidate;
+                    witnessHeap.push(y, candidate);
+                }
+            }
+        }
+    }
+
+    private int distanceTo(int node) {
+        return witnessVersion[node] == version ? witnessDistance[node] : Integer.MAX_VALUE;
+    }
+
+    // Adjacency of the not yet contracted part of the graph, in both directions
+    private static final class DynamicGraph {
+        private final int[][] outTo;
+        private final int[][] outWeight;
+        private final int[][] outLength;
+        private final int[] outSize;
+        private final int[][] inFrom;
+        private final int[][] inWeight;
+        private final int[][] inLength;
+        private final int[] inSize;
+
+        DynamicGraph(RoadGraph road) {
+            int n = road.nodeCount();
+            outTo = new int[n][];
+            outWeight = new int[n][];
+            outLength = new int[n][];
+            outSize = new int[n];
+            inFrom = new int[n][];
+            inWeight = new int[n][];
+            inLength = new int[n][];
+            inSize = new int[n];
+            int[] inDegree = new int[n];
+            for (int e = 0; e < road.edgeCount(); e++) {
+                inDegree[road.head(e)]++;
+            }
+            for (int v = 0; v < n; v++) {
+                int degree = road.firstOut(v + 1) - road.firstOut(v);
+                outTo[v] = new int[Math.max(2, degree)];
+                outWeight[v] = new int[outTo[v].length];
+                outLength[v] = new int[outTo[v].length];
+                inFrom[v] = new int[Math.max(2, inDegree[v])];
+                inWeight[v] = new int[inFrom[v].length];
+                inLength[v] = new int[inFrom[v].length];
+            }
+            for (int v = 0; v < n; v++) {
+                for (int e = road.firstOut(v); e < road.firstOut(v + 1); e++) {
+                    addEdge(v, road.head(e), road.weight(e), road.length(e));
+                }
+            }
+        }
+
+        // Adds u -> w, or lowers the weight of an existing u -> w edge
+        void addEdge(int u, int w, int weight, int length) {
+            for (int i = 0; i < outSize[u]; i++) {
+                if (outTo[u][i] == w) {
+                    if (weight < outWeight[u][i]) {
+                        outWeight[u][i] = weight;
+                        outLength[u][i] = length;
+                        for (int j = 0; j < inSize[w]; j++) {
+                            if (inFrom[w][j] == u) {
+                                inWeight[w][j] = weight;
+                                inLength[w][j] = length;
+                                break;
+                            }
+                        }
+                    }
+                    return;
+                }
+            }
+            if (outSize[u] == outTo[u].length) {
+                int capacity = outTo[u].length * 2;
+                outTo[u] = Arrays.copyOf(outTo[u], capacity);
+                outWeight[u] = Arrays.copyOf(outWeight[u], capacity);
+                outLength[u] = Arrays.copyOf(outLength[u], capacity);
+            }
+            outTo[u][outSize[u]] = w;
+            outWeight[u][outSize[u]] = weight;
+            outLength[u][outSize[u]] = length;
+            outSize[u]++;
+            if (inSize[w] == inFrom[w].length) {
+                int capacity = inFrom[w].length * 2;
+                inFrom[w] = Arrays.copyOf(inFrom[w], capacity);
+                inWeight[w] = Arrays.copyOf(inWeight[w], capacity);
+                inLength[w] = Arrays.copyOf(inLength[w], capacity);
+            }
+            inFrom[w][inSize[w]] = u;
+            inWeight[w][inSize[w]] = weight;
+            inLength[w][inSize[w]] = length;
+            inSize[w]++;
+        }
+
+        int[] neighbors(int v) {
+            int[] all = new int[outSize[v] + inSize[v]];
+            System.arraycopy(outTo[v], 0, all, 0, outSize[v]);
+            System.arraycopy(inFrom[v], 0, all, outSize[v], inSize[v]);
+            return Arrays.stream(all).distinct().toArray();
+        }
+
+        // Removes every edge incident to v and releases its lists
+        void detach(int v) {
+            for (int i = 0; i < outSize[v]; i++) {
+                int w = outTo[v][i];
+                removeAt(inFrom[w], inWeight[w], inLength[w], inSize, w, v);
+            }
+            for (int i = 0; i < inSize[v]; i++) {
+                int u = inFrom[v][i];
+                removeAt(outTo[u], outWeight[u], outLength[u], outSize, u, v);
+            }
+            outSize[v] = 0;
+            inSize[v] = 0;
+            outTo[v] = outWeight[v] = outLength[v] = new int[0];
+            inFrom[v] = inWeight[v] = inLength[v] = new int[0];
+        }
+
+        private static void removeAt(int[] nodes, int[] weights, int[] lengths, int[] sizes, int owner, int node) {
+            for (int i = 0; i < sizes[owner]; i++) {
+                if (nodes[i] == node) {
+                    int last = --sizes[owner];
+                    nodes[i] = nodes[last];
+                    weights[i] = weights[last];
+                    lengths[i] = lengths[last];
+                    return;
+                }
+            }
+        }
+    }
+
+    // Growable edge list turned into CSR arrays {firstOut, head, weight, length}
+    private static final class EdgeList {
+        private int[] tail = new int[1024];
+        private int[] head = new int[1024];
+        private int[] weight = new int[1024];
+        private int[] length = new int[1024];
+        private int size;
+
+        void add(int from, int to, int w, int len) {
+            if (size == tail.length) {
+                tail = Arrays.copyOf(tail, size * 2);
+                head = Arrays.copyOf(head, size * 2);
+                weight = Arrays.copyOf(weight, size * 2);
+                length = Arrays.copyOf(length, size * 2);
+            }
+            tail[size] = from;
+            head[size] = to;
+            weight[size] = w;
+            length[size] = len;
+            size++;
+        }
+
+        int[][] toCsr(int n) {
+            int[] firstOut = new int[n + 1];
+            for (int e = 0; e < size; e++) {
+                firstOut[tail[e] + 1]++;
+            }
+            for (int v = 0; v < n; v++) {
+                firstOut[v + 1] += firstOut[v];
+            }
+            int[] fill = Arrays.copyOf(firstOut, n);
+            int[] heads = new int[size];
+            int[] weights = new int[size];
+            int[] lengths = new int[size];
+            for (int e = 0; e < size; e++) {
+                int slot = fill[tail[e]]++;
+                heads[slot] = head[e];
+                weights[slot] = weight[e];
+                lengths[slot] = length[e];
+            }
+            return new int[][] {firstOut, heads, weights, lengths};
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.neurofleetx.routing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Reads a road network from a plain-text edge list:
+//
+//   # comment
+//   v <nodeId> <latitude> <longitude>
+//   e <fromId> <toId> <lengthMeters> [speedKmh] [oneway]
+//
+// Node ids are arbitrary longs and nodes must be declared before the edges that use them.
+// Edges are two-way unless the last column is 1; a missing or zero speed uses the default.
+public final class EdgeListLoader {
+
+    public static final double DEFAULT_SPEED_KMH = 30.0;
+
+    private EdgeListLoader() {}
+
+    public static RoadGraph load(Path path) throws IOException {
+        Map<Long, Integer> index = new HashMap<>();
+        float[] latitudes = new float[1024];
+        float[] longitudes = new float[1024];
+        int nodes = 0;
+        int[] tails = new int[4096];
+        int[] heads = new int[4096];
+        int[] weights = new int[4096];
+        int[] lengths = new int[4096];
+        int edges = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                try {
+                    if ("v".equals(fields[0])) {
+                        if (nodes == latitudes.length) {
+                            latitudes = Arrays.copyOf(latitudes, nodes * 2);
+                            longitudes = Arrays.copyOf(longitudes, nodes * 2);
+                        }
+                        if (index.putIfAbsent(Long.parseLong(fields[1]), nodes) != null) {
+                            throw new IOException("Duplicate node " + fields[1] + " on line " + lineNumber);
+                        }
+                        latitudes[nodes] = Float.parseFloat(fields[2]);
+                        longitudes[nodes] = Float.parseFloat(fields[3]);
+                        nodes++;
+                    } else if ("e".equals(fields[0])) {
+                        Integer from = index.get(Long.parseLong(fields[1]));
+                        Integer to = index.get(Long.parseLong(fields[2]));
+                        if (from == null || to == null) {
+                            throw new IOException("Edge on line " + lineNumber + " references an undeclared node");
+                        }
+                        double meters = Double.parseDouble(fields[3]);
+                        double speed = fields.length > 4 ? Double.parseDouble(fields[4]) : 0;
+                        boolean oneway = fields.length > 5 && "1".equals(fields[5]);
+                        int weight = travelMillis(meters, speed > 0 ? speed : DEFAULT_SPEED_KMH);
+                        int length = (int) Math.round(meters);
+                        int needed = edges + 2;
+                        if (needed > tails.length) {
+                            int capacity = Math.max(needed, tails.length * 2);
+                            tails = Arrays.copyOf(tails, capacity);
+                            heads = Arrays.copyOf(heads, capacity);
+                            weights = Arrays.copyOf(weights, capacity);
+                            lengths = Arrays.copyOf(lengths, capacity);
+                        }
+                        tails[edges] = from;
+                        heads[edges] = to;
+                        weights[edges] = weight;
+                        lengths[edges] = length;
+                        edges++;
+                        if (!oneway) {
+                            tails[edges] = to;
+                            heads[edges] = from;
+                            weights[edges] = weight;
+                            lengths[edges] = length;
+                            edges++;
+                        }
+                    } else {
+                        throw new IOException("Unknown record '" + fields[0] + "' on line " + lineNumber);
+                    }
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    throw new IOException("Malformed record on line " + lineNumber, e);
+                }
+            }
+        }
+        return RoadGraph.fromEdges(Arrays.copyOf(latitudes, nodes), Arrays.copyOf(longitudes, nodes),
+                edges, tails, heads, weights, lengths);
+    }
+
+    private static int travelMillis(double meters, double speedKmh) {
+        return (int) Math.max(1, Math.round(meters / (speedKmh / 3.6) * 1000.0));
+    }
+}
@@ -0,0 +1,120 @@
+package com.neurofleetx.routing;
+
+import java.util.Arrays;
+
+// Indexed binary min-heap of node ids with int keys, supporting decrease-key
+final class MinHeap {
+
+    private int[] nodes;
+    private int[] keys;
+    private final int[] position;
+    private int size;
+
+    MinHeap(int nodeCount) {
+        this.nodes = new int[16];
+        this.keys = new int[16];
+        this.position = new int[nodeCount];
+        Arrays.fill(position, -1);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int peekKey() {
+        return keys[0];
+    }
+
+    boolean contains(int node) {
+        return position[node] >= 0;
+    }
+
+    // Inserts the node, or lowers its key when the new key is smaller
+    void push(int node, int key) {
+        int slot = position[node];
+        if (slot < 0) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            slot = size++;
+            nodes[slot] = node;
+            keys[slot] = key;
+            position[node] = slot;
+            siftUp(slot);
+        } else if (key < keys[slot]) {
+            keys[slot] = key;
+            siftUp(slot);
+        } else if (key > keys[slot]) {
+            keys[slot] = key;
+            siftDown(slot);
+        }
+    }
+
+    int pop() {
+        int top = nodes[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) {
+            nodes[0] = nodes[size];
+            keys[0] = keys[size];
+            position[nodes[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    // Empties the heap, touching only the nodes still queued
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            position[nodes[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot) {
+        int node = nodes[slot];
+        int key = keys[slot];
+        while (slot > 0) {
+            int parent = (slot - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            move(parent, slot);
+            slot = parent;
+        }
+        place(node, key, slot);
+    }
+
+    private void siftDown(int slot) {
+        int node = nodes[slot];
+        int key = keys[slot];
+        while (true) {
+            int child = 2 * slot + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) {
+                break;
+            }
+            move(child, slot);
+            slot = child;
+        }
+        place(node, key, slot);
+    }
+
+    private void move(int from, int to) {
+        nodes[to] = nodes[from];
+        keys[to] = keys[from];
+        position[nodes[to]] = to;
+    }
+
+    private void place(int node, int key, int slot) {
+        nodes[slot] = node;
+        keys[slot] = key;
+        position[node] = slot;
+    }
+}
@@ -0,0 +1,96 @@
+package com.neurofleetx.routing;
+
+import com.neurofleetx.optimization.GeoDistance;
+
+import java.util.Arrays;
+
+// Uniform grid over the graph nodes for snapping coordinates to the nearest road node
+final class NearestNodeIndex {
+
+    // Grid cell edge in degrees (~1 km of latitude)
+    private static final double CELL_DEGREES = 0.01;
+
+    private final ContractedGraph graph;
+    private final long[] cellKeys;
+    private final int[] cellStart;
+    private final int[] nodes;
+
+    NearestNodeIndex(ContractedGraph graph) {
+        this.graph = graph;
+        int n = graph.nodeCount();
+        long[] keyed = new long[n];
+        for (int v = 0; v < n; v++) {
+            keyed[v] = cellKey(graph.latitude(v), graph.longitude(v));
+        }
+        // Sort nodes by cell so each cell is a contiguous run
+        Integer[] order = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            order[v] = v;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(keyed[a], keyed[b]));
+        nodes = new int[n];
+        long[] keys = new long[n];
+        int[] starts = new int[n + 1];
+        int cells = 0;
+        for (int i = 0; i < n; i++) {
+            nodes[i] = order[i];
+            long key = keyed[order[i]];
+            if (cells == 0 || keys[cells - 1] != key) {
+                keys[cells] = key;
+                starts[cells] = i;
+                cells++;
+            }
+        }
+        starts[cells] = n;
+        cellKeys = Arrays.copyOf(keys, cells);
+        cellStart = Arrays.copyOf(starts, cells + 1);
+    }
+
+    // Nearest node within maxKm, or -1
+    int nearest(double latitude, double longitude, double maxKm) {
+        int row = cellRow(latitude);
+        int col = cellColumn(longitude);
+        int best = -1;
+        double bestKm = maxKm;
+        // Points in ring k are at least k - 1 cells away; the narrower (longitude) side bounds that distance
+        double cellKm = CELL_DEGREES * 111.0 * Math.cos(Math.toRadians(Math.min(Math.abs(latitude), 89.0)));
+        for (int ring = 0; (ring - 1) * cellKm <= bestKm; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                for (int c = col - ring; c <= col + ring; c++) {
+                    if (Math.abs(r - row) != ring && Math.abs(c - col) != ring) {
+                        continue;
+                    }
+                    int cell = Arrays.binarySearch(cellKeys, pack(r, c));
+                    if (cell < 0) {
+                        continue;
+                    }
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        int node = nodes[i];
+                        double km = GeoDistance.haversineKm(latitude, longitude, graph.latitude(node), graph.longitude(node));
+                        if (km < bestKm) {
+                            bestKm = km;
+                            best = node;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return pack(cellRow(latitude), cellColumn(longitude));
+    }
+
+    private static int cellRow(double latitude) {
+        return (int) Math.floor((latitude + 90.0) / CELL_DEGREES);
+    }
+
+    private static int cellColumn(double longitude) {
+        return (int) Math.floor((longitude + 180.0) / CELL_DEGREES);
+    }
+
+    private static long pack(int row, int column) {
+        return ((long) row << 32) | (column & 0xFFFFFFFFL);
+    }
+}
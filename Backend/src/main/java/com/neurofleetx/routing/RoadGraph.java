@@ -0,0 +1,115 @@
+package com.neurofleetx.routing;
+
+import java.util.Arrays;
+
+// Directed road network in compressed sparse row form: the out-edges of node v are
+// the indices firstOut[v] .. firstOut[v + 1] - 1 of the head/weight/length arrays.
+// Weights are travel times in milliseconds, lengths are meters.
+public final class RoadGraph {
+
+    private final float[] latitudes;
+    private final float[] longitudes;
+    private final int[] firstOut;
+    private final int[] head;
+    private final int[] weight;
+    private final int[] length;
+
+    RoadGraph(float[] latitudes, float[] longitudes, int[] firstOut, int[] head, int[] weight, int[] length) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.firstOut = firstOut;
+        this.head = head;
+        this.weight = weight;
+        this.length = length;
+    }
+
+    // Builds the CSR arrays from an unordered edge list; parallel edges keep the fastest one
+    static RoadGraph fromEdges(float[] latitudes, float[] longitudes,
+                               int edgeCount, int[] tails, int[] heads, int[] weights, int[] lengths) {
+        int n = latitudes.length;
+        int[] firstOut = new int[n + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            firstOut[tails[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            firstOut[v + 1] += firstOut[v];
+        }
+        int[] fill = new int[n];
+        System.arraycopy(firstOut, 0, fill, 0, n);
+        int[] head = new int[edgeCount];
+        int[] weight = new int[edgeCount];
+        int[] length = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            int slot = fill[tails[e]]++;
+            head[slot] = heads[e];
+            weight[slot] = weights[e];
+            length[slot] = lengths[e];
+        }
+
+        // Drop self loops and parallel edges in place
+        int[] compactFirst = new int[n + 1];
+        int[] seen = new int[n];
+        Arrays.fill(seen, -1);
+        int[] seenSlot = new int[n];
+        int kept = 0;
+        for (int v = 0; v < n; v++) {
+            compactFirst[v] = kept;
+            for (int e = firstOut[v]; e < firstOut[v + 1]; e++) {
+                int w = head[e];
+                if (w == v) {
+                    continue;
+                }
+                if (seen[w] == v) {
+                    int slot = seenSlot[w];
+                    if (weight[e] < weight[slot]) {
+                        weight[slot] = weight[e];
+                        length[slot] = length[e];
+                    }
+                    continue;
+                }
+                seen[w] = v;
+                seenSlot[w] = kept;
+                head[kept] = w;
+                weight[kept] = weight[e];
+                length[kept] = length[e];
+                kept++;
+            }
+        }
+        compactFirst[n] = kept;
+        return new RoadGraph(latitudes, longitudes, compactFirst,
+                Arrays.copyOf(head, kept), Arrays.copyOf(weight, kept),
+                Arrays.copyOf(length, kept));
+    }
+
+    public int nodeCount() {
+        return latitudes.length;
+    }
+
+    public int edgeCount() {
+        return head.length;
+    }
+
+    float[] latitudes() {
+        return latitudes;
+    }
+
+    float[] longitudes() {
+        return longitudes;
+    }
+
+    int firstOut(int node) {
+        return firstOut[node];
+    }
+
+    int head(int edge) {
+        return head[edge];
+    }
+
+    int weight(int edge) {
+        return weight[edge];
+    }
+
+    int length(int edge) {
+        return length[edge];
+    }
+}
@@ -0,0 +1,239 @@
+package com.neurofleetx.routing;
+
+import com.neurofleetx.optimization.GeoDistance;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+// Offline road routing backed by a contraction hierarchy. The road network is read from the
+// edge list at routing.graph.path; the contracted graph is cached next to it as <path>.ch and
+// memory-mapped on later starts. Without a configured graph the engine stays unavailable and
+// callers fall back to straight-line estimates.
+@Component
+public class RoutingEngine {
+
+    @Value("${routing.graph.path:}")
+    private String graphPath;
+
+    // Points farther than this from any road node are not routed
+    @Value("${routing.graph.max-snap-km:1.0}")
+    private double maxSnapKm;
+
+    private volatile ContractedGraph graph;
+    private NearestNodeIndex nearestNodes;
+    private ThreadLocal<ChSearch> searches;
+    private long loadMillis;
+
+    @PostConstruct
+    public void init() {
+        if (graphPath == null || graphPath.isBlank()) {
+            return;
+        }
+        long started = System.nanoTime();
+        try {
+            Path source = Paths.get(graphPath);
+            Path contracted = source.resolveSibling(source.getFileName() + ".ch");
+            if (!Files.exists(contracted)
+                    || Files.getLastModifiedTime(contracted).compareTo(Files.getLastModifiedTime(source)) < 0) {
+                System.out.println("Contracting road graph " + source + " ...");
+                ContractionHierarchyBuilder.build(EdgeListLoader.load(source), contracted);
+            }
+            ContractedGraph loaded = ContractedGraph.open(contracted);
+            nearestNodes = new NearestNodeIndex(loaded);
+            searches = ThreadLocal.withInitial(() -> new ChSearch(loaded));
+            graph = loaded;
+            loadMillis = (System.nanoTime() - started) / 1_000_000;
+            System.out.println("Road graph ready: " + loaded.nodeCount() + " nodes, "
+                    + loaded.edgeCount() + " hierarchy edges in " + loadMillis + " ms");
+        } catch (Exception e) {
+            System.err.println("Road graph unavailable, using straight-line distances: " + e.getMessage());
+        }
+    }
+
+    public boolean isAvailable() {
+        return graph != null;
+    }
+
+    // Road distance and travel time, or null when either point is off the network or unreachable
+    public TravelEstimate estimate(double fromLatitude, double fromLongitude, double toLatitude, double toLongitude) {
+        if (!isAvailable()) {
+            return null;
+        }
+        int source = nearestNodes.nearest(fromLatitude, fromLongitude, maxSnapKm);
+        int target = nearestNodes.nearest(toLatitude, toLongitude, maxSnapKm);
+        if (source < 0 || target < 0) {
+            return null;
+        }
+        int[] path = searches.get().query(source, target);
+        if (path == null) {
+            return null;
+        }
+        double accessKm = accessKm(fromLatitude, fromLongitude, source) + accessKm(toLatitude, toLongitude, target);
+        return new TravelEstimate(path[1] / 1000.0 + accessKm,
+                path[0] / 60000.0 + accessKm * GeoDistance.MINUTES_PER_KM);
+    }
+
+    // Receives one row of a many-to-many query: travel from the source to every point and from every
+    // point back to the source (km, minutes; NaN when unroutable). Rows arrive concurrently.
+    public interface RowConsumer {
+        void accept(int source, double[] toKm, double[] toMinutes, double[] fromKm, double[] fromMinutes);
+    }
+
+    // Many-to-many travel between all points. Upward searches from every point leave buckets on the
+    // nodes they settle; the opposite-direction search from each point then scans the buckets it meets.
+    public void matrix(double[] latitudes, double[] longitudes, RowConsumer consumer) {
+        int n = latitudes.length;
+        if (!isAvailable()) {
+            return;
+        }
+        int[] snapped = new int[n];
+        double[] access = new double[n];
+        for (int i = 0; i < n; i++) {
+            snapped[i] = nearestNodes.nearest(latitudes[i], longitudes[i], maxSnapKm);
+            access[i] = snapped[i] < 0 ? Double.NaN : accessKm(latitudes[i], longitudes[i], snapped[i]);
+        }
+        Buckets arriving = new Buckets(snapped, false);
+        Buckets leaving = new Buckets(snapped, true);
+
+        IntStream.range(0, n).parallel().forEach(s -> {
+            double[] toKm = new double[n];
+            double[] toMinutes = new double[n];
+            double[] fromKm = new double[n];
+            double[] fromMinutes = new double[n];
+            Arrays.fill(toKm, Double.NaN);
+            Arrays.fill(toMinutes, Double.NaN);
+            Arrays.fill(fromKm, Double.NaN);
+            Arrays.fill(fromMinutes, Double.NaN);
+            if (snapped[s] >= 0) {
+                arriving.scan(snapped[s], true, s, access, toKm, toMinutes);
+                leaving.scan(snapped[s], false, s, access, fromKm, fromMinutes);
+            }
+            consumer.accept(s, toKm, toMinutes, fromKm, fromMinutes);
+        });
+    }
+
+    // Search spaces of every point in one direction, grouped by the node they settle
+    private final class Buckets {
+        private final int n;
+        private final long[] nodes;
+        private final int[] point;
+        private final int[] weight;
+        private final int[] length;
+
+        Buckets(int[] snapped, boolean forward) {
+            n = snapped.length;
+            int[][][] spaces = new int[n][][];
+            IntStream.range(0, n).parallel().filter(p -> snapped[p] >= 0).forEach(p -> {
+                ChSearch search = searches.get();
+                search.searchUp(snapped[p], forward);
+                int count = search.settledCount;
+                spaces[p] = new int[][] {Arrays.copyOf(search.settledNodes, count),
+                        Arrays.copyOf(search.settledWeights, count), Arrays.copyOf(search.settledLengths, count)};
+            });
+
+            int entries = Arrays.stream(spaces).mapToInt(space -> space == null ? 0 : space[0].length).sum();
+            // High word node, low word entry index
+            long[] order = new long[entries];
+            int[] entryPoint = new int[entries];
+            int[] entryWeight = new int[entries];
+            int[] entryLength = new int[entries];
+            int next = 0;
+            for (int p = 0; p < n; p++) {
+                if (spaces[p] == null) {
+                    continue;
+                }
+                for (int k = 0; k < spaces[p][0].length; k++) {
+                    entryPoint[next] = p;
+                    entryWeight[next] = spaces[p][1][k];
+                    entryLength[next] = spaces[p][2][k];
+                    order[next] = ((long) spaces[p][0][k] << 32) | next;
+                    next++;
+                }
+            }
+            Arrays.sort(order);
+            nodes = new long[entries];
+            point = new int[entries];
+            weight = new int[entries];
+            length = new int[entries];
+            for (int k = 0; k < entries; k++) {
+                int entry = (int) order[k];
+                nodes[k] = order[k] >>> 32;
+                point[k] = entryPoint[entry];
+                weight[k] = entryWeight[entry];
+                length[k] = entryLength[entry];
+            }
+        }
+
+        // Upward search from node in the given direction, meeting these buckets
+        void scan(int node, boolean forward, int source, double[] access, double[] km, double[] minutes) {
+            ChSearch search = searches.get();
+            search.searchUp(node, forward);
+            int[] best = new int[n];
+            int[] bestLength = new int[n];
+            Arrays.fill(best, Integer.MAX_VALUE);
+            for (int k = 0; k < search.settledCount; k++) {
+                long settled = search.settledNodes[k];
+                for (int b = lowerBound(nodes, settled); b < nodes.length && nodes[b] == settled; b++) {
+                    int total = search.settledWeights[k] + weight[b];
+                    if (total < best[point[b]]) {
+                        best[point[b]] = total;
+                        bestLength[point[b]] = search.settledLengths[k] + length[b];
+                    }
+                }
+            }
+            for (int p = 0; p < n; p++) {
+                if (best[p] != Integer.MAX_VALUE) {
+                    double accessKm = access[source] + access[p];
+                    km[p] = bestLength[p] / 1000.0 + accessKm;
+                    minutes[p] = best[p] / 60000.0 + accessKm * GeoDistance.MINUTES_PER_KM;
+                }
+            }
+        }
+    }
+
+    // Identifies the distance model behind matrices, so results computed on another graph are not mixed up
+    public String getSignature() {
+        ContractedGraph current = graph;
+        return current == null ? "straight-line"
+                : "road:" + current.nodeCount() + ":" + current.edgeCount() + ":" + maxSnapKm;
+    }
+
+    // Graph size and load time
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("available", isAvailable());
+        stats.put("graphPath", graphPath);
+        if (isAvailable()) {
+            stats.put("nodes", graph.nodeCount());
+            stats.put("hierarchyEdges", graph.edgeCount());
+            stats.put("loadMillis", loadMillis);
+        }
+        return stats;
+    }
+
+    private double accessKm(double latitude, double longitude, int node) {
+        return GeoDistance.haversineKm(latitude, longitude, graph.latitude(node), graph.longitude(node));
+    }
+
+    private static int lowerBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
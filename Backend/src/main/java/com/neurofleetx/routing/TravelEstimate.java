@@ -0,0 +1,17 @@
+package com.neurofleetx.routing;
+
+// Road distance and travel time between two points
+public class TravelEstimate {
+
+    private final double distanceKm;
+    private final double durationMinutes;
+
+    public TravelEstimate(double distanceKm, double durationMinutes) {
+        this.distanceKm = distanceKm;
+        this.durationMinutes = durationMinutes;
+    }
+
+    public double getDistanceKm() { return distanceKm; }
+
+    public double getDurationMinutes() { return durationMinutes; }
+}
@@ -0,0 +1,143 @@
+package com.neurofleetx.service;
+
+import com.neurofleetx.entity.Vehicle;
+import com.neurofleetx.repository.VehicleRepository;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+// Fleet x time availability calendar at BookingIntervalIndex.SLOT_MINUTES granularity. Every vehicle's
+// booked slots are a compressed bitmap kept by the interval index, so a calendar is a window AND per
+// vehicle plus an OR and an AND across the fleet, without a query per vehicle.
+@Service
+public class BookingCalendarService {
+
+    private static final long SLOT_SECONDS = BookingIntervalIndex.SLOT_MINUTES * 60L;
+
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    // Longest range a single calendar request may cover
+    @Value("${booking.calendar.max-days:62}")
+    private int maxDays;
+
+    // Availability of the vehicles (all vehicles when none are given) over [startDate, endDate),
+    // widened to whole slots
+    public Map<String, Object> getCalendar(LocalDateTime startDate, LocalDateTime endDate, List<String> vehicleIds) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start and end are required");
+        }
+        if (!startDate.isBefore(endDate)) {
+            throw new IllegalArgumentException("Start must be before end");
+        }
+        if (startDate.plusDays(maxDays).isBefore(endDate)) {
+            throw new IllegalArgumentException("Calendar range cannot exceed " + maxDays + " days");
+        }
+
+        int firstSlot = BookingIntervalIndex.toSlot(startDate);
+        int endSlot = BookingIntervalIndex.toSlot(endDate.minusNanos(1)) + 1;
+        int slotCount = endSlot - firstSlot;
+        LocalDateTime windowStart = toTime(firstSlot);
+        LocalDateTime windowEnd = toTime(endSlot);
+
+        List<String> ids = vehicleIds == null || vehicleIds.isEmpty()
+                ? vehicleRepository.findAll().stream().map(Vehicle::getId).toList()
+                : vehicleIds;
+
+        Map<String, RoaringBitmap> booked = intervalIndex.findBookedSlots(windowStart, windowEnd);
+        RoaringBitmap window = RoaringBitmap.bitmapOfRange(firstSlot, endSlot);
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        List<RoaringBitmap> fleetBooked = new ArrayList<>(ids.size());
+        for (String vehicleId : ids) {
+            RoaringBitmap slots = booked.get(vehicleId);
+            RoaringBitmap inWindow = slots == null ? new RoaringBitmap() : RoaringBitmap.and(slots, window);
+            fleetBooked.add(inWindow);
+
+            Map<String, Object> row = new HashMap<>();
+            row.put("vehicleId", vehicleId);
+            row.put("booked", toSlotString(inWindow, firstSlot, slotCount));
+            row.put("bookedSlots", inWindow.getCardinality());
+            row.put("freeSlots", slotCount - inWindow.getCardinality());
+            row.put("freeRanges", toRanges(RoaringBitmap.andNot(window, inWindow)));
+            rows.add(row);
+        }
+
+        // A slot has some vehicle free unless every vehicle is booked, and all vehicles free unless any is
+        RoaringBitmap allBooked = fleetBooked.isEmpty() ? window : FastAggregation.and(fleetBooked.iterator());
+        RoaringBitmap anyBooked = FastAggregation.or(fleetBooked.iterator());
+
+        Map<String, Object> fleet = new HashMap<>();
+        fleet.put("anyFree", toSlotString(RoaringBitmap.andNot(window, allBooked), firstSlot, slotCount));
+        fleet.put("allFree", toSlotString(RoaringBitmap.andNot(window, anyBooked), firstSlot, slotCount));
+        fleet.put("fullyBookedRanges", toRanges(allBooked));
+
+        Map<String, Object> calendar = new HashMap<>();
+        calendar.put("start", windowStart);
+        calendar.put("end", windowEnd);
+        calendar.put("slotMinutes", BookingIntervalIndex.SLOT_MINUTES);
+        calendar.put("slots", slotCount);
+        calendar.put("vehicles", rows);
+        calendar.put("fleet", fleet);
+        return calendar;
+    }
+
+    // One character per slot of the window: '1' where the bit is set, '0' elsewhere
+    private static String toSlotString(RoaringBitmap bits, int firstSlot, int slotCount) {
+        char[] chars = new char[slotCount];
+        Arrays.fill(chars, '0');
+        PeekableIntIterator iterator = bits.getIntIterator();
+        iterator.advanceIfNeeded(firstSlot);
+        while (iterator.hasNext()) {
+            int offset = iterator.next() - firstSlot;
+            if (offset >= slotCount) {
+                break;
+            }
+            chars[offset] = '1';
+        }
+        return new String(chars);
+    }
+
+    // Runs of consecutive set slots as start/end times
+    private static List<Map<String, Object>> toRanges(RoaringBitmap bits) {
+        List<Map<String, Object>> ranges = new ArrayList<>();
+        PeekableIntIterator iterator = bits.getIntIterator();
+        int runStart = -1;
+        int previous = -1;
+        while (iterator.hasNext()) {
+            int slot = iterator.next();
+            if (runStart < 0) {
+                runStart = slot;
+            } else if (slot != previous + 1) {
+                ranges.add(range(runStart, previous + 1));
+                runStart = slot;
+            }
+            previous = slot;
+        }
+        if (runStart >= 0) {
+            ranges.add(range(runStart, previous + 1));
+        }
+        return ranges;
+    }
+
+    private static Map<String, Object> range(int fromSlot, int toSlot) {
+        Map<String, Object> range = new HashMap<>();
+        range.put("start", toTime(fromSlot));
+        range.put("end", toTime(toSlot));
+        return range;
+    }
+
+    private static LocalDateTime toTime(int slot) {
+        return LocalDateTime.ofEpochSecond(slot * SLOT_SECONDS, 0, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,215 @@
+package com.neurofleetx.service;
+
+import com.neurofleetx.entity.Booking;
+import com.neurofleetx.entity.BookingStatus;
+import com.neurofleetx.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Cancels pending bookings that were never confirmed, so they stop holding their vehicle. A pending
+// booking expires pending-ttl-minutes after it was created, or at its start if that is sooner. The
+// deadlines are kept in a min-heap fed by every booking write, so each check only pops what is due
+// instead of scanning bookings; the heap is re-synced from the pending bookings (status-indexed) to
+// pick up bookings written by other nodes. Due bookings are cancelled in batches with a bulk update
+// that re-checks status and deadline in its filter, so a booking confirmed meanwhile is left alone.
+@Service
+public class BookingExpiryService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+
+    @Autowired
+    private CustomerBookingCounterService counterService;
+
+    @Value("${booking.expiry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${booking.expiry.pending-ttl-minutes:1440}")
+    private long pendingTtlMinutes;
+
+    @Value("${booking.expiry.batch-size:500}")
+    private int batchSize;
+
+    // Deadlines in order; entries whose deadline no longer matches `deadlines` are stale and skipped
+    private final PriorityQueue<Deadline> queue = new PriorityQueue<>(
+            Comparator.comparing((Deadline d) -> d.at).thenComparing(d -> d.bookingId));
+    private final Map<String, LocalDateTime> deadlines = new HashMap<>();
+    // Writes seen while refresh() is loading, replayed on top of what it loaded; null otherwise
+    private List<Write> writesDuringRefresh;
+
+    private final AtomicLong expired = new AtomicLong();
+
+    private record Deadline(LocalDateTime at, String bookingId) {}
+
+    // A tracked booking, or an untracked id when booking is null
+    private record Write(String bookingId, Booking booking) {}
+
+    // Follow the saved state of a booking: schedule it while pending, forget it otherwise
+    public void track(Booking booking) {
+        if (!enabled || booking == null || booking.getId() == null) {
+            return;
+        }
+        synchronized (this) {
+            schedule(booking);
+            if (writesDuringRefresh != null) {
+                writesDuringRefresh.add(new Write(booking.getId(), booking));
+            }
+        }
+    }
+
+    public synchronized void untrack(String bookingId) {
+        deadlines.remove(bookingId);
+        if (writesDuringRefresh != null) {
+            writesDuringRefresh.add(new Write(bookingId, null));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    // Reload the deadlines of all pending bookings, including those created on other nodes
+    @Scheduled(fixedDelayString = "${booking.expiry.refresh-millis:600000}",
+               initialDelayString = "${booking.expiry.refresh-millis:600000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            writesDuringRefresh = new ArrayList<>();
+        }
+        try {
+            List<Booking> pending = bookingRepository.findByStatus(BookingStatus.PENDING);
+            synchronized (this) {
+                queue.clear();
+                deadlines.clear();
+                for (Booking booking : pending) {
+                    schedule(booking);
+                }
+                for (Write write : writesDuringRefresh) {
+                    if (write.booking == null) {
+                        deadlines.remove(write.bookingId);
+                    } else {
+                        schedule(write.booking);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Could not load pending booking deadlines: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                writesDuringRefresh = null;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.expiry.check-millis:30000}",
+               initialDelayString = "${booking.expiry.check-millis:30000}")
+    public void expireDue() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int cancelled;
+            do {
+                // Millisecond precision, as stored, so cancelledAt can be matched when reading back
+                cancelled = expireBatch(LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+            } while (cancelled == batchSize);
+        } catch (Exception e) {
+            System.err.println("Pending booking expiry failed: " + e.getMessage());
+        }
+    }
+
+    public synchronized Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("pendingTtlMinutes", pendingTtlMinutes);
+        stats.put("tracked", deadlines.size());
+        stats.put("queued", queue.size());
+        Deadline next = queue.peek();
+        stats.put("nextDeadline", next == null ? null : next.at);
+        stats.put("expired", expired.get());
+        return stats;
+    }
+
+    // Cancels up to batchSize due bookings; returns how many were taken from the queue
+    private int expireBatch(LocalDateTime now) {
+        List<String> due = new ArrayList<>();
+        synchronized (this) {
+            while (due.size() < batchSize && !queue.isEmpty() && !queue.peek().at.isAfter(now)) {
+                Deadline deadline = queue.poll();
+                if (deadline.at.equals(deadlines.get(deadline.bookingId))) {
+                    deadlines.remove(deadline.bookingId);
+                    due.add(deadline.bookingId);
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Booking.class);
+        Criteria expiredNow = new Criteria().orOperator(
+                Criteria.where("createdAt").lte(now.minusMinutes(pendingTtlMinutes)),
+                Criteria.where("startDate").lte(now));
+        for (String bookingId : due) {
+            bulk.updateOne(
+                    Query.query(Criteria.where("_id").is(bookingId).and("status").is(BookingStatus.PENDING)
+                            .andOperator(expiredNow)),
+                    new Update().set("status", BookingStatus.CANCELLED).set("cancelledAt", now));
+        }
+        bulk.execute();
+
+        // The bulk result does not say which bookings matched, so the ones cancelled here are read
+        // back to update the interval index and customer counters
+        List<Booking> cancelled = mongoTemplate.find(Query.query(Criteria.where("_id").in(due)
+                .and("status").is(BookingStatus.CANCELLED).and("cancelledAt").is(now)), Booking.class);
+        for (Booking booking : cancelled) {
+            intervalIndex.update(booking);
+            counterService.recordTransition(booking.getUserId(), BookingStatus.PENDING, BookingStatus.CANCELLED);
+        }
+        expired.addAndGet(cancelled.size());
+        if (!cancelled.isEmpty()) {
+            System.out.println("Expired " + cancelled.size() + " unconfirmed pending bookings");
+        }
+        return due.size();
+    }
+
+    // Caller holds the lock
+    private void schedule(Booking booking) {
+        LocalDateTime at = booking.getStatus() == BookingStatus.PENDING ? deadlineOf(booking) : null;
+        if (at == null) {
+            deadlines.remove(booking.getId());
+        } else if (!at.equals(deadlines.put(booking.getId(), at))) {
+            queue.add(new Deadline(at, booking.getId()));
+        }
+    }
+
+    private LocalDateTime deadlineOf(Booking booking) {
+        LocalDateTime created = booking.getCreatedAt() == null ? LocalDateTime.now() : booking.getCreatedAt();
+        LocalDateTime deadline = created.plusMinutes(pendingTtlMinutes);
+        return booking.getStartDate() != null && booking.getStartDate().isBefore(deadline)
+                ? booking.getStartDate() : deadline;
+    }
+}
@@ -0,0 +1,375 @@
+package com.neurofleetx.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurofleetx.entity.Booking;
+import com.neurofleetx.entity.BookingStatus;
+import com.neurofleetx.repository.BookingRepository;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+// Bulk booking import from CSV (with a header row) or NDJSON. Rows are validated, then conflicts are
+// resolved per vehicle with one sort-and-sweep over the existing bookings and the batch itself, in
+// row-start order so the earliest booking of two overlapping rows wins. Accepted rows are written
+// with one bulk insert and committed against the vehicle reservation guards in one bulk update;
+// rows of vehicles booked concurrently by someone else are rolled back and reported.
+@Service
+public class BookingImportService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+
+    @Autowired
+    private VehicleReservationService reservationService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CustomerBookingCounterService counterService;
+
+    @Autowired
+    private BookingExpiryService expiryService;
+
+    @Value("${booking.import.max-rows:50000}")
+    private int maxRows;
+
+    // One input row and its outcome
+    private static final class Row {
+        final int number;
+        Booking booking;
+        String error;
+
+        Row(int number) {
+            this.number = number;
+        }
+    }
+
+    // Import bookings from the stream; format is "csv" or "ndjson"
+    public Map<String, Object> importBookings(InputStream input, String format, String createdByUsername) throws IOException {
+        long started = System.nanoTime();
+        List<Row> rows = "ndjson".equals(format) ? readNdjson(input) : readCsv(input);
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, List<Row>> byVehicle = new HashMap<>();
+        LocalDateTime windowStart = null;
+        LocalDateTime windowEnd = null;
+        for (Row row : rows) {
+            if (row.error != null) {
+                continue;
+            }
+            Booking booking = row.booking;
+            row.error = validate(booking, now);
+            if (row.error != null) {
+                continue;
+            }
+            booking.setId(new ObjectId().toHexString());
+            booking.setStatus(BookingStatus.PENDING);
+            booking.setCreatedAt(now);
+            if (booking.getCreatedByUsername() == null) {
+                booking.setCreatedByUsername(createdByUsername);
+            }
+            byVehicle.computeIfAbsent(booking.getVehicleId(), v -> new ArrayList<>()).add(row);
+            windowStart = windowStart == null || booking.getStartDate().isBefore(windowStart) ? booking.getStartDate() : windowStart;
+            windowEnd = windowEnd == null || booking.getEndDate().isAfter(windowEnd) ? booking.getEndDate() : windowEnd;
+        }
+
+        List<Booking> accepted = new ArrayList<>();
+        Set<String> lostVehicles = Set.of();
+        if (!byVehicle.isEmpty()) {
+            // Versions are read before the conflict check, as in VehicleReservationService.reserve
+            Map<String, Long> versions = reservationService.readVersions(byVehicle.keySet());
+            Map<String, List<Booking>> existing = new HashMap<>();
+            for (Booking booking : bookingRepository.findOverlappingBookingsForVehicles(byVehicle.keySet(), windowStart, windowEnd)) {
+                existing.computeIfAbsent(booking.getVehicleId(), v -> new ArrayList<>()).add(booking);
+            }
+            byVehicle.forEach((vehicleId, vehicleRows) ->
+                    sweep(vehicleRows, existing.getOrDefault(vehicleId, List.of()), accepted));
+
+            if (!accepted.isEmpty()) {
+                BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Booking.class);
+                bulk.insert(accepted);
+                bulk.execute();
+
+                Map<String, Long> touched = new HashMap<>();
+                for (Booking booking : accepted) {
+                    touched.put(booking.getVehicleId(), versions.get(booking.getVehicleId()));
+                }
+                lostVehicles = reservationService.advanceAll(touched, "import:" + new ObjectId().toHexString());
+                if (!lostVehicles.isEmpty()) {
+                    Set<String> lost = lostVehicles;
+                    mongoTemplate.remove(Query.query(Criteria.where("_id").in(accepted.stream()
+                            .filter(b -> lost.contains(b.getVehicleId())).map(Booking::getId).toList())), Booking.class);
+                }
+            }
+        }
+
+        List<Booking> imported = new ArrayList<>();
+        List<Map<String, Object>> results = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Map<String, Object> result = new HashMap<>();
+            result.put("row", row.number);
+            if (row.error == null && lostVehicles.contains(row.booking.getVehicleId())) {
+                row.error = "Vehicle was booked concurrently, please retry";
+            }
+            if (row.error == null) {
+                imported.add(row.booking);
+                result.put("status", "imported");
+                result.put("bookingId", row.booking.getId());
+            } else {
+                result.put("status", "rejected");
+                result.put("message", row.error);
+            }
+            results.add(result);
+        }
+        intervalIndex.updateAll(imported);
+        imported.forEach(counterService::recordCreated);
+        imported.forEach(expiryService::track);
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("totalRows", rows.size());
+        report.put("imported", imported.size());
+        report.put("rejected", rows.size() - imported.size());
+        report.put("rows", results);
+        report.put("elapsedMillis", (System.nanoTime() - started) / 1_000_000);
+        return report;
+    }
+
+    private static String validate(Booking booking, LocalDateTime now) {
+        if (booking.getVehicleId() == null || booking.getVehicleId().isBlank()) {
+            return "Vehicle ID is required";
+        }
+        if (booking.getStartDate() == null || booking.getEndDate() == null) {
+            return "Start date and end date are required";
+        }
+        if (!booking.getStartDate().isBefore(booking.getEndDate())) {
+            return "Start date must be before end date";
+        }
+        if (booking.getStartDate().isBefore(now)) {
+            return "Start date cannot be in the past";
+        }
+        return null;
+    }
+
+    // Accepts the vehicle's rows in start order unless they overlap an existing booking or an
+    // earlier accepted row. Existing bookings are sorted by start with a running maximum of their
+    // ends, so "some existing booking starting before the row's end finishes after its start" is a
+    // binary search; accepted rows all start no later than the current row, so their latest end is
+    // the only thing to compare.
+    private static void sweep(List<Row> rows, List<Booking> existing, List<Booking> accepted) {
+        rows.sort(Comparator.comparing((Row r) -> r.booking.getStartDate()).thenComparingInt(r -> r.number));
+        List<Booking> sorted = new ArrayList<>(existing);
+        sorted.sort(Comparator.comparing(Booking::getStartDate));
+        LocalDateTime[] maxEnd = new LocalDateTime[sorted.size()];
+        int[] maxEndIndex = new int[sorted.size()];
+        for (int i = 0; i < sorted.size(); i++) {
+            boolean later = i == 0 || sorted.get(i).getEndDate().isAfter(maxEnd[i - 1]);
+            maxEnd[i] = later ? sorted.get(i).getEndDate() : maxEnd[i - 1];
+            maxEndIndex[i] = later ? i : maxEndIndex[i - 1];
+        }
+
+        Row lastAccepted = null;
+        for (Row row : rows) {
+            Booking booking = row.booking;
+            int before = startsBefore(sorted, booking.getEndDate());
+            if (before > 0 && maxEnd[before - 1].isAfter(booking.getStartDate())) {
+                row.error = "Conflicts with existing booking " + sorted.get(maxEndIndex[before - 1]).getId();
+            } else if (lastAccepted != null && lastAccepted.booking.getEndDate().isAfter(booking.getStartDate())) {
+                row.error = "Conflicts with row " + lastAccepted.number + " of this import";
+            } else {
+                accepted.add(booking);
+                if (lastAccepted == null || booking.getEndDate().isAfter(lastAccepted.booking.getEndDate())) {
+                    lastAccepted = row;
+                }
+            }
+        }
+    }
+
+    // Number of bookings in the start-sorted list that start before the given time
+    private static int startsBefore(List<Booking> sorted, LocalDateTime time) {
+        int low = 0;
+        int high = sorted.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted.get(mid).getStartDate().isBefore(time)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private List<Row> readCsv(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV import needs a header row");
+        }
+        List<String> header = splitCsv(headerLine.startsWith("\uFEFF") ? headerLine.substring(1) : headerLine);
+        List<Row> rows = new ArrayList<>();
+        String line;
+        int number = 1;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            if (line.isBlank()) {
+                continue;
+            }
+            checkRowLimit(rows);
+            Row row = new Row(number);
+            List<String> values = splitCsv(line);
+            Map<String, String> fields = new HashMap<>();
+            for (int i = 0; i < header.size() && i < values.size(); i++) {
+                fields.put(header.get(i).trim(), values.get(i));
+            }
+            toBooking(row, fields);
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private List<Row> readNdjson(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<Row> rows = new ArrayList<>();
+        String line;
+        int number = 0;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            if (line.isBlank()) {
+                continue;
+            }
+            checkRowLimit(rows);
+            Row row = new Row(number);
+            try {
+                Map<String, Object> values = objectMapper.readValue(line, new TypeReference<Map<String, Object>>() {});
+                Map<String, String> fields = new HashMap<>();
+                values.forEach((key, value) -> fields.put(key, value == null ? null : String.valueOf(value)));
+                toBooking(row, fields);
+            } catch (JsonProcessingException e) {
+                row.error = "Invalid JSON: " + e.getOriginalMessage();
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private void checkRowLimit(List<Row> rows) {
+        if (rows.size() >= maxRows) {
+            throw new IllegalArgumentException("Import cannot exceed " + maxRows + " rows");
+        }
+    }
+
+    // Fills the row's booking from named fields, or records why it cannot be read
+    private static void toBooking(Row row, Map<String, String> fields) {
+        try {
+            Booking booking = new Booking();
+            booking.setUserId(text(fields, "userId"));
+            booking.setUserName(text(fields, "userName"));
+            booking.setVehicleId(text(fields, "vehicleId"));
+            booking.setVehicleName(text(fields, "vehicleName"));
+            booking.setVehicleRegistration(text(fields, "vehicleRegistration"));
+            booking.setStartDate(dateTime(fields, "startDate"));
+            booking.setEndDate(dateTime(fields, "endDate"));
+            booking.setPurpose(text(fields, "purpose"));
+            booking.setPickupLocation(text(fields, "pickupLocation"));
+            booking.setDropoffLocation(text(fields, "dropoffLocation"));
+            booking.setContactNumber(text(fields, "contactNumber"));
+            booking.setPickupLatitude(number(fields, "pickupLatitude"));
+            booking.setPickupLongitude(number(fields, "pickupLongitude"));
+            booking.setDropoffLatitude(number(fields, "dropoffLatitude"));
+            booking.setDropoffLongitude(number(fields, "dropoffLongitude"));
+            booking.setNotes(text(fields, "notes"));
+            booking.setEstimatedCost(number(fields, "estimatedCost"));
+            booking.setCreatedByUsername(text(fields, "createdByUsername"));
+            row.booking = booking;
+        } catch (IllegalArgumentException e) {
+            row.error = e.getMessage();
+        }
+    }
+
+    private static String text(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static Double number(Map<String, String> fields, String name) {
+        String value = text(fields, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number in " + name + ": " + value);
+        }
+    }
+
+    // ISO 8601, with or without a zone, as in the booking endpoints. The zone is detected up front
+    // instead of by a failed parse, whose exception dominates reading a large file.
+    private static LocalDateTime dateTime(Map<String, String> fields, String name) {
+        String value = text(fields, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            int time = value.indexOf('T');
+            boolean zoned = time > 0 && (value.endsWith("Z") || value.indexOf('+', time) > 0
+                    || value.indexOf('-', time) > 0 || value.endsWith("]"));
+            return zoned ? ZonedDateTime.parse(value).toLocalDateTime() : LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date in " + name + ": " + value);
+        }
+    }
+
+    // Splits one CSV line; fields may be quoted, with "" for a literal quote
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+}
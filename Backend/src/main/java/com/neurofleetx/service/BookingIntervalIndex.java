@@ -0,0 +1,338 @@
+package com.neurofleetx.service;
+
+import com.neurofleetx.entity.Booking;
+import com.neurofleetx.entity.BookingStatus;
+import com.neurofleetx.repository.BookingRepository;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory index of the booked intervals of every vehicle, used for conflict checks instead of a
+// Mongo query per check. Each vehicle holds an immutable array of intervals sorted by start with a
+// running maximum of the end times, so an overlap query is a binary search plus a short backward
+// scan. Writers swap in a new array; readers never lock. Mongo is read at startup and on a periodic
+// re-sync that picks up writes made by other nodes. Each vehicle also carries a compressed bitmap
+// of its booked 15-minute slots for calendar queries.
+@Service
+public class BookingIntervalIndex {
+
+    // Granularity of the slot bitmaps
+    public static final int SLOT_MINUTES = 15;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private volatile Map<String, VehicleIntervals> byVehicle = new ConcurrentHashMap<>();
+    private volatile Map<String, String> vehicleOfBooking = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    // Writes made while a re-sync is reading Mongo, replayed onto the fresh index
+    private List<Booking> writesDuringRefresh;
+
+    // One booked interval of a vehicle
+    public static final class Interval {
+        private final String bookingId;
+        private final LocalDateTime startDate;
+        private final LocalDateTime endDate;
+        private final long start;
+        private final long end;
+
+        Interval(String bookingId, LocalDateTime startDate, LocalDateTime endDate) {
+            this.bookingId = bookingId;
+            this.startDate = startDate;
+            this.endDate = endDate;
+            this.start = toKey(startDate);
+            this.end = toKey(endDate);
+        }
+
+        public String getBookingId() { return bookingId; }
+
+        public LocalDateTime getStartDate() { return startDate; }
+
+        public LocalDateTime getEndDate() { return endDate; }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Blocking bookings of the vehicle overlapping [startDate, endDate), in start order
+    public List<Interval> findConflicts(String vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+        if (!ready) {
+            List<Interval> conflicts = new ArrayList<>();
+            for (Booking booking : bookingRepository.findConflictingBookings(vehicleId, startDate, endDate)) {
+                conflicts.add(new Interval(booking.getId(), booking.getStartDate(), booking.getEndDate()));
+            }
+            return conflicts;
+        }
+        VehicleIntervals intervals = vehicleId == null ? null : byVehicle.get(vehicleId);
+        return intervals == null ? List.of() : intervals.overlapping(toKey(startDate), toKey(endDate));
+    }
+
+    // Vehicles holding a blocking booking that overlaps [startDate, endDate)
+    public Set<String> findBusyVehicles(LocalDateTime startDate, LocalDateTime endDate) {
+        Set<String> busy = new HashSet<>();
+        if (!ready) {
+            for (Booking booking : bookingRepository.findOverlappingBookings(startDate, endDate)) {
+                busy.add(booking.getVehicleId());
+            }
+            return busy;
+        }
+        long start = toKey(startDate);
+        long end = toKey(endDate);
+        byVehicle.forEach((vehicleId, intervals) -> {
+            if (intervals.overlaps(start, end)) {
+                busy.add(vehicleId);
+            }
+        });
+        return busy;
+    }
+
+    // Booked intervals of the vehicle, in start order
+    public List<Interval> getIntervals(String vehicleId) {
+        VehicleIntervals intervals = vehicleId == null ? null : byVehicle.get(vehicleId);
+        return intervals == null ? List.of() : List.of(intervals.items);
+    }
+
+    // Booked slots of each vehicle with a blocking booking overlapping [startDate, endDate). The
+    // bitmaps may be shared with the index and must not be modified.
+    public Map<String, RoaringBitmap> findBookedSlots(LocalDateTime startDate, LocalDateTime endDate) {
+        Map<String, RoaringBitmap> slots = new HashMap<>();
+        if (!ready) {
+            for (Booking booking : bookingRepository.findOverlappingBookings(startDate, endDate)) {
+                if (isIndexable(booking)) {
+                    addSlots(slots.computeIfAbsent(booking.getVehicleId(), v -> new RoaringBitmap()),
+                            booking.getStartDate(), booking.getEndDate());
+                }
+            }
+            return slots;
+        }
+        long start = toKey(startDate);
+        long end = toKey(endDate);
+        byVehicle.forEach((vehicleId, intervals) -> {
+            if (intervals.overlaps(start, end)) {
+                slots.put(vehicleId, intervals.slots);
+            }
+        });
+        return slots;
+    }
+
+    // Apply the saved state of a booking: index it while it blocks its vehicle, drop it otherwise
+    public synchronized void update(Booking booking) {
+        if (booking == null || booking.getId() == null) {
+            return;
+        }
+        apply(byVehicle, vehicleOfBooking, booking);
+        if (writesDuringRefresh != null) {
+            writesDuringRefresh.add(booking);
+        }
+    }
+
+    // Apply many saved bookings; new bookings of one vehicle are merged in a single rebuild
+    public synchronized void updateAll(Collection<Booking> bookings) {
+        Map<String, List<Interval>> added = new HashMap<>();
+        for (Booking booking : bookings) {
+            if (booking == null || booking.getId() == null) {
+                continue;
+            }
+            if (!vehicleOfBooking.containsKey(booking.getId()) && isIndexable(booking)) {
+                added.computeIfAbsent(booking.getVehicleId(), v -> new ArrayList<>())
+                        .add(new Interval(booking.getId(), booking.getStartDate(), booking.getEndDate()));
+                vehicleOfBooking.put(booking.getId(), booking.getVehicleId());
+            } else {
+                apply(byVehicle, vehicleOfBooking, booking);
+            }
+            if (writesDuringRefresh != null) {
+                writesDuringRefresh.add(booking);
+            }
+        }
+        added.forEach((vehicleId, intervals) -> {
+            VehicleIntervals current = byVehicle.get(vehicleId);
+            byVehicle.put(vehicleId, current == null
+                    ? new VehicleIntervals(intervals.toArray(new Interval[0])) : current.withAll(intervals));
+        });
+    }
+
+    public synchronized void remove(String bookingId) {
+        Booking removed = new Booking();
+        removed.setId(bookingId);
+        update(removed);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.index.refresh-millis:300000}",
+               initialDelayString = "${booking.index.refresh-millis:300000}")
+    public void refresh() {
+        synchronized (this) {
+            writesDuringRefresh = new ArrayList<>();
+        }
+        try {
+            List<Booking> bookings = bookingRepository.findByStatusIn(BookingStatus.BLOCKING);
+            Map<String, List<Interval>> grouped = new HashMap<>();
+            Map<String, String> vehicles = new ConcurrentHashMap<>();
+            for (Booking booking : bookings) {
+                if (isIndexable(booking)) {
+                    grouped.computeIfAbsent(booking.getVehicleId(), v -> new ArrayList<>())
+                            .add(new Interval(booking.getId(), booking.getStartDate(), booking.getEndDate()));
+                    vehicles.put(booking.getId(), booking.getVehicleId());
+                }
+            }
+            Map<String, VehicleIntervals> fresh = new ConcurrentHashMap<>();
+            grouped.forEach((vehicleId, list) -> fresh.put(vehicleId, new VehicleIntervals(list.toArray(new Interval[0]))));
+            synchronized (this) {
+                for (Booking booking : writesDuringRefresh) {
+                    apply(fresh, vehicles, booking);
+                }
+                byVehicle = fresh;
+                vehicleOfBooking = vehicles;
+                ready = true;
+            }
+        } catch (Exception e) {
+            System.err.println("Could not load booking interval index: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                writesDuringRefresh = null;
+            }
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("ready", ready);
+        stats.put("vehicles", byVehicle.size());
+        stats.put("intervals", vehicleOfBooking.size());
+        return stats;
+    }
+
+    private static void apply(Map<String, VehicleIntervals> index, Map<String, String> vehicles, Booking booking) {
+        String previousVehicle = vehicles.remove(booking.getId());
+        if (previousVehicle != null) {
+            VehicleIntervals remaining = index.get(previousVehicle).without(booking.getId());
+            if (remaining.items.length == 0) {
+                index.remove(previousVehicle);
+            } else {
+                index.put(previousVehicle, remaining);
+            }
+        }
+        if (isIndexable(booking)) {
+            Interval interval = new Interval(booking.getId(), booking.getStartDate(), booking.getEndDate());
+            VehicleIntervals current = index.get(booking.getVehicleId());
+            index.put(booking.getVehicleId(), current == null
+                    ? new VehicleIntervals(new Interval[] {interval}) : current.with(interval));
+            vehicles.put(booking.getId(), booking.getVehicleId());
+        }
+    }
+
+    private static boolean isIndexable(Booking booking) {
+        return booking.getVehicleId() != null && booking.getStartDate() != null && booking.getEndDate() != null
+                && booking.getStatus() != null && booking.getStatus().isBlocking();
+    }
+
+    // Nanosecond ordinal of a local date-time, so comparisons are on primitives
+    static long toKey(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    // Slot holding the given time; slot numbers count SLOT_MINUTES periods from the epoch
+    static int toSlot(LocalDateTime time) {
+        return (int) Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), SLOT_MINUTES * 60L);
+    }
+
+    // Every slot touched by [startDate, endDate), so a partly booked slot counts as booked
+    static void addSlots(RoaringBitmap slots, LocalDateTime startDate, LocalDateTime endDate) {
+        long first = toSlot(startDate);
+        long last = toSlot(endDate.minusNanos(1));
+        if (last >= first) {
+            slots.add(first, last + 1);
+        }
+    }
+
+    // Immutable intervals of one vehicle sorted by start; maxEnd[i] is the latest end among items[0..i]
+    private static final class VehicleIntervals {
+        private final Interval[] items;
+        private final long[] starts;
+        private final long[] maxEnd;
+        private final RoaringBitmap slots = new RoaringBitmap();
+
+        VehicleIntervals(Interval[] items) {
+            Arrays.sort(items, Comparator.comparingLong((Interval i) -> i.start).thenComparingLong(i -> i.end));
+            this.items = items;
+            this.starts = new long[items.length];
+            this.maxEnd = new long[items.length];
+            for (int i = 0; i < items.length; i++) {
+                starts[i] = items[i].start;
+                maxEnd[i] = i == 0 ? items[i].end : Math.max(maxEnd[i - 1], items[i].end);
+                addSlots(slots, items[i].startDate, items[i].endDate);
+            }
+            slots.runOptimize();
+        }
+
+        // Intervals with start < end and finish > start
+        List<Interval> overlapping(long start, long end) {
+            int upper = firstStartAtOrAfter(end);
+            List<Interval> result = new ArrayList<>();
+            for (int i = upper - 1; i >= 0 && maxEnd[i] > start; i--) {
+                if (items[i].end > start) {
+                    result.add(items[i]);
+                }
+            }
+            Collections.reverse(result);
+            return result;
+        }
+
+        boolean overlaps(long start, long end) {
+            for (int i = firstStartAtOrAfter(end) - 1; i >= 0 && maxEnd[i] > start; i--) {
+                if (items[i].end > start) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        VehicleIntervals with(Interval interval) {
+            Interval[] next = Arrays.copyOf(items, items.length + 1);
+            next[items.length] = interval;
+            return new VehicleIntervals(next);
+        }
+
+        VehicleIntervals withAll(List<Interval> intervals) {
+            Interval[] next = Arrays.copyOf(items, items.length + intervals.size());
+            for (int i = 0; i < intervals.size(); i++) {
+                next[items.length + i] = intervals.get(i);
+            }
+            return new VehicleIntervals(next);
+        }
+
+        VehicleIntervals without(String bookingId) {
+            return new VehicleIntervals(Arrays.stream(items)
+                    .filter(i -> !i.bookingId.equals(bookingId))
+                    .toArray(Interval[]::new));
+        }
+
+        private int firstStartAtOrAfter(long key) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
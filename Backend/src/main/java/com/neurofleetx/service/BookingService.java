@@ -1,11 +1,23 @@
 package com.neurofleetx.service;
 
 import com.neurofleetx.entity.Booking;
+import com.neurofleetx.entity.BookingStatus;
 import com.neurofleetx.repository.BookingRepository;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +28,34 @@ public class BookingService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+
+    @Autowired
+    private VehicleReservationService reservationService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private CustomerBookingCounterService counterService;
+
+    @Autowired
+    private BookingExpiryService expiryService;
+
+    // Indexes declared on Booking; Spring Boot does not create them automatically
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(Booking.class);
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(Booking.class)
+                    .forEach(indexOps::createIndex);
+        } catch (Exception e) {
+            System.err.println("Could not create booking indexes: " + e.getMessage());
+        }
+    }
+
     public List<Booking> getAllBookings() {
         return bookingRepository.findAll();
     }
@@ -29,7 +69,13 @@ public class BookingService {
     }
 
     public List<Booking> getBookingsByStatus(String status) {
-        return bookingRepository.findByStatus(status);
+        return bookingRepository.findByStatus(BookingStatus.from(status));
+    }
+
+    // Pending, confirmed and active bookings of the vehicle that have not ended yet
+    public List<Booking> getActiveBookingsByVehicle(String vehicleId) {
+        return bookingRepository.findByVehicleIdAndStatusInAndEndDateAfterOrderByStartDateAsc(
+                vehicleId, BookingStatus.BLOCKING, LocalDateTime.now());
     }
 
     public List<Booking> getUpcomingBookings(String userId) {
@@ -54,26 +100,31 @@ public class BookingService {
             throw new RuntimeException("Start date cannot be in the past");
         }
 
-        // Check for conflicting bookings
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(
+        // Fast reject from the interval index before taking the vehicle's reservation
+        List<BookingIntervalIndex.Interval> conflicts = intervalIndex.findConflicts(
             booking.getVehicleId(),
             booking.getStartDate(),
             booking.getEndDate()
         );
 
         if (!conflicts.isEmpty()) {
-            StringBuilder conflictDetails = new StringBuilder("Vehicle is not available for the selected time period. Conflicting bookings: ");
-            for (Booking conflict : conflicts) {
-                conflictDetails.append(String.format("[%s to %s] ", 
-                    conflict.getStartDate().toString(), 
-                    conflict.getEndDate().toString()));
-            }
-            throw new RuntimeException(conflictDetails.toString());
+            throw new RuntimeException(conflictMessage(conflicts));
         }
 
+        booking.setId(new ObjectId().toHexString());
         booking.setCreatedAt(LocalDateTime.now());
-        booking.setStatus("pending");
-        return bookingRepository.save(booking);
+        booking.setStatus(BookingStatus.PENDING);
+
+        // The authoritative check runs against Mongo under the reservation, so two concurrent
+        // requests for the same vehicle cannot both pass it
+        Booking saved = reservationService.reserve(booking.getVehicleId(), booking.getId(),
+            () -> checkNoConflicts(booking.getVehicleId(), booking.getId(),
+                booking.getStartDate(), booking.getEndDate(), true),
+            () -> bookingRepository.insert(booking),
+            () -> bookingRepository.deleteById(booking.getId()));
+        track(saved);
+        counterService.recordCreated(saved);
+        return saved;
     }
 
     public boolean isVehicleAvailable(String vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
@@ -90,58 +141,36 @@ public class BookingService {
             return false;
         }
 
-        List<Booking> conflicts = bookingRepository.findConflictingBookings(vehicleId, startDate, endDate);
-        return conflicts.isEmpty();
+        return findConflicts(vehicleId, startDate, endDate).isEmpty();
     }
 
-    public Booking confirmBooking(String bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + bookingId));
-
-        if (!"pending".equals(booking.getStatus())) {
-            throw new RuntimeException("Only pending bookings can be confirmed");
-        }
+    // Blocking bookings of the vehicle that overlap the period, from the in-memory interval index
+    public List<BookingIntervalIndex.Interval> findConflicts(String vehicleId, LocalDateTime startDate, LocalDateTime endDate) {
+        return intervalIndex.findConflicts(vehicleId, startDate, endDate);
+    }
 
-        booking.setStatus("confirmed");
-        booking.setConfirmedAt(LocalDateTime.now());
-        return bookingRepository.save(booking);
+    public Booking confirmBooking(String bookingId) {
+        return transition(bookingId, List.of(BookingStatus.PENDING),
+                new Update().set("status", BookingStatus.CONFIRMED).set("confirmedAt", LocalDateTime.now()),
+                "Only pending bookings can be confirmed");
     }
 
     public Booking startBooking(String bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + bookingId));
-
-        if (!"confirmed".equals(booking.getStatus())) {
-            throw new RuntimeException("Only confirmed bookings can be started");
-        }
-
-        booking.setStatus("active");
-        return bookingRepository.save(booking);
+        return transition(bookingId, List.of(BookingStatus.CONFIRMED),
+                new Update().set("status", BookingStatus.ACTIVE),
+                "Only confirmed bookings can be started");
     }
 
     public Booking completeBooking(String bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + bookingId));
-
-        if (!"active".equals(booking.getStatus())) {
-            throw new RuntimeException("Only active bookings can be completed");
-        }
-
-        booking.setStatus("completed");
-        return bookingRepository.save(booking);
+        return transition(bookingId, List.of(BookingStatus.ACTIVE),
+                new Update().set("status", BookingStatus.COMPLETED),
+                "Only active bookings can be completed");
     }
 
     public Booking cancelBooking(String bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + bookingId));
-
-        if ("completed".equals(booking.getStatus()) || "cancelled".equals(booking.getStatus())) {
-            throw new RuntimeException("Cannot cancel completed or already cancelled bookings");
-        }
-
-        booking.setStatus("cancelled");
-        booking.setCancelledAt(LocalDateTime.now());
-        return bookingRepository.save(booking);
+        return transition(bookingId, BookingStatus.BLOCKING,
+                new Update().set("status", BookingStatus.CANCELLED).set("cancelledAt", LocalDateTime.now()),
+                "Cannot cancel completed or already cancelled bookings");
     }
 
     public Booking updateBooking(String id, Booking bookingDetails) {
@@ -149,57 +178,73 @@ public class BookingService {
                 .orElseThrow(() -> new RuntimeException("Booking not found with id: " + id));
 
         // Only allow updates for pending and confirmed bookings
-        if ("active".equals(booking.getStatus()) || "completed".equals(booking.getStatus()) || 
-            "cancelled".equals(booking.getStatus())) {
+        if (booking.getStatus() != BookingStatus.PENDING && booking.getStatus() != BookingStatus.CONFIRMED) {
             throw new RuntimeException("Cannot update active, completed, or cancelled bookings");
         }
 
+        boolean datesChanged = !booking.getStartDate().equals(bookingDetails.getStartDate()) ||
+            !booking.getEndDate().equals(bookingDetails.getEndDate());
+
         // Check for conflicts if dates are being changed
-        if (!booking.getStartDate().equals(bookingDetails.getStartDate()) || 
-            !booking.getEndDate().equals(bookingDetails.getEndDate())) {
-            
-            List<Booking> conflicts = bookingRepository.findConflictingBookings(
+        if (datesChanged) {
+            List<BookingIntervalIndex.Interval> conflicts = new java.util.ArrayList<>(intervalIndex.findConflicts(
                 booking.getVehicleId(),
                 bookingDetails.getStartDate(),
                 bookingDetails.getEndDate()
-            );
+            ));
 
             // Remove current booking from conflicts
-            conflicts.removeIf(b -> b.getId().equals(booking.getId()));
+            conflicts.removeIf(b -> b.getBookingId().equals(booking.getId()));
 
             if (!conflicts.isEmpty()) {
                 throw new RuntimeException("Vehicle is not available for the selected time period");
             }
         }
 
-        // Update booking details
-        booking.setStartDate(bookingDetails.getStartDate());
-        booking.setEndDate(bookingDetails.getEndDate());
-        booking.setPurpose(bookingDetails.getPurpose());
-        booking.setPickupLocation(bookingDetails.getPickupLocation());
-        booking.setDropoffLocation(bookingDetails.getDropoffLocation());
-        booking.setContactNumber(bookingDetails.getContactNumber());
-        booking.setNotes(bookingDetails.getNotes());
+        // Only the edited fields are written, and only while the booking is still editable, so a
+        // confirm, cancel, expiry or driver assignment made since the read above is kept
+        List<BookingStatus> editable = List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+        String illegalMessage = "Cannot update active, completed, or cancelled bookings";
+        Update edit = editedFields(bookingDetails);
+        if (!datesChanged) {
+            return transition(id, editable, edit, illegalMessage);
+        }
 
-        return bookingRepository.save(booking);
+        // New dates take the vehicle's reservation like a new booking; a lost commit puts back the
+        // edited fields as read, provided the new dates are still the stored ones
+        Update restore = editedFields(booking);
+        return reservationService.reserve(booking.getVehicleId(), booking.getId(),
+            () -> checkNoConflicts(booking.getVehicleId(), booking.getId(),
+                bookingDetails.getStartDate(), bookingDetails.getEndDate(), false),
+            () -> transition(id, editable, edit, illegalMessage),
+            () -> {
+                mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(id)
+                        .and("startDate").is(bookingDetails.getStartDate())
+                        .and("endDate").is(bookingDetails.getEndDate())), restore, Booking.class);
+                bookingRepository.findById(id).ifPresent(this::track);
+            });
     }
 
     public Booking assignDriverToBooking(String bookingId, String driverId, String driverName, String routeId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found with id: " + bookingId));
-
-        booking.setAssignedDriverId(driverId);
-        booking.setAssignedDriverName(driverName);
-        booking.setAssignedRouteId(routeId);
-        booking.setAssignedAt(LocalDateTime.now());
-        
-        // Auto-confirm the booking when driver is assigned
-        if ("pending".equals(booking.getStatus())) {
-            booking.setStatus("confirmed");
-            booking.setConfirmedAt(LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        // Auto-confirm the booking when driver is assigned; only a booking still pending is confirmed
+        Booking confirmed = applyTransition(bookingId, List.of(BookingStatus.PENDING),
+                assignment(driverId, driverName, routeId, now)
+                        .set("status", BookingStatus.CONFIRMED).set("confirmedAt", now));
+        if (confirmed != null) {
+            return confirmed;
         }
+        return transition(bookingId, List.of(BookingStatus.CONFIRMED, BookingStatus.ACTIVE),
+                assignment(driverId, driverName, routeId, now),
+                "Drivers can only be assigned to pending, confirmed or active bookings");
+    }
 
-        return bookingRepository.save(booking);
+    private static Update assignment(String driverId, String driverName, String routeId, LocalDateTime assignedAt) {
+        return new Update()
+                .set("assignedDriverId", driverId)
+                .set("assignedDriverName", driverName)
+                .set("assignedRouteId", routeId)
+                .set("assignedAt", assignedAt);
     }
 
     public List<Booking> getBookingsByDriver(String driverId) {
@@ -217,6 +262,85 @@ public class BookingService {
     }
 
     public void deleteBooking(String id) {
-        bookingRepository.deleteById(id);
+        Booking deleted = mongoTemplate.findAndRemove(Query.query(Criteria.where("_id").is(id)), Booking.class);
+        intervalIndex.remove(id);
+        expiryService.untrack(id);
+        counterService.recordDeleted(deleted);
+    }
+
+    // Applies a status change in one findAndModify that only matches while the booking is in one of
+    // the expected statuses, so concurrent transitions cannot both succeed
+    private Booking transition(String bookingId, Collection<BookingStatus> expectedStatuses, Update update, String illegalMessage) {
+        Booking booking = applyTransition(bookingId, expectedStatuses, update);
+        if (booking == null) {
+            if (!bookingRepository.existsById(bookingId)) {
+                throw new RuntimeException("Booking not found with id: " + bookingId);
+            }
+            throw new RuntimeException(illegalMessage);
+        }
+        return booking;
+    }
+
+    // As transition(), returning null when the booking is missing or in another status
+    private Booking applyTransition(String bookingId, Collection<BookingStatus> expectedStatuses, Update update) {
+        Booking booking = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(bookingId).and("status").in(expectedStatuses)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Booking.class);
+        if (booking == null) {
+            return null;
+        }
+        track(booking);
+        // The expected statuses of a transition always share one counter, so any of them will do
+        counterService.recordTransition(booking.getUserId(), expectedStatuses.iterator().next(), booking.getStatus());
+        return booking;
+    }
+
+    // The fields a booking update may change
+    private static Update editedFields(Booking booking) {
+        return new Update()
+                .set("startDate", booking.getStartDate())
+                .set("endDate", booking.getEndDate())
+                .set("purpose", booking.getPurpose())
+                .set("pickupLocation", booking.getPickupLocation())
+                .set("dropoffLocation", booking.getDropoffLocation())
+                .set("pickupLatitude", booking.getPickupLatitude())
+                .set("pickupLongitude", booking.getPickupLongitude())
+                .set("dropoffLatitude", booking.getDropoffLatitude())
+                .set("dropoffLongitude", booking.getDropoffLongitude())
+                .set("contactNumber", booking.getContactNumber())
+                .set("notes", booking.getNotes());
+    }
+
+    // Conflicts straight from Mongo, ignoring the booking itself
+    private void checkNoConflicts(String vehicleId, String bookingId, LocalDateTime startDate,
+                                  LocalDateTime endDate, boolean detailed) {
+        List<BookingIntervalIndex.Interval> conflicts = new java.util.ArrayList<>();
+        for (Booking conflict : bookingRepository.findConflictingBookings(vehicleId, startDate, endDate)) {
+            if (!conflict.getId().equals(bookingId)) {
+                conflicts.add(new BookingIntervalIndex.Interval(conflict.getId(), conflict.getStartDate(), conflict.getEndDate()));
+            }
+        }
+        if (!conflicts.isEmpty()) {
+            throw new RuntimeException(detailed ? conflictMessage(conflicts)
+                    : "Vehicle is not available for the selected time period");
+        }
+    }
+
+    private static String conflictMessage(List<BookingIntervalIndex.Interval> conflicts) {
+        StringBuilder conflictDetails = new StringBuilder("Vehicle is not available for the selected time period. Conflicting bookings: ");
+        for (BookingIntervalIndex.Interval conflict : conflicts) {
+            conflictDetails.append(String.format("[%s to %s] ", 
+                conflict.getStartDate().toString(), 
+                conflict.getEndDate().toString()));
+        }
+        return conflictDetails.toString();
+    }
+
+    // The in-memory views that follow the saved state of every booking
+    private void track(Booking booking) {
+        intervalIndex.update(booking);
+        expiryService.track(booking);
     }
 }
@@ -0,0 +1,182 @@
+package com.neurofleetx.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurofleetx.entity.Booking;
+import com.neurofleetx.entity.BookingStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Keyset pagination over booking listings ordered by (startDate, id). A page is read with a range
+// condition on the last row of the previous page instead of a skip, so every page costs the same
+// index scan however deep the client pages; the (owner, startDate, _id) indexes on Booking serve
+// each listing. The cursor is an opaque token holding that last row and the sort order.
+@Service
+public class BookingTimelineService {
+
+    // Fields that may be requested in a projection
+    private static final Set<String> FIELDS = new HashSet<>();
+
+    static {
+        for (Field field : Booking.class.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers())) {
+                FIELDS.add(field.getName());
+            }
+        }
+    }
+
+    // Listings that can be paged, by the booking field they filter on
+    public enum Listing {
+        ALL(null),
+        USER("userId"),
+        VEHICLE("vehicleId"),
+        DRIVER("assignedDriverId"),
+        STATUS("status");
+
+        private final String field;
+
+        Listing(String field) {
+            this.field = field;
+        }
+    }
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${booking.page.default-limit:50}")
+    private int defaultLimit;
+
+    @Value("${booking.page.max-limit:200}")
+    private int maxLimit;
+
+    // One page of the listing. fields is a comma-separated projection (id and startDate are always
+    // returned, as the cursor needs them); order is "desc" (newest first, the default) or "asc" and
+    // must not change while following a cursor.
+    public Map<String, Object> getPage(Listing listing, String value, Integer limit, String cursor,
+                                       String fields, String order) {
+        int size = limit == null ? defaultLimit : limit;
+        if (size < 1 || size > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        boolean ascending = "asc".equalsIgnoreCase(order);
+        if (order != null && !ascending && !"desc".equalsIgnoreCase(order)) {
+            throw new IllegalArgumentException("order must be asc or desc");
+        }
+
+        List<Criteria> conditions = new ArrayList<>();
+        if (listing.field != null) {
+            Object filter = listing == Listing.STATUS ? BookingStatus.from(value) : value;
+            conditions.add(Criteria.where(listing.field).is(filter));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            conditions.add(after(cursor, ascending));
+        }
+        Query query = new Query();
+        if (!conditions.isEmpty()) {
+            query.addCriteria(conditions.size() == 1 ? conditions.get(0)
+                    : new Criteria().andOperator(conditions.toArray(new Criteria[0])));
+        }
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        query.with(Sort.by(direction, "startDate").and(Sort.by(direction, "_id")));
+        query.limit(size + 1);
+
+        List<String> projection = projection(fields);
+        if (projection != null) {
+            query.fields().include("startDate");
+            projection.forEach(query.fields()::include);
+        }
+
+        List<Booking> bookings = mongoTemplate.find(query, Booking.class);
+        boolean more = bookings.size() > size;
+        if (more) {
+            bookings = bookings.subList(0, size);
+        }
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("data", projection == null ? bookings : project(bookings, projection));
+        page.put("count", bookings.size());
+        page.put("limit", size);
+        page.put("nextCursor", more ? encode(bookings.get(bookings.size() - 1), ascending) : null);
+        return page;
+    }
+
+    private static List<String> projection(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        List<String> names = new ArrayList<>();
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            if (!FIELDS.contains(trimmed)) {
+                throw new IllegalArgumentException("Unknown booking field: " + trimmed);
+            }
+            names.add(trimmed);
+        }
+        return names;
+    }
+
+    // Only the requested fields in the response, rather than the unread ones as nulls
+    private List<Map<String, Object>> project(List<Booking> bookings, List<String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(bookings.size());
+        for (Booking booking : bookings) {
+            Map<String, Object> all = objectMapper.convertValue(booking, new TypeReference<Map<String, Object>>() {});
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", all.get("id"));
+            row.put("startDate", all.get("startDate"));
+            for (String field : fields) {
+                row.put(field, all.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // Rows after the cursor's row in the page order
+    private static Criteria after(String cursor, boolean ascending) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        if (parts.length != 3 || !parts[2].equals(ascending ? "asc" : "desc")) {
+            throw new IllegalArgumentException("Invalid cursor for this order");
+        }
+        LocalDateTime startDate;
+        try {
+            startDate = LocalDateTime.parse(parts[0]);
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        String id = parts[1];
+        return ascending
+                ? new Criteria().orOperator(
+                        Criteria.where("startDate").gt(startDate),
+                        Criteria.where("startDate").is(startDate).and("_id").gt(id))
+                : new Criteria().orOperator(
+                        Criteria.where("startDate").lt(startDate),
+                        Criteria.where("startDate").is(startDate).and("_id").lt(id));
+    }
+
+    private static String encode(Booking last, boolean ascending) {
+        String token = last.getStartDate() + "|" + last.getId() + "|" + (ascending ? "asc" : "desc");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
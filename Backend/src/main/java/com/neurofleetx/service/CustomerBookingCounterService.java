@@ -0,0 +1,230 @@
+package com.neurofleetx.service;
+
+import com.neurofleetx.entity.Booking;
+import com.neurofleetx.entity.BookingStatus;
+import com.neurofleetx.entity.Customer;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps the booking counters on Customer in step with the booking lifecycle. Changes are summed
+// per customer in memory and flushed as one $inc per customer on a short interval, so a burst of
+// bookings costs one write per customer rather than one per booking. A periodic reconciliation
+// recomputes every customer's counters from a $group over bookings to repair drift, e.g. from
+// writes that bypass BookingService or deltas lost in a crash.
+@Service
+public class CustomerBookingCounterService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${customer.counters.enabled:true}")
+    private boolean enabled;
+
+    // Pending changes per customer: total, active, completed, cancelled
+    private final Map<String, int[]> pending = new ConcurrentHashMap<>();
+
+    private final AtomicLong flushedCustomers = new AtomicLong();
+    private final AtomicLong reconciledCustomers = new AtomicLong();
+
+    // A booking was created
+    public void recordCreated(Booking booking) {
+        if (booking != null) {
+            add(booking.getUserId(), 1, booking.getStatus(), 1);
+        }
+    }
+
+    // A booking was deleted; takes the booking as it was before the delete
+    public void recordDeleted(Booking booking) {
+        if (booking != null) {
+            add(booking.getUserId(), -1, booking.getStatus(), -1);
+        }
+    }
+
+    // A booking moved between statuses
+    public void recordTransition(String userId, BookingStatus from, BookingStatus to) {
+        if (counter(from) != counter(to)) {
+            add(userId, 0, from, -1);
+            add(userId, 0, to, 1);
+        }
+    }
+
+    // Writes the pending changes, one $inc per customer
+    @Scheduled(fixedDelayString = "${customer.counters.flush-millis:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class);
+        Map<String, int[]> taken = new HashMap<>();
+        int customers = 0;
+        for (String userId : pending.keySet()) {
+            int[] delta = pending.remove(userId);
+            if (delta == null || (delta[0] == 0 && delta[1] == 0 && delta[2] == 0 && delta[3] == 0)) {
+                continue;
+            }
+            taken.put(userId, delta);
+            bulk.updateOne(Query.query(Criteria.where("_id").is(userId)), new Update()
+                    .inc("totalBookings", delta[0])
+                    .inc("activeBookings", delta[1])
+                    .inc("completedBookings", delta[2])
+                    .inc("cancelledBookings", delta[3]));
+            customers++;
+        }
+        if (customers == 0) {
+            return;
+        }
+        try {
+            bulk.execute();
+            flushedCustomers.addAndGet(customers);
+        } catch (Exception e) {
+            // Put the changes back for the next flush. An unordered bulk may have applied some of
+            // them before failing, which the next reconciliation repairs.
+            taken.forEach(this::restore);
+            System.err.println("Could not flush customer booking counters: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Recompute every customer's counters from the bookings collection
+    @Scheduled(fixedDelayString = "${customer.counters.reconcile-millis:21600000}",
+               initialDelayString = "${customer.counters.reconcile-millis:21600000}")
+    public void scheduledReconcile() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Map<String, Object> result = reconcile();
+            System.out.println("Reconciled booking counters of " + result.get("customersUpdated") + " customers");
+        } catch (Exception e) {
+            System.err.println("Booking counter reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    public synchronized Map<String, Object> reconcile() {
+        long started = System.nanoTime();
+        // Apply what is buffered first, so it is not added again on top of the recomputed values
+        flush();
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").ne(null)),
+                Aggregation.group("userId", "status").count().as("count"));
+        Map<String, int[]> counts = new HashMap<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, Booking.class, Document.class)) {
+            Document key = group.get("_id", Document.class);
+            int[] customer = counts.computeIfAbsent(key.getString("userId"), u -> new int[4]);
+            int count = ((Number) group.get("count")).intValue();
+            customer[0] += count;
+            int index = counter(parseStatus(key.getString("status")));
+            if (index > 0) {
+                customer[index] += count;
+            }
+        }
+
+        // Customers with changes recorded since the flush above may already be counted by the
+        // aggregation, and those changes would be $inc'd on top of the recomputed values; they are
+        // left to the next reconciliation
+        Set<String> skipped = new HashSet<>(pending.keySet());
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Customer.class);
+        counts.forEach((userId, customer) -> {
+            if (!skipped.contains(userId)) {
+                bulk.updateOne(Query.query(Criteria.where("_id").is(userId)), counters(customer));
+            }
+        });
+        // Customers without bookings
+        Set<String> excluded = new HashSet<>(counts.keySet());
+        excluded.addAll(skipped);
+        bulk.updateMulti(Query.query(Criteria.where("_id").nin(excluded)), counters(new int[4]));
+        int updated = bulk.execute().getModifiedCount();
+        reconciledCustomers.addAndGet(updated);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("customersWithBookings", counts.size());
+        result.put("customersUpdated", updated);
+        result.put("customersSkipped", skipped.size());
+        result.put("elapsedMillis", (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("pendingCustomers", pending.size());
+        stats.put("flushedCustomers", flushedCustomers.get());
+        stats.put("reconciledCustomers", reconciledCustomers.get());
+        return stats;
+    }
+
+    private void restore(String userId, int[] delta) {
+        pending.merge(userId, delta, (current, restored) -> {
+            for (int i = 0; i < current.length; i++) {
+                current[i] += restored[i];
+            }
+            return current;
+        });
+    }
+
+    private void add(String userId, int total, BookingStatus status, int sign) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        int index = counter(status);
+        pending.compute(userId, (id, delta) -> {
+            int[] next = delta == null ? new int[4] : delta;
+            next[0] += total;
+            if (index > 0) {
+                next[index] += sign;
+            }
+            return next;
+        });
+    }
+
+    // Unknown statuses only count towards the total
+    private static BookingStatus parseStatus(String value) {
+        try {
+            return BookingStatus.from(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // Index of the counter a status is counted in: 1 active, 2 completed, 3 cancelled, 0 none
+    private static int counter(BookingStatus status) {
+        if (status == null) {
+            return 0;
+        }
+        return switch (status) {
+            case PENDING, CONFIRMED, ACTIVE -> 1;
+            case COMPLETED -> 2;
+            case CANCELLED -> 3;
+        };
+    }
+
+    private static Update counters(int[] values) {
+        return new Update()
+                .set("totalBookings", values[0])
+                .set("activeBookings", values[1])
+                .set("completedBookings", values[2])
+                .set("cancelledBookings", values[3]);
+    }
+}
@@ -0,0 +1,174 @@
+package com.neurofleetx.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.neurofleetx.entity.Booking;
+import com.neurofleetx.entity.BookingStatus;
+import com.neurofleetx.entity.Driver;
+import com.neurofleetx.optimization.AuctionAssignment;
+import com.neurofleetx.repository.BookingRepository;
+import com.neurofleetx.repository.DriverRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Automatic dispatch: matches pending bookings to free drivers by distance from the driver's live
+// position to the pickup, then assigns the whole batch with one bulk write. The write only touches
+// bookings that are still pending and unassigned, so manual assignments made meanwhile win.
+@Service
+public class DispatchService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    // Run the dispatcher on a schedule; POST /api/dispatch/run works either way
+    @Value("${dispatch.enabled:false}")
+    private boolean enabled;
+
+    // Nearest drivers each booking may be matched to
+    @Value("${dispatch.candidate-drivers:10}")
+    private int candidateDrivers;
+
+    @Value("${dispatch.max-distance-km:25}")
+    private double maxDistanceKm;
+
+    // Cost of leaving a booking unassigned in this round, in km of driver distance
+    @Value("${dispatch.unassigned-penalty-km:50}")
+    private double unassignedPenaltyKm;
+
+    // Drivers whose last position is older than this are not dispatched (0 = no limit)
+    @Value("${dispatch.location-max-age-minutes:30}")
+    private long locationMaxAgeMinutes;
+
+    @Scheduled(fixedDelayString = "${dispatch.interval-millis:60000}",
+               initialDelayString = "${dispatch.interval-millis:60000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Map<String, Object> result = run(false);
+            System.out.println("Dispatch assigned " + result.get("applied") + " of "
+                    + result.get("pendingBookings") + " pending bookings");
+        } catch (Exception e) {
+            System.err.println("Dispatch run failed: " + e.getMessage());
+        }
+    }
+
+    // Match pending bookings to available drivers; a dry run only reports the assignment
+    public synchronized Map<String, Object> run(boolean dryRun) {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+
+        // Drivers already holding an open booking are busy
+        Set<String> busy = new HashSet<>();
+        List<Booking> pending = new ArrayList<>();
+        int withoutPickup = 0;
+        for (Booking booking : bookingRepository.findByStatusIn(BookingStatus.BLOCKING)) {
+            if (booking.getAssignedDriverId() != null) {
+                busy.add(booking.getAssignedDriverId());
+            } else if (booking.getStatus() != BookingStatus.PENDING) {
+                continue;
+            } else if (booking.getPickupLatitude() == null || booking.getPickupLongitude() == null) {
+                withoutPickup++;
+            } else {
+                pending.add(booking);
+            }
+        }
+
+        LocalDateTime oldestPosition = locationMaxAgeMinutes > 0 ? now.minusMinutes(locationMaxAgeMinutes) : null;
+        List<Driver> drivers = driverRepository.findAll().stream()
+                .filter(d -> "active".equals(d.getStatus()) && d.getLatitude() != null && d.getLongitude() != null)
+                .filter(d -> !busy.contains(d.getId()))
+                .filter(d -> oldestPosition == null
+                        || (d.getLastLocationUpdate() != null && d.getLastLocationUpdate().isAfter(oldestPosition)))
+                .toList();
+
+        long solveStarted = System.nanoTime();
+        AuctionAssignment.Result result = new AuctionAssignment(
+                drivers.stream().mapToDouble(Driver::getLatitude).toArray(),
+                drivers.stream().mapToDouble(Driver::getLongitude).toArray(),
+                pending.stream().mapToDouble(Booking::getPickupLatitude).toArray(),
+                pending.stream().mapToDouble(Booking::getPickupLongitude).toArray(),
+                candidateDrivers, maxDistanceKm, unassignedPenaltyKm).solve();
+        long solveMillis = (System.nanoTime() - solveStarted) / 1_000_000;
+
+        List<Map<String, Object>> assignments = new ArrayList<>();
+        BulkOperations bulk = dryRun ? null
+                : mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Booking.class);
+        double totalDistance = 0;
+        for (int i = 0; i < pending.size(); i++) {
+            int d = result.getDriverOf()[i];
+            if (d < 0) {
+                continue;
+            }
+            Booking booking = pending.get(i);
+            Driver driver = drivers.get(d);
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("bookingId", booking.getId());
+            entry.put("driverId", driver.getId());
+            entry.put("driverName", driver.getName());
+            entry.put("distanceKm", result.getDistanceKm()[i]);
+            assignments.add(entry);
+            totalDistance += result.getDistanceKm()[i];
+
+            if (bulk != null) {
+                // Same effect as assignDriverToBooking, including the auto-confirm
+                bulk.updateOne(
+                        Query.query(Criteria.where("_id").is(booking.getId())
+                                .and("status").is(BookingStatus.PENDING)
+                                .and("assignedDriverId").is(null)),
+                        new Update()
+                                .set("assignedDriverId", driver.getId())
+                                .set("assignedDriverName", driver.getName())
+                                .set("assignedAt", now)
+                                .set("status", BookingStatus.CONFIRMED)
+                                .set("confirmedAt", now));
+            }
+        }
+
+        int applied = 0;
+        if (bulk != null && !assignments.isEmpty()) {
+            BulkWriteResult write = bulk.execute();
+            applied = write.getModifiedCount();
+        }
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("algorithm", AuctionAssignment.ALGORITHM);
+        summary.put("dryRun", dryRun);
+        summary.put("pendingBookings", pending.size());
+        summary.put("bookingsWithoutPickup", withoutPickup);
+        summary.put("availableDrivers", drivers.size());
+        summary.put("assignments", assignments);
+        summary.put("unassignedBookings", pending.size() - assignments.size());
+        summary.put("applied", applied);
+        // Bookings confirmed or assigned by someone else between the read and the bulk write
+        summary.put("skippedConcurrent", dryRun ? 0 : assignments.size() - applied);
+        summary.put("totalDistanceKm", Math.round(totalDistance * 100.0) / 100.0);
+        summary.put("candidateEdges", result.getCandidateEdges());
+        summary.put("auctionPhases", result.getPhases());
+        summary.put("bids", result.getBids());
+        summary.put("solveMillis", solveMillis);
+        summary.put("elapsedMillis", (System.nanoTime() - started) / 1_000_000);
+        return summary;
+    }
+}
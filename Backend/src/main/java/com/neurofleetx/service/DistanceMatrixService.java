@@ -0,0 +1,282 @@
+package com.neurofleetx.service;
+
+import com.neurofleetx.entity.RouteOptimization.Location;
+import com.neurofleetx.optimization.DistanceMatrix;
+import com.neurofleetx.optimization.DistanceTable;
+import com.neurofleetx.optimization.GeoDistance;
+import com.neurofleetx.optimization.GeoPoints;
+import com.neurofleetx.optimization.HaversineKernel;
+import com.neurofleetx.routing.RoutingEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+@Service
+public class DistanceMatrixService {
+
+    // Upper bound for a single matrix; the triangular index must stay within int range
+    public static final int MAX_LOCATIONS = 10000;
+
+    @Autowired
+    private RoutingEngine routingEngine;
+
+    @Value("${optimization.distance-matrix.max-bytes:134217728}")
+    private long maxCacheBytes;
+
+    // How many recently used tables are searched for reusable cells on a miss
+    @Value("${optimization.distance-matrix.reuse-scan-limit:16}")
+    private int reuseScanLimit;
+
+    // LRU order: iteration runs from least to most recently used
+    private final LinkedHashMap<TableKey, DistanceTable> cache = new LinkedHashMap<>(64, 0.75f, true);
+    private long cachedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong cellsReused = new AtomicLong();
+    // Each new cell is counted once: routed over the road network, or else computed by haversine
+    private final AtomicLong cellsComputed = new AtomicLong();
+    private final AtomicLong roadCells = new AtomicLong();
+
+    // Get a distance matrix for the locations, in the order given
+    public DistanceMatrix getMatrix(List<Location> locations) {
+        double[] latitudes = new double[locations.size()];
+        double[] longitudes = new double[locations.size()];
+        for (int i = 0; i < locations.size(); i++) {
+            latitudes[i] = locations.get(i).getLatitude();
+            longitudes[i] = locations.get(i).getLongitude();
+        }
+        return getMatrix(latitudes, longitudes);
+    }
+
+    // Get a distance matrix for parallel coordinate arrays, in the order given
+    public DistanceMatrix getMatrix(double[] latitudes, double[] longitudes) {
+        if (latitudes.length > MAX_LOCATIONS) {
+            throw new IllegalArgumentException("Distance matrix limited to " + MAX_LOCATIONS + " locations");
+        }
+        long[] requested = new long[latitudes.length];
+        for (int i = 0; i < requested.length; i++) {
+            requested[i] = GeoDistance.pointKey(latitudes[i], longitudes[i]);
+        }
+
+        // The cache is keyed by the location set, so sort and de-duplicate the keys
+        long[] canonical = Arrays.stream(requested).sorted().distinct().toArray();
+        DistanceTable table = getTable(canonical);
+
+        int[] index = new int[requested.length];
+        for (int i = 0; i < requested.length; i++) {
+            index[i] = table.indexOf(requested[i]);
+        }
+        return new DistanceMatrix(table, index);
+    }
+
+    // Cache statistics: hit ratio, reuse and footprint
+    public Map<String, Object> getCacheStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", lookups == 0 ? 0.0 : Math.round(hitCount * 10000.0 / lookups) / 10000.0);
+        stats.put("evictions", evictions.get());
+        stats.put("cellsReused", cellsReused.get());
+        stats.put("cellsComputed", cellsComputed.get());
+        stats.put("roadCells", roadCells.get());
+        stats.put("haversineKernel", GeoDistance.kernel().name());
+        synchronized (cache) {
+            stats.put("cachedMatrices", cache.size());
+            stats.put("memoryBytes", cachedBytes);
+        }
+        stats.put("maxMemoryBytes", maxCacheBytes);
+        return stats;
+    }
+
+    // Which distances the matrices hold; part of the optimization result cache key
+    public String getDistanceModel() {
+        return routingEngine.getSignature();
+    }
+
+    // Drop all cached tables
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+            cachedBytes = 0;
+        }
+    }
+
+    private DistanceTable getTable(long[] canonical) {
+        TableKey key = new TableKey(canonical);
+        List<DistanceTable> donors;
+        synchronized (cache) {
+            DistanceTable cached = cache.get(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+            donors = recentTables();
+        }
+        misses.incrementAndGet();
+
+        DistanceTable table = buildTable(canonical, donors);
+        synchronized (cache) {
+            DistanceTable existing = cache.putIfAbsent(key, table);
+            if (existing != null) {
+                return existing;
+            }
+            cachedBytes += table.memoryBytes();
+            evictIfNeeded();
+        }
+        return table;
+    }
+
+    // Most recently used tables first, bounded by the reuse scan limit
+    private List<DistanceTable> recentTables() {
+        List<DistanceTable> all = new ArrayList<>(cache.values());
+        Collections.reverse(all);
+        return all.size() > reuseScanLimit ? new ArrayList<>(all.subList(0, reuseScanLimit)) : all;
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<TableKey, DistanceTable>> it = cache.entrySet().iterator();
+        // Always keep the most recent table, even if it alone exceeds the budget
+        while (cachedBytes > maxCacheBytes && cache.size() > 1 && it.hasNext()) {
+            DistanceTable evicted = it.next().getValue();
+            it.remove();
+            cachedBytes -= evicted.memoryBytes();
+            evictions.incrementAndGet();
+        }
+    }
+
+    private DistanceTable buildTable(long[] keys, List<DistanceTable> donors) {
+        int n = keys.length;
+        int cells = DistanceTable.cellCount(n);
+        double[] distances = new double[cells];
+        double[] durations = new double[cells];
+        Arrays.fill(distances, Double.NaN);
+
+        int filled = 0;
+        for (DistanceTable donor : donors) {
+            if (filled == cells) {
+                break;
+            }
+            filled += copySharedCells(keys, donor, distances, durations);
+        }
+        cellsReused.addAndGet(filled);
+
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = GeoDistance.keyLatitude(keys[i]);
+            longitudes[i] = GeoDistance.keyLongitude(keys[i]);
+        }
+
+        // Road travel where the network covers both points. The table is symmetric, so each cell
+        // takes the mean of both directions; it is written only by the row of its larger index.
+        if (filled < cells && routingEngine.isAvailable()) {
+            AtomicLong routed = new AtomicLong();
+            routingEngine.matrix(latitudes, longitudes, (j, toKm, toMinutes, fromKm, fromMinutes) -> {
+                int rowStart = j * (j - 1) / 2;
+                int count = 0;
+                for (int i = 0; i < j; i++) {
+                    int cell = rowStart + i;
+                    if (Double.isNaN(distances[cell]) && !Double.isNaN(toKm[i]) && !Double.isNaN(fromKm[i])) {
+                        distances[cell] = (toKm[i] + fromKm[i]) / 2;
+                        durations[cell] = (toMinutes[i] + fromMinutes[i]) / 2;
+                        count++;
+                    }
+                }
+                routed.addAndGet(count);
+            });
+            roadCells.addAndGet(routed.get());
+            filled += (int) routed.get();
+        }
+
+        // Rows are independent, so the remaining cells are computed in parallel. A row with no
+        // cell filled yet is written by the haversine kernel in place, others through a buffer.
+        if (filled < cells) {
+            GeoPoints points = GeoPoints.of(latitudes, longitudes);
+            HaversineKernel kernel = GeoDistance.kernel();
+            IntStream.range(1, n).parallel().forEach(j -> {
+                int rowStart = j * (j - 1) / 2;
+                int missing = 0;
+                for (int i = 0; i < j; i++) {
+                    if (Double.isNaN(distances[rowStart + i])) {
+                        missing++;
+                    }
+                }
+                if (missing == j) {
+                    kernel.distancesKm(latitudes[j], longitudes[j], points, 0, j, distances, rowStart);
+                    for (int cell = rowStart; cell < rowStart + j; cell++) {
+                        durations[cell] = distances[cell] * GeoDistance.MINUTES_PER_KM;
+                    }
+                } else if (missing > 0) {
+                    double[] row = new double[j];
+                    kernel.distancesKm(latitudes[j], longitudes[j], points, 0, j, row, 0);
+                    for (int i = 0; i < j; i++) {
+                        int cell = rowStart + i;
+                        if (Double.isNaN(distances[cell])) {
+                            distances[cell] = row[i];
+                            durations[cell] = row[i] * GeoDistance.MINUTES_PER_KM;
+                        }
+                    }
+                }
+            });
+            cellsComputed.addAndGet(cells - filled);
+        }
+        return new DistanceTable(keys, distances, durations);
+    }
+
+    // Copies the cells of the submatrix shared with a cached table; returns how many were newly filled
+    private int copySharedCells(long[] keys, DistanceTable donor, double[] distances, double[] durations) {
+        int[] ours = new int[keys.length];
+        int[] theirs = new int[keys.length];
+        int shared = 0;
+        for (int i = 0; i < keys.length; i++) {
+            int donorIndex = donor.indexOf(keys[i]);
+            if (donorIndex >= 0) {
+                ours[shared] = i;
+                theirs[shared] = donorIndex;
+                shared++;
+            }
+        }
+        int copied = 0;
+        for (int b = 1; b < shared; b++) {
+            for (int a = 0; a < b; a++) {
+                int cell = DistanceTable.cell(ours[a], ours[b]);
+                if (Double.isNaN(distances[cell])) {
+                    int donorCell = DistanceTable.cell(theirs[a], theirs[b]);
+                    distances[cell] = donor.distanceCell(donorCell);
+                    durations[cell] = donor.durationCell(donorCell);
+                    copied++;
+                }
+            }
+        }
+        return copied;
+    }
+
+    private static final class TableKey {
+        private final long[] keys;
+        private final int hash;
+
+        TableKey(long[] keys) {
+            this.keys = keys;
+            this.hash = Arrays.hashCode(keys);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof TableKey other && hash == other.hash && Arrays.equals(keys, other.keys);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
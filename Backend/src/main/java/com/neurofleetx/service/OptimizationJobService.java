@@ -0,0 +1,364 @@
+package com.neurofleetx.service;
+
+import com.neurofleetx.entity.OptimizationJob;
+import com.neurofleetx.entity.RouteOptimization;
+import com.neurofleetx.optimization.SolveOptions;
+import com.neurofleetx.repository.OptimizationJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class OptimizationJobService {
+
+    // Progress is written back to Mongo at most this often so other nodes can serve polling
+    private static final long PROGRESS_WRITE_INTERVAL_MILLIS = 1000;
+
+    @Autowired
+    private OptimizationJobRepository jobRepository;
+
+    @Autowired
+    private RouteOptimizationService routeOptimizationService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${optimization.jobs.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${optimization.jobs.workers:2}")
+    private int workerCount;
+
+    @Value("${optimization.jobs.stream-timeout-ms:300000}")
+    private long streamTimeoutMillis;
+
+    // A running job whose owner has not renewed its heartbeat for this long is handed to another node
+    @Value("${optimization.jobs.lease-millis:60000}")
+    private long leaseMillis;
+
+    // Identifies this instance as the owner of the jobs it claims
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final PriorityBlockingQueue<QueuedJob> queue = new PriorityBlockingQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Set<String> queuedIds = ConcurrentHashMap.newKeySet();
+    private final Set<String> runningIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Double> liveProgress = new ConcurrentHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+
+    @PostConstruct
+    public void startWorkers() {
+        for (int i = 0; i < workerCount; i++) {
+            Thread worker = new Thread(this::workLoop, "optimization-job-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+    }
+
+    @PreDestroy
+    public void stopWorkers() {
+        workers.forEach(Thread::interrupt);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        recoverJobs();
+    }
+
+    // Return jobs whose owner stopped renewing its lease to pending, then queue pending jobs this node
+    // has room for; the rest stay pending in Mongo for a later sweep or another node
+    @Scheduled(fixedDelayString = "${optimization.jobs.recover-millis:30000}",
+               initialDelayString = "${optimization.jobs.recover-millis:30000}")
+    public void recoverJobs() {
+        try {
+            LocalDateTime expired = LocalDateTime.now().minusNanos(leaseMillis * 1_000_000);
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("status").is("active").orOperator(
+                            Criteria.where("heartbeatAt").lt(expired),
+                            Criteria.where("heartbeatAt").is(null))),
+                    new Update().set("status", "pending").unset("startedAt").unset("ownerId").unset("heartbeatAt"),
+                    OptimizationJob.class);
+
+            List<OptimizationJob> pending = new ArrayList<>(jobRepository.findByStatus("pending"));
+            pending.sort(Comparator.comparingInt(OptimizationJob::getPriority).reversed()
+                    .thenComparing(OptimizationJob::getSubmittedAt, Comparator.nullsLast(Comparator.naturalOrder())));
+            for (OptimizationJob job : pending) {
+                if (!queuedIds.contains(job.getId()) && !runningIds.contains(job.getId()) && !enqueue(job)) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Could not recover optimization jobs: " + e.getMessage());
+        }
+    }
+
+    // Renew the lease on the jobs this node is running
+    @Scheduled(fixedDelayString = "${optimization.jobs.heartbeat-millis:15000}")
+    public void heartbeat() {
+        if (runningIds.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.updateMulti(
+                    Query.query(Criteria.where("_id").in(runningIds).and("status").is("active").and("ownerId").is(nodeId)),
+                    new Update().set("heartbeatAt", LocalDateTime.now()),
+                    OptimizationJob.class);
+        } catch (Exception e) {
+            System.err.println("Could not renew optimization job leases: " + e.getMessage());
+        }
+    }
+
+    // Save the stops as a pending optimization and queue a job for it
+    public OptimizationJob submit(RouteOptimization routeOptimization, SolveOptions options, int priority) {
+        if (!reserveSlot()) {
+            throw new IllegalStateException("Optimization queue is full, try again later");
+        }
+        OptimizationJob job = new OptimizationJob();
+        try {
+            RouteOptimization pending = routeOptimizationService.savePendingOptimization(routeOptimization);
+            job.setRouteOptimizationId(pending.getId());
+            job.setStatus("pending");
+            job.setPriority(priority);
+            job.setSeed(options.getSeed());
+            job.setStarts(options.getStarts());
+            job.setTimeLimitMillis(options.getTimeLimitMillis());
+            job.setSubmittedAt(LocalDateTime.now());
+            job = jobRepository.save(job);
+        } catch (RuntimeException e) {
+            queued.decrementAndGet();
+            throw e;
+        }
+        queuedIds.add(job.getId());
+        queue.add(new QueuedJob(job.getId(), job.getPriority(), sequence.incrementAndGet()));
+        return job;
+    }
+
+    // Get a job with the latest in-memory progress applied
+    public Optional<OptimizationJob> getJob(String id) {
+        return jobRepository.findById(id).map(job -> {
+            Double live = liveProgress.get(id);
+            if (live != null) {
+                job.setBestDistance(live);
+            }
+            return job;
+        });
+    }
+
+    public List<OptimizationJob> getJobsByStatus(String status) {
+        return jobRepository.findByStatus(status);
+    }
+
+    // Stream status changes and best-distance improvements as server-sent events
+    public SseEmitter subscribe(String id) {
+        OptimizationJob job = getJob(id).orElseThrow(() -> new IllegalArgumentException("Job not found with id: " + id));
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        if (isFinished(job)) {
+            send(emitter, "status", job);
+            emitter.complete();
+            return emitter;
+        }
+        List<SseEmitter> emitters = subscribers.computeIfAbsent(id, key -> new CopyOnWriteArrayList<>());
+        emitters.add(emitter);
+        Runnable remove = () -> emitters.remove(emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        send(emitter, "status", job);
+        return emitter;
+    }
+
+    public Map<String, Object> getQueueStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queued", queued.get());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("workers", workerCount);
+        stats.put("running", runningIds.size());
+        return stats;
+    }
+
+    // Queue a job if there is room; false when the queue is full
+    private boolean enqueue(OptimizationJob job) {
+        if (!reserveSlot()) {
+            return false;
+        }
+        if (!queuedIds.add(job.getId())) {
+            queued.decrementAndGet();
+            return true;
+        }
+        queue.add(new QueuedJob(job.getId(), job.getPriority(), sequence.incrementAndGet()));
+        return true;
+    }
+
+    // Take one of the queueCapacity slots, atomically so concurrent submits cannot overfill the queue
+    private boolean reserveSlot() {
+        while (true) {
+            int current = queued.get();
+            if (current >= queueCapacity) {
+                return false;
+            }
+            if (queued.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void workLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                QueuedJob next = queue.take();
+                queued.decrementAndGet();
+                queuedIds.remove(next.jobId);
+                runningIds.add(next.jobId);
+                try {
+                    run(next.jobId);
+                } finally {
+                    runningIds.remove(next.jobId);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                System.err.println("Optimization worker error: " + e.getMessage());
+            }
+        }
+    }
+
+    private void run(String jobId) {
+        // Claim the job atomically so a job queued by several nodes only runs once; the claim is a
+        // lease this node renews in heartbeat() while the solve runs
+        LocalDateTime now = LocalDateTime.now();
+        OptimizationJob job = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(jobId).and("status").is("pending")),
+                new Update().set("status", "active").set("startedAt", now)
+                        .set("ownerId", nodeId).set("heartbeatAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                OptimizationJob.class);
+        if (job == null) {
+            return;
+        }
+        publish(job, "status");
+
+        SolveOptions options = new SolveOptions();
+        options.setSeed(job.getSeed());
+        options.setStarts(job.getStarts());
+        options.setTimeLimitMillis(job.getTimeLimitMillis());
+
+        AtomicLong lastWrite = new AtomicLong();
+        try {
+            RouteOptimization result = routeOptimizationService.runPendingOptimization(
+                    job.getRouteOptimizationId(), options, best -> onProgress(jobId, best, lastWrite));
+            job.setStatus("completed");
+            job.setBestDistance(result.getEstimatedDistance());
+        } catch (Exception e) {
+            job.setStatus("failed");
+            job.setError(e.getMessage());
+            try {
+                routeOptimizationService.markPendingOptimizationFailed(job.getRouteOptimizationId());
+            } catch (Exception markError) {
+                System.err.println("Could not mark route optimization failed: " + markError.getMessage());
+            }
+        }
+        job.setCompletedAt(LocalDateTime.now());
+        liveProgress.remove(jobId);
+        // Only while this node still holds the lease; otherwise the job has been handed to another node
+        Update finish = new Update().set("status", job.getStatus()).set("completedAt", job.getCompletedAt());
+        if (job.getBestDistance() != null) {
+            finish.set("bestDistance", job.getBestDistance());
+        }
+        if (job.getError() != null) {
+            finish.set("error", job.getError());
+        }
+        if (mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(jobId).and("status").is("active").and("ownerId").is(nodeId)),
+                finish, OptimizationJob.class).getModifiedCount() == 0) {
+            System.err.println("Optimization job " + jobId + " lost its lease before finishing");
+            // The node now running the job reports its outcome; these clients can reconnect there
+            List<SseEmitter> emitters = subscribers.remove(jobId);
+            if (emitters != null) {
+                emitters.forEach(SseEmitter::complete);
+            }
+            return;
+        }
+
+        publish(job, "status");
+        List<SseEmitter> emitters = subscribers.remove(jobId);
+        if (emitters != null) {
+            emitters.forEach(SseEmitter::complete);
+        }
+    }
+
+    private void onProgress(String jobId, double bestDistance, AtomicLong lastWrite) {
+        liveProgress.merge(jobId, bestDistance, Math::min);
+        List<SseEmitter> emitters = subscribers.get(jobId);
+        if (emitters != null) {
+            Map<String, Object> event = Map.of("jobId", jobId, "bestDistance", bestDistance);
+            emitters.forEach(emitter -> send(emitter, "progress", event));
+        }
+        long now = System.currentTimeMillis();
+        long last = lastWrite.get();
+        if (now - last >= PROGRESS_WRITE_INTERVAL_MILLIS && lastWrite.compareAndSet(last, now)) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(jobId)),
+                    new Update().set("bestDistance", liveProgress.get(jobId)), OptimizationJob.class);
+        }
+    }
+
+    private void publish(OptimizationJob job, String eventName) {
+        List<SseEmitter> emitters = subscribers.get(job.getId());
+        if (emitters != null) {
+            emitters.forEach(emitter -> send(emitter, eventName, job));
+        }
+    }
+
+    private static void send(SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    private static boolean isFinished(OptimizationJob job) {
+        return "completed".equals(job.getStatus()) || "failed".equals(job.getStatus());
+    }
+
+    // Higher priority first, then submission order
+    private static final class QueuedJob implements Comparable<QueuedJob> {
+        final String jobId;
+        final int priority;
+        final long sequence;
+
+        QueuedJob(String jobId, int priority, long sequence) {
+            this.jobId = jobId;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(QueuedJob other) {
+            int byPriority = Integer.compare(other.priority, priority);
+            return byPriority != 0 ? byPriority : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.neurofleetx.service;
+
+import com.neurofleetx.entity.OptimizationResult;
+import com.neurofleetx.repository.OptimizationResultRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Content-addressed cache of solver results. The key is the SHA-256 of everything the solver output
+// depends on: algorithm, seed, start count, time limit, distance model, haversine kernel and the
+// canonically ordered stop set. A run cut short by a time limit is only reused for the same limit.
+// Entries live in a bounded in-memory LRU with TTL and, when persistent, in a Mongo collection with
+// a TTL index so other nodes can reuse them.
+@Service
+public class OptimizationResultCacheService {
+
+    // Bumped whenever a solver change makes earlier results stale
+    private static final String KEY_VERSION = "v2";
+
+    @Autowired
+    private OptimizationResultRepository resultRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${optimization.result-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${optimization.result-cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${optimization.result-cache.ttl-minutes:1440}")
+    private long ttlMinutes;
+
+    // Share results between nodes through Mongo
+    @Value("${optimization.result-cache.persistent:true}")
+    private boolean persistent;
+
+    // LRU order: iteration runs from least to most recently used
+    private final LinkedHashMap<String, OptimizationResult> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong sharedHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stores = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Key for a solver run; timeLimitMillis is 0 for none, kernel the haversine kernel in use and
+    // stopKeys are GeoDistance point keys with the fixed start first
+    public String keyFor(String algorithm, long seed, int starts, long timeLimitMillis, String distanceModel,
+                         String kernel, long[] stopKeys) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((KEY_VERSION + "|" + algorithm + "|" + seed + "|" + starts + "|" + timeLimitMillis
+                    + "|" + distanceModel + "|" + kernel + "|")
+                    .getBytes(StandardCharsets.UTF_8));
+            byte[] buffer = new byte[8];
+            for (long key : stopKeys) {
+                for (int b = 0; b < 8; b++) {
+                    buffer[b] = (byte) (key >>> (56 - 8 * b));
+                }
+                digest.update(buffer);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    // Cached tour for the key, or null; checks memory first, then the shared collection
+    public int[] lookup(String key, int stops) {
+        if (!enabled) {
+            return null;
+        }
+        OptimizationResult result;
+        synchronized (entries) {
+            result = entries.get(key);
+            if (result != null && isExpired(result)) {
+                entries.remove(key);
+                result = null;
+            }
+        }
+        if (result != null) {
+            hits.incrementAndGet();
+            return toTour(result, stops);
+        }
+        if (persistent) {
+            try {
+                result = resultRepository.findById(key).filter(r -> !isExpired(r)).orElse(null);
+            } catch (Exception e) {
+                System.err.println("Optimization result cache read failed: " + e.getMessage());
+            }
+            int[] tour = result == null ? null : toTour(result, stops);
+            if (tour != null) {
+                sharedHits.incrementAndGet();
+                remember(result);
+                return tour;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void store(String key, String algorithm, int[] tour, double distance) {
+        if (!enabled) {
+            return;
+        }
+        List<Integer> order = new ArrayList<>(tour.length);
+        for (int index : tour) {
+            order.add(index);
+        }
+        OptimizationResult result = new OptimizationResult(key, algorithm, order, distance);
+        remember(result);
+        stores.incrementAndGet();
+        if (persistent) {
+            try {
+                resultRepository.save(result);
+            } catch (Exception e) {
+                System.err.println("Optimization result cache write failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        long hitCount = hits.get() + sharedHits.get();
+        long lookups = hitCount + misses.get();
+        stats.put("enabled", enabled);
+        stats.put("persistent", persistent);
+        stats.put("hits", hits.get());
+        stats.put("sharedHits", sharedHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRatio", lookups == 0 ? 0.0 : Math.round(hitCount * 10000.0 / lookups) / 10000.0);
+        stats.put("stores", stores.get());
+        stats.put("evictions", evictions.get());
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMinutes", ttlMinutes);
+        return stats;
+    }
+
+    // Drop cached results here and in the shared collection
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        if (persistent) {
+            resultRepository.deleteAll();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createTtlIndex() {
+        if (!enabled || !persistent) {
+            return;
+        }
+        try {
+            mongoTemplate.indexOps(OptimizationResult.class)
+                    .createIndex(new Index().on("createdAt", Sort.Direction.ASC).expire(Duration.ofMinutes(ttlMinutes)));
+        } catch (Exception e) {
+            System.err.println("Could not create optimization result TTL index: " + e.getMessage());
+        }
+    }
+
+    private void remember(OptimizationResult result) {
+        synchronized (entries) {
+            entries.put(result.getId(), result);
+            Iterator<OptimizationResult> eldest = entries.values().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    // Mongo removes expired documents only once a minute, so the age is checked on read as well
+    private boolean isExpired(OptimizationResult result) {
+        return result.getCreatedAt() == null
+                || result.getCreatedAt().plusMinutes(ttlMinutes).isBefore(LocalDateTime.now());
+    }
+
+    // The stored tour, if it is a permutation of the stops that starts at the fixed first stop
+    private static int[] toTour(OptimizationResult result, int stops) {
+        List<Integer> order = result.getTour();
+        if (order == null || order.size() != stops || order.get(0) != 0) {
+            return null;
+        }
+        int[] tour = new int[stops];
+        boolean[] seen = new boolean[stops];
+        for (int i = 0; i < stops; i++) {
+            int index = order.get(i);
+            if (index < 0 || index >= stops || seen[index]) {
+                return null;
+            }
+            seen[index] = true;
+            tour[i] = index;
+        }
+        return tour;
+    }
+}
@@ -2,18 +2,52 @@ package com.neurofleetx.service;
 
 import com.neurofleetx.entity.RouteOptimization;
 import com.neurofleetx.entity.RouteOptimization.Location;
+import com.neurofleetx.optimization.CapacitatedRouter;
+import com.neurofleetx.optimization.CapacitatedRoutingRequest;
+import com.neurofleetx.optimization.GeoDistance;
+import com.neurofleetx.optimization.DistanceMatrix;
+import com.neurofleetx.optimization.RouteOptimizationStrategies;
+import com.neurofleetx.optimization.RouteOptimizationStrategy;
+import com.neurofleetx.optimization.SolveOptions;
+import com.neurofleetx.optimization.TourImprover;
+import com.neurofleetx.optimization.TourProblem;
+import com.neurofleetx.optimization.TourSolution;
 import com.neurofleetx.repository.RouteOptimizationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleConsumer;
 
 @Service
 public class RouteOptimizationService {
 
+    // Operating cost per kilometer used to value distance savings
+    private static final double COST_PER_KM = 2.5;
+
+    // Positions around an inserted or removed stop that local repair may touch
+    private static final int REPAIR_RADIUS = 5;
+    private static final long REPAIR_TIME_LIMIT_MILLIS = 200;
+
     @Autowired
     private RouteOptimizationRepository routeOptimizationRepository;
 
+    @Autowired
+    private DistanceMatrixService distanceMatrixService;
+
+    @Autowired
+    private RouteOptimizationStrategies strategies;
+
+    @Autowired
+    private ForkJoinPool optimizationPool;
+
+    @Autowired
+    private RouteOptimizationStatisticsService statisticsService;
+
+    @Autowired
+    private OptimizationResultCacheService resultCache;
+
     // Get all route optimizations
     public List<RouteOptimization> getAllRouteOptimizations() {
         return routeOptimizationRepository.findAll();
@@ -46,16 +80,61 @@ public class RouteOptimizationService {
 
     // Create optimized route using AI algorithm
     public RouteOptimization createOptimizedRoute(RouteOptimization routeOptimization) {
+        return createOptimizedRoute(routeOptimization, new SolveOptions());
+    }
+
+    // Create optimized route with per-request solver options (seed, multi-start count, time limit)
+    public RouteOptimization createOptimizedRoute(RouteOptimization routeOptimization, SolveOptions options) {
         routeOptimization.setCalculatedAt(LocalDateTime.now());
         routeOptimization.setStatus("active");
         
-        // Simulate AI optimization calculations
         if (routeOptimization.getOptimizedPath() != null && !routeOptimization.getOptimizedPath().isEmpty()) {
-            // Calculate estimated metrics
+            // Reorder the stops with the selected strategy, then calculate estimated metrics
+            optimizePath(routeOptimization, options, null);
             calculateRouteMetrics(routeOptimization);
         }
         
-        return routeOptimizationRepository.save(routeOptimization);
+        RouteOptimization saved = routeOptimizationRepository.save(routeOptimization);
+        statisticsService.record(null, saved);
+        return saved;
+    }
+
+    // Save the submitted stops as a pending optimization; the path is computed later by a job
+    public RouteOptimization savePendingOptimization(RouteOptimization routeOptimization) {
+        if (routeOptimization.getOptimizedPath() == null || routeOptimization.getOptimizedPath().isEmpty()) {
+            throw new IllegalArgumentException("At least one stop is required");
+        }
+        routeOptimization.setId(null);
+        routeOptimization.setStatus("pending");
+        routeOptimization.setCalculatedAt(null);
+        RouteOptimization saved = routeOptimizationRepository.save(routeOptimization);
+        statisticsService.record(null, saved);
+        return saved;
+    }
+
+    // Optimize a pending route optimization and activate it, reporting the best distance as it improves
+    public RouteOptimization runPendingOptimization(String id, SolveOptions options, DoubleConsumer progress) {
+        RouteOptimization routeOptimization = routeOptimizationRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Route optimization not found with id: " + id));
+        RouteOptimizationStatisticsService.StatisticsSnapshot before = statisticsService.snapshot(routeOptimization);
+        optimizePath(routeOptimization, options, progress);
+        calculateRouteMetrics(routeOptimization);
+        routeOptimization.setCalculatedAt(LocalDateTime.now());
+        routeOptimization.setStatus("active");
+        RouteOptimization saved = routeOptimizationRepository.save(routeOptimization);
+        statisticsService.record(before, saved);
+        return saved;
+    }
+
+    // Mark a pending route optimization whose job failed, so it does not stay pending forever
+    public void markPendingOptimizationFailed(String id) {
+        routeOptimizationRepository.findById(id)
+                .filter(routeOptimization -> "pending".equals(routeOptimization.getStatus()))
+                .ifPresent(routeOptimization -> {
+                    RouteOptimizationStatisticsService.StatisticsSnapshot before = statisticsService.snapshot(routeOptimization);
+                    routeOptimization.setStatus("failed");
+                    statisticsService.record(before, routeOptimizationRepository.save(routeOptimization));
+                });
     }
 
     // Update route optimization
@@ -63,6 +142,7 @@ public class RouteOptimizationService {
         Optional<RouteOptimization> existing = routeOptimizationRepository.findById(id);
         if (existing.isPresent()) {
             RouteOptimization updated = existing.get();
+            RouteOptimizationStatisticsService.StatisticsSnapshot before = statisticsService.snapshot(updated);
             updated.setRouteId(routeOptimization.getRouteId());
             updated.setVehicleId(routeOptimization.getVehicleId());
             updated.setDriverId(routeOptimization.getDriverId());
@@ -74,44 +154,218 @@ public class RouteOptimizationService {
             // Recalculate metrics
             calculateRouteMetrics(updated);
             
-            return routeOptimizationRepository.save(updated);
+            RouteOptimization saved = routeOptimizationRepository.save(updated);
+            statisticsService.record(before, saved);
+            return saved;
         }
         return null;
     }
 
+    // Add a stop by cheapest insertion, then repair the path around it
+    public RouteOptimization addStop(String id, Location stop) {
+        RouteOptimization route = routeOptimizationRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Route optimization not found with id: " + id));
+        RouteOptimizationStatisticsService.StatisticsSnapshot before = statisticsService.snapshot(route);
+        List<Location> path = route.getOptimizedPath() == null ? new ArrayList<>() : new ArrayList<>(route.getOptimizedPath());
+        path.add(stop);
+
+        if (path.size() > 2) {
+            DistanceMatrix matrix = distanceMatrixService.getMatrix(path);
+            int added = path.size() - 1;
+            int[] tour = new int[path.size()];
+            int position = cheapestInsertion(matrix, added);
+            for (int i = 0, k = 0; i < tour.length; i++) {
+                tour[i] = i == position ? added : k++;
+            }
+            TourImprover.repair(matrix, tour, position, REPAIR_RADIUS, repairProblem(matrix));
+            path = reorder(path, tour);
+        }
+
+        route.setOptimizedPath(path);
+        calculateRouteMetrics(route);
+        route.setCalculatedAt(LocalDateTime.now());
+        RouteOptimization saved = routeOptimizationRepository.save(route);
+        statisticsService.record(before, saved);
+        return saved;
+    }
+
+    // Local repair runs on the request thread, so it gets a short deadline of its own
+    private static TourProblem repairProblem(DistanceMatrix matrix) {
+        TourProblem problem = new TourProblem(matrix);
+        problem.setDeadlineNanos(System.nanoTime() + REPAIR_TIME_LIMIT_MILLIS * 1_000_000);
+        return problem;
+    }
+
+    // Remove the stop with the given sequence number, then repair the path around the gap
+    public RouteOptimization removeStop(String id, int sequenceNumber) {
+        RouteOptimization route = routeOptimizationRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("Route optimization not found with id: " + id));
+        RouteOptimizationStatisticsService.StatisticsSnapshot before = statisticsService.snapshot(route);
+        List<Location> path = route.getOptimizedPath() == null ? new ArrayList<>() : new ArrayList<>(route.getOptimizedPath());
+        int removed = -1;
+        for (int i = 0; i < path.size(); i++) {
+            if (path.get(i).getSequenceNumber() == sequenceNumber) {
+                removed = i;
+                break;
+            }
+        }
+        if (removed < 0) {
+            throw new NoSuchElementException("No stop with sequence number " + sequenceNumber);
+        }
+        path.remove(removed);
+
+        if (removed > 0 && path.size() > 2) {
+            DistanceMatrix matrix = distanceMatrixService.getMatrix(path);
+            int[] tour = new TourProblem(matrix).identityTour();
+            TourImprover.repair(matrix, tour, removed, REPAIR_RADIUS, repairProblem(matrix));
+            path = reorder(path, tour);
+        }
+
+        route.setOptimizedPath(path);
+        calculateRouteMetrics(route);
+        route.setCalculatedAt(LocalDateTime.now());
+        RouteOptimization saved = routeOptimizationRepository.save(route);
+        statisticsService.record(before, saved);
+        return saved;
+    }
+
     // Delete route optimization
     public void deleteRouteOptimization(String id) {
-        routeOptimizationRepository.deleteById(id);
+        routeOptimizationRepository.findById(id).ifPresent(route -> {
+            routeOptimizationRepository.delete(route);
+            statisticsService.record(statisticsService.snapshot(route), null);
+        });
     }
 
-    // Get optimization statistics
+    // Get optimization statistics (single aggregation, or the materialized copy when enabled)
     public Map<String, Object> getOptimizationStatistics() {
-        List<RouteOptimization> allOptimizations = routeOptimizationRepository.findAll();
-        
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalRoutes", allOptimizations.size());
-        stats.put("activeRoutes", routeOptimizationRepository.findByStatus("active").size());
-        stats.put("completedRoutes", routeOptimizationRepository.findByStatus("completed").size());
-        
-        double avgEfficiency = allOptimizations.stream()
-            .mapToDouble(RouteOptimization::getFuelEfficiency)
-            .average()
-            .orElse(0.0);
-        stats.put("averageFuelEfficiency", Math.round(avgEfficiency * 100.0) / 100.0);
-        
-        double totalSavings = allOptimizations.stream()
-            .mapToDouble(RouteOptimization::getCostSavings)
-            .sum();
-        stats.put("totalCostSavings", Math.round(totalSavings * 100.0) / 100.0);
-        
-        double avgLoadUtilization = allOptimizations.stream()
-            .filter(r -> r.getLoadCapacity() > 0)
-            .mapToDouble(r -> (double) r.getCurrentLoad() / r.getLoadCapacity() * 100)
-            .average()
-            .orElse(0.0);
-        stats.put("averageLoadUtilization", Math.round(avgLoadUtilization * 100.0) / 100.0);
-        
-        return stats;
+        return statisticsService.getStatistics();
+    }
+
+    // Run several strategies on the same stops and report quality against run time
+    public List<Map<String, Object>> compareStrategies(List<Location> stops, List<String> algorithms, SolveOptions options) {
+        if (stops == null || stops.size() < 2) {
+            throw new IllegalArgumentException("At least two stops are required");
+        }
+        List<String> names = algorithms == null || algorithms.isEmpty() ? strategies.getNames() : algorithms;
+        for (String name : names) {
+            if (!strategies.contains(name)) {
+                throw new IllegalArgumentException("Unknown optimization algorithm: " + name);
+            }
+        }
+
+        DistanceMatrix matrix = distanceMatrixService.getMatrix(stops);
+        double baseline = matrix.pathDistance(new TourProblem(matrix).identityTour());
+        List<TourSolution> solutions = new ArrayList<>();
+        for (String name : names) {
+            solutions.add(solve(strategies.resolve(name), options.toProblem(matrix), null));
+        }
+        double best = solutions.stream().mapToDouble(TourSolution::getDistance).min().orElse(0.0);
+
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (TourSolution solution : solutions) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("algorithm", solution.getAlgorithm());
+            result.put("estimatedDistance", round(solution.getDistance()));
+            result.put("estimatedDuration", round(solution.getDuration()));
+            result.put("improvementPercent", baseline > 0 ? round((baseline - solution.getDistance()) / baseline * 100) : 0.0);
+            result.put("gapToBestPercent", best > 0 ? round((solution.getDistance() - best) / best * 100) : 0.0);
+            result.put("elapsedMillis", solution.getElapsedMillis());
+            result.put("sequence", solution.getTour());
+            results.add(result);
+        }
+        return results;
+    }
+
+    // Split orders across vehicles within their remaining capacity and persist one optimization per vehicle
+    public Map<String, Object> solveCapacitated(CapacitatedRoutingRequest request) {
+        Location depot = request.getDepot();
+        List<CapacitatedRoutingRequest.Order> orders = request.getOrders();
+        List<CapacitatedRoutingRequest.Vehicle> vehicles = request.getVehicles();
+        if (depot == null || orders == null || orders.isEmpty() || vehicles == null || vehicles.isEmpty()) {
+            throw new IllegalArgumentException("A depot, at least one order and at least one vehicle are required");
+        }
+
+        long started = System.nanoTime();
+        int n = orders.size();
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        int[] demands = new int[n];
+        for (int i = 0; i < n; i++) {
+            CapacitatedRoutingRequest.Order order = orders.get(i);
+            if (order.getDemand() < 0) {
+                throw new IllegalArgumentException("Order demand must not be negative");
+            }
+            latitudes[i] = order.getLatitude();
+            longitudes[i] = order.getLongitude();
+            demands[i] = order.getDemand();
+        }
+        int[] capacities = vehicles.stream()
+                .mapToInt(v -> Math.max(0, v.getLoadCapacity() - v.getCurrentLoad()))
+                .toArray();
+
+        CapacitatedRouter router = new CapacitatedRouter(
+                depot.getLatitude(), depot.getLongitude(), latitudes, longitudes, demands);
+        // On the solver pool, so the parallel neighbour search inside stays off the common pool
+        CapacitatedRouter.Result result = optimizationPool.submit(() -> router.solve(capacities)).join();
+
+        String routeId = "CVRP-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+        List<RouteOptimization> routes = new ArrayList<>();
+        for (CapacitatedRouter.VehicleRoute vehicleRoute : result.getRoutes()) {
+            CapacitatedRoutingRequest.Vehicle vehicle = vehicles.get(vehicleRoute.getVehicle());
+            List<Location> path = new ArrayList<>();
+            path.add(new Location(depot.getLatitude(), depot.getLongitude(), depot.getAddress(), 0));
+            double roundTrips = 0;
+            for (int index : vehicleRoute.getOrders()) {
+                CapacitatedRoutingRequest.Order order = orders.get(index);
+                path.add(new Location(order.getLatitude(), order.getLongitude(), order.getAddress(), 0));
+                roundTrips += 2 * GeoDistance.haversineKm(depot.getLatitude(), depot.getLongitude(),
+                        order.getLatitude(), order.getLongitude());
+            }
+            path.add(new Location(depot.getLatitude(), depot.getLongitude(), depot.getAddress(), 0));
+            for (int i = 0; i < path.size(); i++) {
+                path.get(i).setSequenceNumber(i + 1);
+            }
+
+            RouteOptimization route = new RouteOptimization();
+            route.setRouteId(routeId);
+            route.setVehicleId(vehicle.getVehicleId());
+            route.setDriverId(vehicle.getDriverId());
+            route.setOptimizedPath(path);
+            route.setLoadCapacity(vehicle.getLoadCapacity());
+            route.setCurrentLoad(vehicle.getCurrentLoad() + vehicleRoute.getLoad());
+            route.setEstimatedDistance(vehicleRoute.getDistance());
+            route.setEstimatedDuration(vehicleRoute.getDistance() * GeoDistance.MINUTES_PER_KM);
+            route.setFuelEfficiency(12.0 + (Math.random() * 8.0));
+            // Savings against serving every order with its own round trip from the depot
+            route.setBaselineDistance(roundTrips);
+            updateCostSavings(route);
+            route.setOptimizationAlgorithm(CapacitatedRouter.ALGORITHM);
+            route.setStatus("active");
+            route.setCalculatedAt(LocalDateTime.now());
+            routes.add(route);
+        }
+        routes = routeOptimizationRepository.saveAll(routes);
+        routes.forEach(route -> statisticsService.record(null, route));
+
+        List<Map<String, Object>> unassigned = new ArrayList<>();
+        for (int index : result.getUnassigned()) {
+            CapacitatedRoutingRequest.Order order = orders.get(index);
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("index", index);
+            entry.put("address", order.getAddress());
+            entry.put("demand", order.getDemand());
+            unassigned.add(entry);
+        }
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("routeId", routeId);
+        summary.put("routes", routes);
+        summary.put("unassignedOrders", unassigned);
+        summary.put("vehiclesUsed", routes.size());
+        summary.put("totalDistance", round(result.getTotalDistance()));
+        summary.put("elapsedMillis", (System.nanoTime() - started) / 1_000_000);
+        return summary;
     }
 
     // Generate mock optimized routes for testing
@@ -119,7 +373,7 @@ public class RouteOptimizationService {
         List<RouteOptimization> mockRoutes = new ArrayList<>();
         Random random = new Random();
         
-        String[] algorithms = {"Dijkstra", "A* Algorithm", "Genetic Algorithm", "Ant Colony"};
+        String[] algorithms = strategies.getNames().toArray(new String[0]);
         String[] statuses = {"active", "pending", "completed"};
         
         for (int i = 0; i < count; i++) {
@@ -151,32 +405,149 @@ public class RouteOptimizationService {
             route.setStatus(statuses[random.nextInt(statuses.length)]);
             route.setCalculatedAt(LocalDateTime.now().minusHours(random.nextInt(48)));
             
-            mockRoutes.add(routeOptimizationRepository.save(route));
+            RouteOptimization saved = routeOptimizationRepository.save(route);
+            statisticsService.record(null, saved);
+            mockRoutes.add(saved);
         }
         
         return mockRoutes;
     }
 
+    // Position at which the last matrix index is cheapest to insert into the path 0 .. added-1
+    private static int cheapestInsertion(DistanceMatrix matrix, int added) {
+        int bestPosition = added;
+        double bestCost = matrix.distance(added - 1, added);
+        for (int p = 0; p < added - 1; p++) {
+            double cost = matrix.distance(p, added) + matrix.distance(added, p + 1) - matrix.distance(p, p + 1);
+            if (cost < bestCost) {
+                bestCost = cost;
+                bestPosition = p + 1;
+            }
+        }
+        return bestPosition;
+    }
+
+    private static List<Location> reorder(List<Location> path, int[] tour) {
+        List<Location> ordered = new ArrayList<>(tour.length);
+        for (int index : tour) {
+            ordered.add(path.get(index));
+        }
+        return ordered;
+    }
+
+    // Helper method to reorder the path with the selected strategy and value the savings.
+    // The solver sees the stops in canonical order (start first, the rest by coordinate), so the
+    // same stop set always yields the same problem and its result can be reused from the cache.
+    private void optimizePath(RouteOptimization route, SolveOptions options, DoubleConsumer progress) {
+        List<Location> path = route.getOptimizedPath();
+        RouteOptimizationStrategy strategy = strategies.resolve(route.getOptimizationAlgorithm());
+        route.setOptimizationAlgorithm(strategy.getName());
+        // Measured afresh below; short paths are measured against themselves
+        route.setBaselineDistance(0);
+        if (path.size() < 3) {
+            return;
+        }
+
+        int[] canonical = canonicalOrder(path);
+        List<Location> stops = reorder(path, canonical);
+        DistanceMatrix matrix = distanceMatrixService.getMatrix(stops);
+        int[] submitted = new int[canonical.length];
+        for (int position = 0; position < canonical.length; position++) {
+            submitted[canonical[position]] = position;
+        }
+        double submittedDistance = matrix.pathDistance(submitted);
+
+        String cacheKey = resultCache.isEnabled() ? resultCacheKey(strategy, options, stops) : null;
+        int[] tour = cacheKey == null ? null : resultCache.lookup(cacheKey, stops.size());
+        double distance;
+        if (tour != null) {
+            distance = matrix.pathDistance(tour);
+            if (progress != null) {
+                progress.accept(distance);
+            }
+        } else {
+            TourProblem problem = options.toProblem(matrix);
+            TourSolution solution = solve(strategy, problem, progress);
+            tour = solution.getTour();
+            distance = solution.getDistance();
+            // A run cut short by its time limit depends on machine speed, so it is not reusable
+            if (cacheKey != null && !problem.isExpired()) {
+                resultCache.store(cacheKey, strategy.getName(), tour, distance);
+            }
+        }
+
+        route.setOptimizedPath(reorder(stops, tour));
+        route.setBaselineDistance(submittedDistance);
+    }
+
+    // Start stays first; the other stops sort by coordinate key, equal points by submitted position
+    private static int[] canonicalOrder(List<Location> path) {
+        long[] keys = new long[path.size()];
+        Integer[] order = new Integer[path.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = GeoDistance.pointKey(path.get(i).getLatitude(), path.get(i).getLongitude());
+            order[i] = i;
+        }
+        Arrays.sort(order, 1, order.length, Comparator.comparingLong((Integer i) -> keys[i]));
+        return Arrays.stream(order).mapToInt(Integer::intValue).toArray();
+    }
+
+    private String resultCacheKey(RouteOptimizationStrategy strategy, SolveOptions options, List<Location> stops) {
+        long[] keys = new long[stops.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = GeoDistance.pointKey(stops.get(i).getLatitude(), stops.get(i).getLongitude());
+        }
+        long seed = options.getSeed() != null ? options.getSeed() : TourProblem.DEFAULT_SEED;
+        int starts = options.getStarts() != null && options.getStarts() > 0 ? options.getStarts() : 0;
+        long timeLimit = options.getTimeLimitMillis() != null && options.getTimeLimitMillis() > 0
+                ? options.getTimeLimitMillis() : 0;
+        return resultCache.keyFor(strategy.getName(), seed, starts, timeLimit,
+                distanceMatrixService.getDistanceModel(), GeoDistance.kernel().name(), keys);
+    }
+
+    // Solver work runs on the dedicated optimization pool; parallel streams inside a strategy stay on it too
+    private TourSolution solve(RouteOptimizationStrategy strategy, TourProblem problem, DoubleConsumer progress) {
+        long started = System.nanoTime();
+        problem.setProgressListener(progress);
+        TourSolution solution = optimizationPool.submit(() -> strategy.optimize(problem)).join();
+        solution.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        return solution;
+    }
+
     // Helper method to calculate route metrics
     private void calculateRouteMetrics(RouteOptimization route) {
         if (route.getOptimizedPath() == null || route.getOptimizedPath().isEmpty()) {
             return;
         }
-        
-        // Simulate distance calculation (in reality, use actual GPS coordinates)
-        double distance = route.getOptimizedPath().size() * 15.0; // Simplified
-        route.setEstimatedDistance(distance);
-        
-        // Simulate duration calculation
-        double duration = distance * 2.5; // minutes
-        route.setEstimatedDuration(duration);
+
+        // Number the stops in visiting order
+        List<Location> path = route.getOptimizedPath();
+        for (int i = 0; i < path.size(); i++) {
+            path.get(i).setSequenceNumber(i + 1);
+        }
+
+        // Distance and duration along the path, from the shared distance matrix
+        DistanceMatrix matrix = distanceMatrixService.getMatrix(path);
+        int[] order = new TourProblem(matrix).identityTour();
+        route.setEstimatedDistance(matrix.pathDistance(order));
+        route.setEstimatedDuration(matrix.pathDuration(order));
+        updateCostSavings(route);
         
         // Calculate fuel efficiency
         double fuelEfficiency = 12.0 + (Math.random() * 8.0);
         route.setFuelEfficiency(fuelEfficiency);
-        
-        // Calculate cost savings (compared to unoptimized route)
-        double costSavings = distance * 2.5 * (1 + Math.random() * 0.3);
-        route.setCostSavings(costSavings);
+    }
+
+    // Savings of the current path against the baseline, so they follow every edit of the path; a
+    // route without a baseline (e.g. saved before there was one) is measured against its current path
+    private static void updateCostSavings(RouteOptimization route) {
+        if (route.getBaselineDistance() <= 0) {
+            route.setBaselineDistance(route.getEstimatedDistance());
+        }
+        route.setCostSavings(Math.max(0.0, route.getBaselineDistance() - route.getEstimatedDistance()) * COST_PER_KM);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
     }
 }
@@ -0,0 +1,195 @@
+package com.neurofleetx.service;
+
+import com.neurofleetx.entity.RouteOptimization;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArithmeticOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Route-optimization statistics from one $group aggregation keyed by status. When
+// optimization.statistics.materialized is enabled the per-status totals are also kept in memory,
+// adjusted on every write made through RouteOptimizationService and re-synced periodically.
+@Service
+public class RouteOptimizationStatisticsService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${optimization.statistics.materialized:false}")
+    private boolean materialized;
+
+    // Materialized totals per status; null until the first refresh has completed
+    private Map<String, StatusTotals> totals;
+
+    // Running sums for the optimizations in one status
+    private static class StatusTotals {
+        private long count;
+        private double fuelEfficiencySum;
+        private double costSavingsSum;
+        private double utilizationSum;
+        private long utilizedCount;
+
+        void add(RouteOptimization route, int sign) {
+            count += sign;
+            fuelEfficiencySum += sign * route.getFuelEfficiency();
+            costSavingsSum += sign * route.getCostSavings();
+            if (route.getLoadCapacity() > 0) {
+                utilizationSum += sign * (double) route.getCurrentLoad() / route.getLoadCapacity();
+                utilizedCount += sign;
+            }
+        }
+    }
+
+    // Current statistics, from memory when materialized and warm, otherwise from Mongo
+    public Map<String, Object> getStatistics() {
+        if (materialized) {
+            synchronized (this) {
+                if (totals != null) {
+                    return summarize(totals);
+                }
+            }
+        }
+        return summarize(aggregate());
+    }
+
+    // Adjust the materialized totals for a write; either side may be null for inserts and deletes.
+    // The before side must be captured before the entity is modified.
+    public void record(StatisticsSnapshot before, RouteOptimization after) {
+        if (!materialized) {
+            return;
+        }
+        synchronized (this) {
+            if (totals == null) {
+                return;
+            }
+            if (before != null) {
+                totals.computeIfAbsent(before.route.getStatus(), s -> new StatusTotals()).add(before.route, -1);
+            }
+            if (after != null) {
+                totals.computeIfAbsent(after.getStatus(), s -> new StatusTotals()).add(after, 1);
+            }
+        }
+    }
+
+    // Contribution of an optimization as it is now, for a later record() call
+    public StatisticsSnapshot snapshot(RouteOptimization route) {
+        return route == null ? null : new StatisticsSnapshot(route);
+    }
+
+    // Copies the counted fields so later in-place edits do not change what gets subtracted
+    public static final class StatisticsSnapshot {
+        private final RouteOptimization route;
+
+        private StatisticsSnapshot(RouteOptimization source) {
+            this.route = new RouteOptimization();
+            route.setStatus(source.getStatus());
+            route.setFuelEfficiency(source.getFuelEfficiency());
+            route.setCostSavings(source.getCostSavings());
+            route.setLoadCapacity(source.getLoadCapacity());
+            route.setCurrentLoad(source.getCurrentLoad());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (materialized) {
+            refresh();
+        }
+    }
+
+    // Full re-sync corrects drift from writes that bypass the service
+    @Scheduled(fixedDelayString = "${optimization.statistics.refresh-millis:300000}",
+               initialDelayString = "${optimization.statistics.refresh-millis:300000}")
+    public void refresh() {
+        if (!materialized) {
+            return;
+        }
+        try {
+            Map<String, StatusTotals> fresh = aggregate();
+            synchronized (this) {
+                totals = fresh;
+            }
+        } catch (Exception e) {
+            System.err.println("Could not refresh route optimization statistics: " + e.getMessage());
+        }
+    }
+
+    private Map<String, StatusTotals> aggregate() {
+        Criteria hasCapacity = Criteria.where("loadCapacity").gt(0);
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.project("status", "fuelEfficiency", "costSavings")
+                        .and(ConditionalOperators.when(hasCapacity)
+                                .then(ArithmeticOperators.valueOf("currentLoad").divideBy("loadCapacity"))
+                                .otherwise(0)).as("utilization")
+                        .and(ConditionalOperators.when(hasCapacity).then(1).otherwise(0)).as("utilized"),
+                Aggregation.group("status")
+                        .count().as("count")
+                        .sum("fuelEfficiency").as("fuelEfficiencySum")
+                        .sum("costSavings").as("costSavingsSum")
+                        .sum("utilization").as("utilizationSum")
+                        .sum("utilized").as("utilizedCount"));
+
+        Map<String, StatusTotals> result = new HashMap<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, RouteOptimization.class, Document.class)) {
+            StatusTotals status = new StatusTotals();
+            status.count = number(group, "count").longValue();
+            status.fuelEfficiencySum = number(group, "fuelEfficiencySum").doubleValue();
+            status.costSavingsSum = number(group, "costSavingsSum").doubleValue();
+            status.utilizationSum = number(group, "utilizationSum").doubleValue();
+            status.utilizedCount = number(group, "utilizedCount").longValue();
+            result.put(group.getString("_id"), status);
+        }
+        return result;
+    }
+
+    private static Number number(Document document, String key) {
+        Object value = document.get(key);
+        return value instanceof Number n ? n : 0;
+    }
+
+    private static Map<String, Object> summarize(Map<String, StatusTotals> byStatus) {
+        long count = 0;
+        double fuelEfficiency = 0;
+        double savings = 0;
+        double utilization = 0;
+        long utilized = 0;
+        Map<String, Long> routesByStatus = new HashMap<>();
+        for (Map.Entry<String, StatusTotals> entry : byStatus.entrySet()) {
+            StatusTotals status = entry.getValue();
+            if (status.count == 0) {
+                continue;
+            }
+            count += status.count;
+            fuelEfficiency += status.fuelEfficiencySum;
+            savings += status.costSavingsSum;
+            utilization += status.utilizationSum;
+            utilized += status.utilizedCount;
+            routesByStatus.put(String.valueOf(entry.getKey()), status.count);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalRoutes", count);
+        stats.put("activeRoutes", routesByStatus.getOrDefault("active", 0L));
+        stats.put("completedRoutes", routesByStatus.getOrDefault("completed", 0L));
+        stats.put("routesByStatus", routesByStatus);
+        stats.put("averageFuelEfficiency", round(count == 0 ? 0.0 : fuelEfficiency / count));
+        stats.put("totalCostSavings", round(savings));
+        stats.put("averageLoadUtilization", round(utilized == 0 ? 0.0 : utilization / utilized * 100));
+        return stats;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -2,11 +2,23 @@ package com.neurofleetx.service;
 
 import com.neurofleetx.entity.Route;
 import com.neurofleetx.repository.RouteRepository;
+import com.neurofleetx.routing.RoutingEngine;
+import com.neurofleetx.routing.TravelEstimate;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.ZoneId;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +29,12 @@ public class RouteService {
     @Autowired
     private RouteRepository routeRepository;
 
+    @Autowired
+    private RoutingEngine routingEngine;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     public List<Route> getAllRoutes() {
         return routeRepository.findAll();
     }
@@ -54,6 +72,9 @@ public class RouteService {
     public Route createRoute(Route route, String createdByUsername) {
         route.setAssignedAt(LocalDateTime.now());
         route.setCreatedByUsername(createdByUsername);
+        if (route.getDistance() == null) {
+            estimateTravel(route);
+        }
         return routeRepository.save(route);
     }
 
@@ -71,37 +92,44 @@ public class RouteService {
     }
 
     public Route startTrip(String routeId) {
-        Route route = routeRepository.findById(routeId)
-                .orElseThrow(() -> new RuntimeException("Route not found with id: " + routeId));
-
-        if (!"assigned".equals(route.getStatus())) {
-            throw new RuntimeException("Route must be in 'assigned' status to start trip");
-        }
-
-        route.setStatus("in_progress");
-        route.setStartedAt(LocalDateTime.now());
-
-        return routeRepository.save(route);
+        return transition(routeId, "assigned",
+                new Update().set("status", "in_progress").set("startedAt", LocalDateTime.now()),
+                "Route must be in 'assigned' status to start trip");
     }
 
     public Route endTrip(String routeId) {
-        Route route = routeRepository.findById(routeId)
-                .orElseThrow(() -> new RuntimeException("Route not found with id: " + routeId));
-
-        if (!"in_progress".equals(route.getStatus())) {
-            throw new RuntimeException("Route must be in 'in_progress' status to end trip");
-        }
-
-        route.setStatus("completed");
-        route.setCompletedAt(LocalDateTime.now());
+        // Completion time and actual duration are set in one round trip from the stored start. The end
+        // is this server's clock, as for the start, so clock skew against the database cannot leak
+        // into durations; routes without a start keep their duration
+        Date completedAt = Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant());
+        AggregationExpression actualDuration = context -> new Document("$cond", List.of(
+                new Document("$eq", List.of(new Document("$type", "$startedAt"), "date")),
+                new Document("$toInt", new Document("$trunc", new Document("$divide", List.of(
+                        new Document("$subtract", List.of(completedAt, "$startedAt")), 60000)))),
+                "$actualDuration"));
+        return transition(routeId, "in_progress",
+                AggregationUpdate.update()
+                        .set("status").toValue("completed")
+                        .set("completedAt").toValue(completedAt)
+                        .set("actualDuration").toValue(actualDuration),
+                "Route must be in 'in_progress' status to end trip");
+    }
 
-        // Calculate actual duration if started time is available
-        if (route.getStartedAt() != null) {
-            long minutes = ChronoUnit.MINUTES.between(route.getStartedAt(), route.getCompletedAt());
-            route.setActualDuration((int) minutes);
+    // Applies the update only while the route is in the expected status, in one findAndModify, so
+    // concurrent transitions cannot both succeed
+    private Route transition(String routeId, String expectedStatus, UpdateDefinition update, String illegalMessage) {
+        Route route = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(routeId).and("status").is(expectedStatus)),
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                Route.class);
+        if (route == null) {
+            if (!routeRepository.existsById(routeId)) {
+                throw new RuntimeException("Route not found with id: " + routeId);
+            }
+            throw new RuntimeException(illegalMessage);
         }
-
-        return routeRepository.save(route);
+        return route;
     }
 
     public Route updateRoute(String id, Route routeDetails) {
@@ -116,6 +144,9 @@ public class RouteService {
         route.setEndLongitude(routeDetails.getEndLongitude());
         route.setDistance(routeDetails.getDistance());
         route.setEstimatedDuration(routeDetails.getEstimatedDuration());
+        if (route.getDistance() == null) {
+            estimateTravel(route);
+        }
         route.setNotes(routeDetails.getNotes());
 
         return routeRepository.save(route);
@@ -132,4 +163,18 @@ public class RouteService {
         route.setStatus("cancelled");
         return routeRepository.save(route);
     }
-}
\ No newline at end of file
+
+    // Fill distance and estimated duration from the road network when the endpoints are known
+    private void estimateTravel(Route route) {
+        if (route.getStartLatitude() == null || route.getStartLongitude() == null
+                || route.getEndLatitude() == null || route.getEndLongitude() == null) {
+            return;
+        }
+        TravelEstimate estimate = routingEngine.estimate(route.getStartLatitude(), route.getStartLongitude(),
+                route.getEndLatitude(), route.getEndLongitude());
+        if (estimate != null) {
+            route.setDistance(Math.round(estimate.getDistanceKm() * 100.0) / 100.0);
+            route.setEstimatedDuration((int) Math.ceil(estimate.getDurationMinutes()));
+        }
+    }
+}
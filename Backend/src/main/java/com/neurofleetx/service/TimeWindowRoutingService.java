@@ -0,0 +1,204 @@
+package com.neurofleetx.service;
+
+import com.neurofleetx.entity.Booking;
+import com.neurofleetx.entity.Driver;
+import com.neurofleetx.optimization.TimeWindowRouter;
+import com.neurofleetx.repository.BookingRepository;
+import com.neurofleetx.repository.DriverRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+// Turns confirmed bookings into time-windowed stops and sequences them per driver.
+// The vehicle is handed over at the pickup location by the booking start and collected
+// at the dropoff location after the booking end.
+@Service
+public class TimeWindowRoutingService {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private DriverRepository driverRepository;
+
+    @Autowired
+    private ForkJoinPool optimizationPool;
+
+    // How long before the booking start the vehicle may be delivered
+    @Value("${optimization.time-windows.delivery-lead-minutes:60}")
+    private long deliveryLeadMinutes;
+
+    // How long after the booking end the vehicle should be collected
+    @Value("${optimization.time-windows.collection-grace-minutes:60}")
+    private long collectionGraceMinutes;
+
+    // Handover time spent at each stop
+    @Value("${optimization.time-windows.service-minutes:15}")
+    private double serviceMinutes;
+
+    private static class Stop {
+        private final Booking booking;
+        private final String type;
+        private final double latitude;
+        private final double longitude;
+        private final String address;
+        private final LocalDateTime windowStart;
+        private final LocalDateTime windowEnd;
+
+        Stop(Booking booking, String type, double latitude, double longitude, String address,
+             LocalDateTime windowStart, LocalDateTime windowEnd) {
+            this.booking = booking;
+            this.type = type;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.address = address;
+            this.windowStart = windowStart;
+            this.windowEnd = windowEnd;
+        }
+    }
+
+    // Plan delivery and collection stops of confirmed bookings falling inside [from, to]
+    public Map<String, Object> planRoutes(LocalDateTime from, LocalDateTime to) {
+        if (from == null) {
+            from = LocalDateTime.now();
+        }
+        if (to == null) {
+            to = from.plusDays(1);
+        }
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("Planning horizon end must be after its start");
+        }
+
+        List<Stop> stops = new ArrayList<>();
+        int skipped = 0;
+        // Only bookings with a delivery window (ending at the start) or a collection window (starting
+        // at the end) that reaches into the horizon
+        for (Booking booking : bookingRepository.findConfirmedStartingOrEndingWithin(
+                from, to.plusMinutes(deliveryLeadMinutes), from.minusMinutes(collectionGraceMinutes), to)) {
+            boolean added = false;
+            if (booking.getStartDate() != null && booking.getPickupLatitude() != null
+                    && booking.getPickupLongitude() != null) {
+                added |= addStop(stops, new Stop(booking, "delivery", booking.getPickupLatitude(),
+                        booking.getPickupLongitude(), booking.getPickupLocation(),
+                        booking.getStartDate().minusMinutes(deliveryLeadMinutes), booking.getStartDate()), from, to);
+            }
+            if (booking.getEndDate() != null && booking.getDropoffLatitude() != null
+                    && booking.getDropoffLongitude() != null) {
+                added |= addStop(stops, new Stop(booking, "collection", booking.getDropoffLatitude(),
+                        booking.getDropoffLongitude(), booking.getDropoffLocation(),
+                        booking.getEndDate(), booking.getEndDate().plusMinutes(collectionGraceMinutes)), from, to);
+            }
+            if (!added) {
+                skipped++;
+            }
+        }
+
+        List<Driver> drivers = driverRepository.findAll().stream()
+                .filter(d -> "active".equals(d.getStatus()) && d.getLatitude() != null && d.getLongitude() != null)
+                .toList();
+
+        int n = stops.size();
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        double[] earliest = new double[n];
+        double[] latest = new double[n];
+        double[] service = new double[n];
+        for (int i = 0; i < n; i++) {
+            Stop stop = stops.get(i);
+            latitudes[i] = stop.latitude;
+            longitudes[i] = stop.longitude;
+            // Windows are clipped to the horizon; drivers are available from its start
+            earliest[i] = Math.max(0.0, minutesBetween(from, stop.windowStart));
+            latest[i] = minutesBetween(from, stop.windowEnd);
+            service[i] = serviceMinutes;
+        }
+        double[] driverLatitudes = drivers.stream().mapToDouble(Driver::getLatitude).toArray();
+        double[] driverLongitudes = drivers.stream().mapToDouble(Driver::getLongitude).toArray();
+
+        long started = System.nanoTime();
+        TimeWindowRouter router = new TimeWindowRouter(driverLatitudes, driverLongitudes,
+                latitudes, longitudes, earliest, latest, service);
+        TimeWindowRouter.Result result = optimizationPool.submit(router::solve).join();
+        long elapsed = (System.nanoTime() - started) / 1_000_000;
+
+        List<Map<String, Object>> routes = new ArrayList<>();
+        for (TimeWindowRouter.DriverRoute route : result.getRoutes()) {
+            Driver driver = drivers.get(route.getDriver());
+            List<Map<String, Object>> sequence = new ArrayList<>();
+            for (int p = 0; p < route.getStops().length; p++) {
+                Map<String, Object> entry = describe(stops.get(route.getStops()[p]));
+                entry.put("sequenceNumber", p + 1);
+                entry.put("arrival", at(from, route.getArrival()[p]));
+                entry.put("serviceStart", at(from, route.getServiceStart()[p]));
+                entry.put("departure", at(from, route.getServiceStart()[p] + serviceMinutes));
+                entry.put("waitMinutes", round(route.getServiceStart()[p] - route.getArrival()[p]));
+                entry.put("slackMinutes", round(route.getSlack()[p]));
+                sequence.add(entry);
+            }
+            Map<String, Object> plan = new HashMap<>();
+            plan.put("driverId", driver.getId());
+            plan.put("driverName", driver.getName());
+            plan.put("stops", sequence);
+            plan.put("distance", round(route.getDistance()));
+            routes.add(plan);
+        }
+
+        List<Map<String, Object>> unassigned = new ArrayList<>();
+        for (int index : result.getUnassigned()) {
+            unassigned.add(describe(stops.get(index)));
+        }
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("horizonStart", from);
+        summary.put("horizonEnd", to);
+        summary.put("algorithm", TimeWindowRouter.ALGORITHM);
+        summary.put("routes", routes);
+        summary.put("unassignedStops", unassigned);
+        summary.put("bookingsWithoutStops", skipped);
+        summary.put("availableDrivers", drivers.size());
+        summary.put("elapsedMillis", elapsed);
+        return summary;
+    }
+
+    // Keeps stops whose window overlaps the horizon
+    private static boolean addStop(List<Stop> stops, Stop stop, LocalDateTime from, LocalDateTime to) {
+        if (stop.windowEnd.isBefore(from) || stop.windowStart.isAfter(to)) {
+            return false;
+        }
+        stops.add(stop);
+        return true;
+    }
+
+    private static Map<String, Object> describe(Stop stop) {
+        Map<String, Object> entry = new HashMap<>();
+        entry.put("bookingId", stop.booking.getId());
+        entry.put("vehicleId", stop.booking.getVehicleId());
+        entry.put("type", stop.type);
+        entry.put("latitude", stop.latitude);
+        entry.put("longitude", stop.longitude);
+        entry.put("address", stop.address);
+        entry.put("windowStart", stop.windowStart);
+        entry.put("windowEnd", stop.windowEnd);
+        return entry;
+    }
+
+    private static double minutesBetween(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).getSeconds() / 60.0;
+    }
+
+    private static LocalDateTime at(LocalDateTime from, double minutes) {
+        return from.plusSeconds(Math.round(minutes * 60));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
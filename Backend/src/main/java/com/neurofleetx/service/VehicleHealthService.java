@@ -0,0 +1,369 @@
+package com.neurofleetx.service;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.neurofleetx.entity.Telemetry;
+import com.neurofleetx.entity.Vehicle;
+import com.neurofleetx.entity.VehicleMaintenance;
+import com.neurofleetx.entity.VehicleMaintenance.ComponentHealth;
+import com.neurofleetx.entity.VehicleMaintenance.MaintenanceAlert;
+import com.neurofleetx.entity.VehicleMaintenance.TelemetryCheckpoint;
+import com.neurofleetx.health.ComponentWearModel;
+import com.neurofleetx.health.ComponentWearModel.Component;
+import com.neurofleetx.health.TelemetryFeatures;
+import com.neurofleetx.repository.VehicleRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Keeps the health of every vehicle's components current from its telemetry. Each record remembers
+// the last telemetry sample it has absorbed, so a run reads only the samples recorded since then
+// and wears the components down by what they add (ComponentWearModel) plus the calendar time
+// elapsed. The fleet is split into batches evaluated in parallel on their own pool; each batch
+// reads its telemetry in one query and writes back in one bulk, and only records whose health,
+// mileage or checkpoint actually moved are written. Writes are conditional on updatedAt so a
+// record edited meanwhile is left for the next run, and new records are upserted on vehicleId.
+@Service
+public class VehicleHealthService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private ForkJoinPool vehicleHealthPool;
+
+    @Value("${health.engine.enabled:true}")
+    private boolean enabled;
+
+    @Value("${health.engine.batch-size:50}")
+    private int batchSize;
+
+    @Value("${health.engine.max-gap-seconds:300}")
+    private double maxGapSeconds;
+
+    // How far back the first read of a vehicle without a checkpoint goes
+    @Value("${health.engine.initial-lookback-days:30}")
+    private long initialLookbackDays;
+
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong evaluated = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong samples = new AtomicLong();
+    private volatile Map<String, Object> lastRun;
+
+    // What one batch did
+    private record BatchResult(int evaluated, int written, int created, int conflicts, int samples) {}
+
+    // A record whose new state differs from the stored one
+    private record Change(VehicleMaintenance record, LocalDateTime readUpdatedAt, List<MaintenanceAlert> alerts) {}
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndexes() {
+        try {
+            IndexOperations indexOps = mongoTemplate.indexOps(Telemetry.class);
+            new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext())
+                    .resolveIndexFor(Telemetry.class)
+                    .forEach(indexOps::createIndex);
+        } catch (Exception e) {
+            System.err.println("Could not create telemetry indexes: " + e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${health.engine.interval-millis:900000}",
+               initialDelayString = "${health.engine.initial-delay-millis:60000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Map<String, Object> result = run();
+            System.out.println("Vehicle health engine evaluated " + result.get("vehiclesEvaluated")
+                    + " vehicles, wrote " + result.get("recordsWritten"));
+        } catch (Exception e) {
+            System.err.println("Vehicle health engine run failed: " + e.getMessage());
+        }
+    }
+
+    public synchronized Map<String, Object> run() {
+        long started = System.nanoTime();
+        // Millisecond precision, as stored, so updatedAt can be matched by the conditional writes
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        List<VehicleMaintenance> records = mongoTemplate.findAll(VehicleMaintenance.class);
+        Set<String> covered = new HashSet<>();
+        for (VehicleMaintenance record : records) {
+            covered.add(record.getVehicleId());
+        }
+        // Vehicles without a maintenance record start with new components
+        for (Vehicle vehicle : vehicleRepository.findAll()) {
+            if (vehicle.getId() != null && covered.add(vehicle.getId())) {
+                VehicleMaintenance record = new VehicleMaintenance();
+                record.setVehicleId(vehicle.getId());
+                record.setVehicleNumber(vehicle.getVin());
+                record.setCreatedAt(now);
+                records.add(record);
+            }
+        }
+
+        List<ForkJoinTask<BatchResult>> tasks = new ArrayList<>();
+        for (int from = 0; from < records.size(); from += batchSize) {
+            List<VehicleMaintenance> batch = records.subList(from, Math.min(records.size(), from + batchSize));
+            tasks.add(vehicleHealthPool.submit(() -> processBatch(batch, now)));
+        }
+        int vehicles = 0, recordsWritten = 0, created = 0, conflicted = 0, points = 0;
+        for (ForkJoinTask<BatchResult> task : tasks) {
+            BatchResult result = task.join();
+            vehicles += result.evaluated;
+            recordsWritten += result.written;
+            created += result.created;
+            conflicted += result.conflicts;
+            points += result.samples;
+        }
+        runs.incrementAndGet();
+        evaluated.addAndGet(vehicles);
+        written.addAndGet(recordsWritten);
+        conflicts.addAndGet(conflicted);
+        samples.addAndGet(points);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("vehiclesEvaluated", vehicles);
+        result.put("batches", tasks.size());
+        result.put("telemetrySamples", points);
+        result.put("recordsWritten", recordsWritten);
+        result.put("recordsCreated", created);
+        result.put("recordsUnchanged", vehicles - recordsWritten - conflicted);
+        result.put("conflicts", conflicted);
+        result.put("elapsedMillis", (System.nanoTime() - started) / 1_000_000);
+        result.put("completedAt", now);
+        lastRun = result;
+        return result;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("batchSize", batchSize);
+        stats.put("parallelism", vehicleHealthPool.getParallelism());
+        stats.put("runs", runs.get());
+        stats.put("vehiclesEvaluated", evaluated.get());
+        stats.put("recordsWritten", written.get());
+        stats.put("conflicts", conflicts.get());
+        stats.put("telemetrySamples", samples.get());
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    private BatchResult processBatch(List<VehicleMaintenance> batch, LocalDateTime now) {
+        Map<String, List<Telemetry>> telemetry = readTelemetry(batch, now);
+
+        List<Change> changes = new ArrayList<>();
+        int points = 0;
+        for (VehicleMaintenance record : batch) {
+            List<Telemetry> recorded = telemetry.getOrDefault(record.getVehicleId(), List.of());
+            points += recorded.size();
+            Change change = evaluate(record, recorded, now);
+            if (change != null) {
+                changes.add(change);
+            }
+        }
+        if (changes.isEmpty()) {
+            return new BatchResult(batch.size(), 0, 0, 0, points);
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, VehicleMaintenance.class);
+        int newRecords = 0;
+        for (Change change : changes) {
+            VehicleMaintenance record = change.record;
+            if (record.getId() == null) {
+                // Upsert on vehicleId, so a record another run created meanwhile is kept, not duplicated
+                Document fields = new Document();
+                mongoTemplate.getConverter().write(record, fields);
+                fields.remove("_id");
+                Update insert = new Update();
+                fields.forEach(insert::setOnInsert);
+                bulk.upsert(Query.query(Criteria.where("vehicleId").is(record.getVehicleId())), insert);
+                newRecords++;
+                continue;
+            }
+            Update update = new Update()
+                    .set("componentHealth", record.getComponentHealth())
+                    .set("healthScore", record.getHealthScore())
+                    .set("healthStatus", record.getHealthStatus())
+                    .set("riskLevel", record.getRiskLevel())
+                    .set("totalMileage", record.getTotalMileage())
+                    .set("mileageSinceLastService", record.getMileageSinceLastService())
+                    .set("telemetryCheckpoint", record.getTelemetryCheckpoint())
+                    .set("healthEvaluatedAt", record.getHealthEvaluatedAt())
+                    .set("updatedAt", record.getUpdatedAt());
+            if (!change.alerts.isEmpty()) {
+                update.push("alerts").each(change.alerts.toArray());
+            }
+            bulk.updateOne(Query.query(Criteria.where("_id").is(record.getId())
+                    .and("updatedAt").is(change.readUpdatedAt)), update);
+        }
+        BulkWriteResult result = bulk.execute();
+        // Upserts that found an existing record count as matched but wrote nothing
+        int created = result.getUpserts().size();
+        int writes = result.getMatchedCount() - (newRecords - created) + created;
+        return new BatchResult(batch.size(), writes, created, changes.size() - writes, points);
+    }
+
+    // Samples recorded after each vehicle's checkpoint, in recordedAt order, for the whole batch at once
+    private Map<String, List<Telemetry>> readTelemetry(List<VehicleMaintenance> batch, LocalDateTime now) {
+        List<Criteria> perVehicle = new ArrayList<>();
+        for (VehicleMaintenance record : batch) {
+            TelemetryCheckpoint checkpoint = record.getTelemetryCheckpoint();
+            Criteria criteria = Criteria.where("vehicleId").is(record.getVehicleId());
+            perVehicle.add(checkpoint == null || checkpoint.getRecordedAt() == null
+                    ? criteria.and("recordedAt").gt(now.minusDays(initialLookbackDays)).lte(now)
+                    : criteria.and("recordedAt").gt(checkpoint.getRecordedAt()).lte(now));
+        }
+        Query query = Query.query(new Criteria().orOperator(perVehicle.toArray(new Criteria[0])));
+        query.fields().include("vehicleId", "latitude", "longitude", "speed", "recordedAt");
+
+        Map<String, List<Telemetry>> byVehicle = new HashMap<>();
+        for (Telemetry sample : mongoTemplate.find(query, Telemetry.class)) {
+            if (sample.getLatitude() != null && sample.getLongitude() != null && sample.getRecordedAt() != null) {
+                byVehicle.computeIfAbsent(sample.getVehicleId(), v -> new ArrayList<>()).add(sample);
+            }
+        }
+        for (List<Telemetry> samples : byVehicle.values()) {
+            samples.sort(Comparator.comparing(Telemetry::getRecordedAt));
+        }
+        return byVehicle;
+    }
+
+    // Applies the new telemetry and elapsed time to the record; null when nothing visible would change
+    private Change evaluate(VehicleMaintenance record, List<Telemetry> recorded, LocalDateTime now) {
+        LocalDateTime evaluatedAt = record.getHealthEvaluatedAt();
+        double days = evaluatedAt == null ? 0 : Duration.between(evaluatedAt, now).toMillis() / 86_400_000.0;
+        // Calendar ageing alone moves health by well under a point a day
+        if (recorded.isEmpty() && evaluatedAt != null && days < 1) {
+            return null;
+        }
+
+        TelemetryCheckpoint checkpoint = record.getTelemetryCheckpoint();
+        TelemetryFeatures features = new TelemetryFeatures(checkpoint == null || checkpoint.getRecordedAt() == null
+                ? null
+                : new TelemetryFeatures.Sample(checkpoint.getRecordedAt(), checkpoint.getLatitude(),
+                        checkpoint.getLongitude(), checkpoint.getSpeed() == null ? Double.NaN : checkpoint.getSpeed()),
+                maxGapSeconds);
+        for (Telemetry sample : recorded) {
+            features.add(new TelemetryFeatures.Sample(sample.getRecordedAt(), sample.getLatitude().doubleValue(),
+                    sample.getLongitude().doubleValue(),
+                    sample.getSpeed() == null ? Double.NaN : sample.getSpeed().doubleValue()));
+        }
+
+        Map<String, ComponentHealth> existing = new LinkedHashMap<>();
+        if (record.getComponentHealth() != null) {
+            for (ComponentHealth component : record.getComponentHealth()) {
+                if (component.getComponentName() != null) {
+                    existing.put(component.getComponentName().toLowerCase(), component);
+                }
+            }
+        }
+
+        boolean changed = record.getId() == null || evaluatedAt == null || features.getSamples() > 0;
+        List<ComponentHealth> components = new ArrayList<>();
+        List<MaintenanceAlert> alerts = new ArrayList<>();
+        double sum = 0, minimum = 100;
+        for (Component component : Component.values()) {
+            ComponentHealth previous = existing.remove(component.getDisplayName().toLowerCase());
+            double level = 100;
+            double rate = 0;
+            String previousStatus = null;
+            if (previous != null) {
+                // A health percentage set by hand (or by older records) replaces the engine's own level
+                level = Math.abs(previous.getHealthLevel() - previous.getHealthPercentage()) > 0.5
+                        ? previous.getHealthPercentage() : previous.getHealthLevel();
+                rate = previous.getWearRatePerDay();
+                previousStatus = previous.getStatus();
+            }
+
+            double wear = component.wear(features, days);
+            level = Math.max(0, Math.min(100, level - wear));
+            rate = ComponentWearModel.smoothRate(component, rate, wear, days);
+            int health = (int) Math.round(level);
+            int lifespan = ComponentWearModel.remainingLifespan(component, level, rate);
+            String status = ComponentWearModel.componentStatus(health);
+
+            ComponentHealth next = new ComponentHealth(component.getDisplayName(), health, status, lifespan,
+                    ComponentWearModel.recommendation(health, lifespan));
+            next.setHealthLevel(level);
+            next.setWearRatePerDay(rate);
+            components.add(next);
+            changed |= previous == null || previous.getHealthPercentage() != health
+                    || !status.equals(previous.getStatus())
+                    || previous.getRemainingLifespan() != lifespan
+                    || !next.getRecommendation().equals(previous.getRecommendation());
+
+            if (severity(status) > severity(previousStatus) && severity(status) >= severity("Poor")) {
+                boolean critical = "Critical".equals(status);
+                alerts.add(new MaintenanceAlert(critical ? "critical" : "warning", component.getDisplayName(),
+                        component.getDisplayName() + " health dropped to " + health + "%, about "
+                                + lifespan + " days of service left",
+                        critical ? "high" : "medium"));
+            }
+            sum += level;
+            minimum = Math.min(minimum, level);
+        }
+        // Components the model does not know are kept as they are
+        components.addAll(existing.values());
+        if (!changed) {
+            return null;
+        }
+
+        int score = ComponentWearModel.healthScore(sum / Component.values().length, minimum);
+        LocalDateTime readUpdatedAt = record.getUpdatedAt();
+        record.setComponentHealth(components);
+        record.setHealthScore(score);
+        record.setHealthStatus(ComponentWearModel.healthStatus(score));
+        record.setRiskLevel(ComponentWearModel.riskLevel(score));
+        record.setTotalMileage(record.getTotalMileage() + features.getDistanceKm());
+        record.setMileageSinceLastService(record.getMileageSinceLastService() + features.getDistanceKm());
+        TelemetryFeatures.Sample last = features.getLast();
+        if (last != null) {
+            record.setTelemetryCheckpoint(new TelemetryCheckpoint(last.recordedAt(), last.latitude(),
+                    last.longitude(), Double.isNaN(last.speedKmh()) ? null : last.speedKmh()));
+        }
+        record.setHealthEvaluatedAt(now);
+        record.setUpdatedAt(now);
+        if (record.getId() == null) {
+            record.setAlerts(new ArrayList<>(alerts));
+        }
+        return new Change(record, readUpdatedAt, alerts);
+    }
+
+    // Order of the component statuses, worst highest
+    private static int severity(String status) {
+        if (status == null) return 0;
+        return switch (status) {
+            case "Fair" -> 1;
+            case "Poor" -> 2;
+            case "Critical" -> 3;
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.neurofleetx.service;
+
+import com.neurofleetx.entity.VehicleReservation;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Serializes booking writes per vehicle. Within a node, writes for one vehicle share a striped
+// lock, so different vehicles proceed in parallel. Across nodes, a write is optimistic: read the
+// vehicle's guard version, check for conflicts, write, then advance the guard from the version
+// read with findAndModify. If another node committed in between, the write is undone and retried,
+// and the retry's conflict check sees the other booking.
+@Service
+public class VehicleReservationService {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${booking.reservation.stripes:256}")
+    private int stripeCount;
+
+    @Value("${booking.reservation.max-attempts:5}")
+    private int maxAttempts;
+
+    private ReentrantLock[] stripes;
+
+    private final AtomicLong commits = new AtomicLong();
+    private final AtomicLong retries = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        // Power of two so the stripe is a mask of the hash
+        int count = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    // Runs check, then write, for the vehicle and commits the guard. check throws when the
+    // booking conflicts; undo must revert write when the commit loses to another node.
+    public <T> T reserve(String vehicleId, String bookingId, Runnable check, Supplier<T> write, Runnable undo) {
+        if (vehicleId == null) {
+            throw new IllegalArgumentException("Vehicle ID is required");
+        }
+        ReentrantLock lock = stripes[spread(vehicleId.hashCode()) & (stripes.length - 1)];
+        lock.lock();
+        try {
+            for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+                long version = readVersion(vehicleId);
+                check.run();
+                T result = write.get();
+                if (advance(vehicleId, version, bookingId)) {
+                    commits.incrementAndGet();
+                    return result;
+                }
+                undo.run();
+                retries.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+        throw new RuntimeException("Vehicle is being booked concurrently, please try again");
+    }
+
+    // Guard versions of the vehicles, 0 for vehicles never booked, for a batch commit with advanceAll
+    public Map<String, Long> readVersions(Collection<String> vehicleIds) {
+        Map<String, Long> versions = new HashMap<>();
+        for (String vehicleId : vehicleIds) {
+            versions.put(vehicleId, 0L);
+        }
+        for (VehicleReservation guard : mongoTemplate.find(
+                Query.query(Criteria.where("_id").in(vehicleIds)), VehicleReservation.class)) {
+            versions.put(guard.getId(), guard.getVersion());
+        }
+        return versions;
+    }
+
+    // Batch form of the commit step of reserve: advances every guard from the version read with
+    // one bulk write and returns the vehicles whose guard had moved on, whose writes must be undone
+    public Set<String> advanceAll(Map<String, Long> expected, String marker) {
+        if (expected.isEmpty()) {
+            return Set.of();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, VehicleReservation.class);
+        LocalDateTime now = LocalDateTime.now();
+        expected.forEach((vehicleId, version) -> {
+            Query query = Query.query(Criteria.where("_id").is(vehicleId).and("version").is(version));
+            Update update = new Update().inc("version", 1).set("lastBookingId", marker).set("updatedAt", now);
+            if (version == 0) {
+                bulk.upsert(query, update);
+            } else {
+                bulk.updateOne(query, update);
+            }
+        });
+        try {
+            bulk.execute();
+        } catch (BulkOperationException e) {
+            // Upserts that raced with a guard created elsewhere; the check below catches them
+        }
+
+        // Unmatched updates are not reported per operation, so the outcome is read back
+        Set<String> lost = new HashSet<>(expected.keySet());
+        for (VehicleReservation guard : mongoTemplate.find(
+                Query.query(Criteria.where("_id").in(expected.keySet())), VehicleReservation.class)) {
+            if (guard.getVersion() == expected.get(guard.getId()) + 1 && marker.equals(guard.getLastBookingId())) {
+                lost.remove(guard.getId());
+            }
+        }
+        commits.addAndGet(expected.size() - lost.size());
+        retries.addAndGet(lost.size());
+        return lost;
+    }
+
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("stripes", stripes.length);
+        stats.put("commits", commits.get());
+        stats.put("retries", retries.get());
+        return stats;
+    }
+
+    private long readVersion(String vehicleId) {
+        VehicleReservation guard = mongoTemplate.findById(vehicleId, VehicleReservation.class);
+        return guard == null ? 0 : guard.getVersion();
+    }
+
+    // Compare-and-set of the guard version; creates the guard on the first booking of a vehicle
+    private boolean advance(String vehicleId, long expected, String bookingId) {
+        try {
+            VehicleReservation updated = mongoTemplate.findAndModify(
+                    Query.query(Criteria.where("_id").is(vehicleId).and("version").is(expected)),
+                    new Update().inc("version", 1)
+                            .set("lastBookingId", bookingId)
+                            .set("updatedAt", LocalDateTime.now()),
+                    FindAndModifyOptions.options().returnNew(true).upsert(expected == 0),
+                    VehicleReservation.class);
+            return updated != null;
+        } catch (DuplicateKeyException e) {
+            // Upsert raced with a guard created by another node
+            return false;
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -1,12 +1,15 @@
 package com.neurofleetx.service;
 
 import com.neurofleetx.entity.Vehicle;
+import com.neurofleetx.optimization.GeoDistance;
+import com.neurofleetx.optimization.GeoPoints;
 import com.neurofleetx.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDateTime;
+import java.util.*;
 
 @Service
 @SuppressWarnings("null")
@@ -14,6 +17,13 @@ public class VehicleService {
     
     @Autowired
     private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    // Vehicle statuses that are never offered for booking, compared ignoring case
+    @Value("${vehicle.availability.excluded-statuses:maintenance,inactive,retired}")
+    private Set<String> excludedStatuses;
     
     public List<Vehicle> getAllVehicles() {
         return vehicleRepository.findAll();
@@ -44,4 +54,61 @@ public class VehicleService {
     public void deleteVehicle(String id) {
         vehicleRepository.deleteById(id);
     }
+
+    // Vehicles without a blocking booking in [startDate, endDate), nearest first when a pickup
+    // point is given (vehicles without a position last), in one pass over the booking index
+    public List<Map<String, Object>> findAvailableVehicles(LocalDateTime startDate, LocalDateTime endDate,
+                                                           Double latitude, Double longitude, Integer limit) {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start and end are required");
+        }
+        if (!startDate.isBefore(endDate)) {
+            throw new IllegalArgumentException("Start must be before end");
+        }
+        Set<String> busy = bookingIntervalIndex.findBusyVehicles(startDate, endDate);
+        List<Vehicle> free = vehicleRepository.findAll().stream()
+                .filter(v -> !busy.contains(v.getId()))
+                .filter(v -> v.getStatus() == null || !excludedStatuses.contains(v.getStatus().toLowerCase(Locale.ROOT)))
+                .toList();
+
+        double[] distances = new double[free.size()];
+        Arrays.fill(distances, Double.NaN);
+        Integer[] order = new Integer[free.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        if (latitude != null && longitude != null) {
+            List<Integer> located = new ArrayList<>();
+            for (int i = 0; i < free.size(); i++) {
+                if (free.get(i).getLatitude() != null && free.get(i).getLongitude() != null) {
+                    located.add(i);
+                }
+            }
+            double[] latitudes = new double[located.size()];
+            double[] longitudes = new double[located.size()];
+            for (int k = 0; k < located.size(); k++) {
+                latitudes[k] = free.get(located.get(k)).getLatitude();
+                longitudes[k] = free.get(located.get(k)).getLongitude();
+            }
+            double[] row = new double[located.size()];
+            GeoDistance.kernel().distancesKm(latitude, longitude, GeoPoints.of(latitudes, longitudes),
+                    0, row.length, row, 0);
+            for (int k = 0; k < located.size(); k++) {
+                distances[located.get(k)] = row[k];
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> Double.isNaN(distances[i]) ? Double.MAX_VALUE : distances[i]));
+        }
+
+        int count = limit != null && limit > 0 ? Math.min(limit, order.length) : order.length;
+        List<Map<String, Object>> result = new ArrayList<>(count);
+        for (int k = 0; k < count; k++) {
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("vehicle", free.get(order[k]));
+            if (!Double.isNaN(distances[order[k]])) {
+                entry.put("distanceKm", Math.round(distances[order[k]] * 100.0) / 100.0);
+            }
+            result.add(entry);
+        }
+        return result;
+    }
 }